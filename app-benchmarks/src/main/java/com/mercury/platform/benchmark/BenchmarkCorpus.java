@@ -0,0 +1,101 @@
+package com.mercury.platform.benchmark;
+
+import com.mercury.platform.ui.frame.titled.TestEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Client.txt content generated from the {@link TestEngine} templates, with a fixed seed so every
+ * run measures the same text.
+ */
+public class BenchmarkCorpus {
+    public static final int SIZE = 1024;
+    public static final long SEED = 42;
+    private static final String[] NICKNAMES = {"Example1", "<GUILD> Example2", "<TEST> Pubesmannen", "Игрок"};
+    private static final String[] CHAT = {"wts exalted 1:65", "anyone for lab?", "LF3M Uber Atziri",
+            "selling 6L Tabula Rasa pm me", "how much is a mirror now?", "wtb Kaom's Heart"};
+    private static final String[] NOISE = {"Connecting to instance server at 1.2.3.4:6112",
+            "Connect time to instance server was 31ms", "[SHADER] Delay: ON",
+            "Async connecting to au.login.pathofexile.com:20481", ": You have entered Highgate."};
+
+    public enum Kind {
+        /** poe.trade item whispers with stash position */
+        ITEM,
+        /** currency exchange whispers */
+        CURRENCY,
+        /** russian item whispers, matched by the localized templates */
+        LOCALIZED,
+        /** whispers that are not trade requests */
+        PLAIN
+    }
+
+    /**
+     * Whisper bodies as they follow the "@From" marker.
+     */
+    public static List<String> whispers(Kind kind) {
+        TestEngine engine = new TestEngine(SEED);
+        Random random = new Random(SEED);
+        List<String> whispers = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            whispers.add(" " + whisper(kind, engine, random));
+        }
+        return whispers;
+    }
+
+    /**
+     * Client.txt lines roughly in the proportions of a trade-heavy session: mostly channel
+     * chatter, some area and connection lines, one whisper in five.
+     */
+    public static List<String> logLines(int count) {
+        TestEngine engine = new TestEngine(SEED);
+        Random random = new Random(SEED);
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String prefix = String.format("2017/05/01 10:%02d:%02d %d abc [INFO Client 1] ", (i / 60) % 60, i % 60, 1000000 + i);
+            int roll = random.nextInt(100);
+            String text;
+            if (roll < 10) {
+                text = "@From " + whisper(Kind.ITEM, engine, random);
+            } else if (roll < 13) {
+                text = "@From " + whisper(Kind.CURRENCY, engine, random);
+            } else if (roll < 16) {
+                text = "@To " + whisper(Kind.ITEM, engine, random);
+            } else if (roll < 20) {
+                text = "@From " + whisper(Kind.PLAIN, engine, random);
+            } else if (roll < 55) {
+                text = "$" + pick(random, NICKNAMES) + ": " + pick(random, CHAT);
+            } else if (roll < 75) {
+                text = "#" + pick(random, NICKNAMES) + ": " + pick(random, CHAT);
+            } else if (roll < 80) {
+                text = ": " + pick(random, NICKNAMES) + " has joined the area.";
+            } else if (roll < 85) {
+                text = ": " + pick(random, NICKNAMES) + " has left the area.";
+            } else {
+                text = pick(random, NOISE);
+            }
+            lines.add(prefix + text);
+        }
+        return lines;
+    }
+
+    private static String whisper(Kind kind, TestEngine engine, Random random) {
+        switch (kind) {
+            case ITEM:
+                return engine.getRandomItemWhisper();
+            case CURRENCY:
+                return engine.getRandomCurrencyWhisper();
+            case LOCALIZED:
+                return pick(random, NICKNAMES) + ": Здравствуйте, хочу купить у вас Кольцо Гибели за " + random.nextInt(200)
+                        + " chaos в лиге Стандарт (секция \"" + random.nextInt(30) + "\"; позиция: "
+                        + (random.nextInt(12) + 1) + " столбец, " + (random.nextInt(12) + 1) + " ряд)";
+            default:
+                return pick(random, NICKNAMES) + ": " + pick(random, CHAT);
+        }
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
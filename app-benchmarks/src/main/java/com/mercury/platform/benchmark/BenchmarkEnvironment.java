@@ -0,0 +1,54 @@
+package com.mercury.platform.benchmark;
+
+import com.mercury.platform.core.utils.pipeline.EventPublisher;
+import com.mercury.platform.shared.config.ConfigManager;
+import com.mercury.platform.shared.config.Configuration;
+import com.mercury.platform.shared.config.configration.PlainConfigurationService;
+import com.mercury.platform.shared.config.descriptor.NotificationSettingsDescriptor;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Lets interceptors run outside of the application: an in-memory configuration with the
+ * default notification settings, and a publisher that drops events so subscribers are not
+ * part of the measurement.
+ */
+public class BenchmarkEnvironment {
+    public static final EventPublisher DISCARDING_PUBLISHER = new EventPublisher() {
+        @Override
+        public void publish(Runnable event) {
+        }
+
+        @Override
+        public void publish(Object coalesceKey, Runnable event) {
+        }
+    };
+
+    public static synchronized void install() {
+        if (Configuration.get() != null) {
+            return;
+        }
+        PlainConfigurationService<NotificationSettingsDescriptor> notificationConfiguration = new PlainConfigurationService<NotificationSettingsDescriptor>() {
+            private NotificationSettingsDescriptor descriptor = new NotificationSettingsDescriptor();
+
+            @Override
+            public NotificationSettingsDescriptor get() {
+                return this.descriptor;
+            }
+
+            @Override
+            public void set(NotificationSettingsDescriptor descriptor) {
+                this.descriptor = descriptor;
+            }
+        };
+        ConfigManager configManager = (ConfigManager) Proxy.newProxyInstance(ConfigManager.class.getClassLoader(),
+                new Class[]{ConfigManager.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("notificationConfiguration")) {
+                        return notificationConfiguration;
+                    }
+                    throw new UnsupportedOperationException(method.getName() + " is not available in benchmarks");
+                });
+        Configuration.set(configManager);
+    }
+}
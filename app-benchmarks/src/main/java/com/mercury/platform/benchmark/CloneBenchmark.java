@@ -0,0 +1,75 @@
+package com.mercury.platform.benchmark;
+
+import com.mercury.platform.shared.CloneHelper;
+import com.mercury.platform.shared.config.configration.impl.adr.AdrConfigurationServiceMock;
+import com.mercury.platform.shared.config.descriptor.ScannerDescriptor;
+import com.mercury.platform.shared.config.descriptor.ScannerRuleDescriptor;
+import com.mercury.platform.shared.config.descriptor.adr.AdrTrackerGroupDescriptor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deep copy of a tracker group with many cells (ADR duplication) and of the scanner settings
+ * (snapshot before edit): {@code cloneObject} against the Java serialization round trip it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloneBenchmark {
+    @Param({"TRACKER_GROUP", "SCANNER"})
+    private Payload payload;
+    private Object source;
+
+    @Setup
+    public void setUp() {
+        this.source = this.payload.create();
+    }
+
+    @Benchmark
+    public Object cloneObject() {
+        return CloneHelper.cloneObject(this.source);
+    }
+
+    @Benchmark
+    public Object serialization() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream ous = new ObjectOutputStream(baos)) {
+            ous.writeObject(this.source);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            return ois.readObject();
+        }
+    }
+
+    public enum Payload {
+        TRACKER_GROUP {
+            @Override
+            Object create() {
+                AdrConfigurationServiceMock config = new AdrConfigurationServiceMock(null);
+                AdrTrackerGroupDescriptor group = config.getDefaultIconGroup();
+                for (int i = 0; i < 50; i++) {
+                    group.getCells().add(config.getDefaultIcon());
+                }
+                return group;
+            }
+        },
+        SCANNER {
+            @Override
+            Object create() {
+                ScannerDescriptor scanner = new ScannerDescriptor();
+                scanner.setWords("chaos,exalted,!wtb,!sell");
+                for (int i = 0; i < 10; i++) {
+                    scanner.getRules().add(new ScannerRuleDescriptor());
+                }
+                return scanner;
+            }
+        };
+
+        abstract Object create();
+    }
+}
@@ -0,0 +1,96 @@
+package com.mercury.platform.benchmark;
+
+import com.mercury.platform.shared.config.ConfigSection;
+import com.mercury.platform.shared.config.SectionedConfigStore;
+import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
+import com.mercury.platform.shared.config.descriptor.ScannerDescriptor;
+import com.mercury.platform.shared.config.descriptor.adr.AdrProfileDescriptor;
+import com.mercury.platform.shared.config.json.JSONHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads a configuration folder the way the application does at start: the profile index and the
+ * sections of the selected profile, each profile holding the ADR showcase components.
+ * {@code coldLoad} runs once per fresh JVM, {@code load} is the steady state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigLoadBenchmark {
+    private static final String SHOWCASE = "notes/showcase-profile.json";
+    @Param({"1", "10"})
+    private int profiles;
+    private File folder;
+    private File index;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.folder = Files.createTempDirectory("config").toFile();
+        this.index = new File(this.folder, "configuration.json");
+        SectionedConfigStore store = new SectionedConfigStore(this.folder.getPath(), this.index.getPath());
+        List<ProfileDescriptor> descriptors = new ArrayList<>();
+        for (int i = 0; i < this.profiles; i++) {
+            descriptors.add(this.profile("Profile" + i));
+        }
+        descriptors.get(0).setSelected(true);
+        store.writeIndex(descriptors);
+        for (int i = 0; i < descriptors.size(); i++) {
+            for (ConfigSection section : ConfigSection.values()) {
+                store.writeSection(i, descriptors.get(i), section);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.walk(this.folder.toPath())
+                .sorted((a, b) -> b.compareTo(a))
+                .forEach(path -> path.toFile().delete());
+    }
+
+    @Benchmark
+    public List<ProfileDescriptor> load() {
+        return new SectionedConfigStore(this.folder.getPath(), this.index.getPath()).load();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public List<ProfileDescriptor> coldLoad() {
+        return this.load();
+    }
+
+    private ProfileDescriptor profile(String name) {
+        ProfileDescriptor profile = new ProfileDescriptor();
+        profile.setName(name);
+        ScannerDescriptor scanner = new ScannerDescriptor();
+        scanner.setWords("chaos,exalted,!wtb");
+        profile.setScannerDescriptor(scanner);
+        Map<String, Float> scale = new HashMap<>();
+        scale.put("notification", 1f);
+        profile.setScaleDataMap(scale);
+        List<AdrProfileDescriptor> adrProfiles = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            AdrProfileDescriptor adrProfile = new AdrProfileDescriptor();
+            adrProfile.setProfileName("Showcase" + i);
+            adrProfile.setContents(new JSONHelper().getJsonAsObjectFromFile(SHOWCASE));
+            adrProfiles.add(adrProfile);
+        }
+        profile.setAdrProfileDescriptorList(adrProfiles);
+        return profile;
+    }
+}
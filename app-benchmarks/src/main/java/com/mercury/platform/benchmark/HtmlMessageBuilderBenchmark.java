@@ -0,0 +1,37 @@
+package com.mercury.platform.benchmark;
+
+import com.mercury.platform.ui.components.panel.chat.HtmlMessageBuilder;
+import com.mercury.platform.ui.frame.titled.TestEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlMessageBuilderBenchmark {
+    private HtmlMessageBuilder builder;
+    private String[] messages;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        this.builder = new HtmlMessageBuilder();
+        this.builder.setChunkStrings(new TestEngine(BenchmarkCorpus.SEED).getChunkStrings());
+        List<String> whispers = BenchmarkCorpus.whispers(BenchmarkCorpus.Kind.ITEM);
+        this.messages = new String[whispers.size()];
+        for (int i = 0; i < this.messages.length; i++) {
+            String whisper = whispers.get(i);
+            this.messages[i] = whisper.substring(whisper.indexOf(':') + 1);
+        }
+    }
+
+    @Benchmark
+    public String build() {
+        return this.builder.build(this.messages[this.index++ & (BenchmarkCorpus.SIZE - 1)]);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mercury.platform.benchmark;
+
+import com.mercury.platform.core.utils.interceptor.*;
+import com.mercury.platform.core.utils.interceptor.dispatch.ClassifiedLine;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineClassifier;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineFeature;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MessageInterceptor#match(ClassifiedLine)} over the lines the dispatcher would route to
+ * the interceptor, i.e. the lines carrying one of its triggers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterceptorBenchmark {
+    @Param({"TradeInc", "TradeOut", "PlainMessage", "PlayerJoin", "PlayerLeft"})
+    private String interceptorName;
+    private MessageInterceptor interceptor;
+    private ClassifiedLine[] lines;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        BenchmarkEnvironment.install();
+        this.interceptor = this.create(this.interceptorName);
+        this.interceptor.setPublisher(BenchmarkEnvironment.DISCARDING_PUBLISHER);
+        List<ClassifiedLine> routed = new ArrayList<>();
+        for (String line : BenchmarkCorpus.logLines(BenchmarkCorpus.SIZE * 16)) {
+            ClassifiedLine classifiedLine = LineClassifier.INSTANCE.classify(line);
+            if (this.isTriggeredBy(classifiedLine) && routed.size() < BenchmarkCorpus.SIZE) {
+                routed.add(classifiedLine);
+            }
+        }
+        while (routed.size() < BenchmarkCorpus.SIZE) {
+            routed.addAll(routed.subList(0, Math.min(routed.size(), BenchmarkCorpus.SIZE - routed.size())));
+        }
+        this.lines = routed.toArray(new ClassifiedLine[BenchmarkCorpus.SIZE]);
+    }
+
+    @Benchmark
+    public boolean match() {
+        return this.interceptor.match(this.lines[this.index++ & (BenchmarkCorpus.SIZE - 1)]);
+    }
+
+    private boolean isTriggeredBy(ClassifiedLine line) {
+        for (LineFeature trigger : this.interceptor.getTriggers()) {
+            if (line.has(trigger)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MessageInterceptor create(String name) {
+        switch (name) {
+            case "TradeInc":
+                return new TradeIncMessagesInterceptor();
+            case "TradeOut":
+                return new TradeOutMessagesInterceptor();
+            case "PlainMessage":
+                return new PlainMessageInterceptor();
+            case "PlayerJoin":
+                return new PlayerJoinInterceptor();
+            case "PlayerLeft":
+                return new PlayerLeftInterceptor();
+            default:
+                throw new IllegalArgumentException("Unknown interceptor " + name);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.mercury.platform.benchmark;
+
+import com.mercury.platform.core.utils.interceptor.dispatch.LineClassifier;
+import com.mercury.platform.core.utils.tail.ClientLogTailer;
+import com.mercury.platform.core.utils.tail.TailCheckpoint;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a generated Client.txt from its first byte, as after a restart: {@code tail} measures
+ * reading and decoding lines, {@code tailAndClassify} adds {@link LineClassifier}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogTailBenchmark {
+    @Param({"100000"})
+    private int lines;
+    private Path logFile;
+    private TailCheckpoint checkpoint;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.logFile = Files.createTempFile("Client", ".txt");
+        List<String> content = BenchmarkCorpus.logLines(this.lines);
+        Files.write(this.logFile, (String.join("\r\n", content) + "\r\n").getBytes(StandardCharsets.UTF_8));
+        this.checkpoint = new FromStartCheckpoint(this.logFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.logFile);
+    }
+
+    @Benchmark
+    public void tail(Blackhole blackhole) throws IOException {
+        try (ClientLogTailer tailer = new ClientLogTailer(this.logFile.toString(), this.checkpoint)) {
+            tailer.open();
+            tailer.poll((line, offset) -> blackhole.consume(line.length()));
+        }
+    }
+
+    @Benchmark
+    public void tailAndClassify(Blackhole blackhole) throws IOException {
+        try (ClientLogTailer tailer = new ClientLogTailer(this.logFile.toString(), this.checkpoint)) {
+            tailer.open();
+            tailer.poll((line, offset) -> blackhole.consume(LineClassifier.INSTANCE.classify(line, false)));
+        }
+    }
+
+    /**
+     * Always resumes at offset 0 and never stores anything.
+     */
+    private static class FromStartCheckpoint extends TailCheckpoint {
+        private final State state = new State();
+
+        private FromStartCheckpoint(Path logFile) {
+            super(new File(logFile.toString() + ".checkpoint").getPath());
+            this.state.setLogFilePath(logFile.toString());
+        }
+
+        @Override
+        public State load() {
+            return this.state;
+        }
+
+        @Override
+        public void save(State state) {
+        }
+    }
+}
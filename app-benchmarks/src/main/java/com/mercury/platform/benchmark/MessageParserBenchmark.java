@@ -0,0 +1,32 @@
+package com.mercury.platform.benchmark;
+
+import com.mercury.platform.shared.MessageParser;
+import com.mercury.platform.shared.entity.message.NotificationDescriptor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageParserBenchmark {
+    @Param({"ITEM", "CURRENCY", "LOCALIZED", "PLAIN"})
+    private BenchmarkCorpus.Kind corpus;
+    private MessageParser parser;
+    private String[] messages;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        this.parser = new MessageParser();
+        this.messages = BenchmarkCorpus.whispers(this.corpus).toArray(new String[BenchmarkCorpus.SIZE]);
+    }
+
+    @Benchmark
+    public NotificationDescriptor parse() {
+        return this.parser.parse(this.messages[this.index++ & (BenchmarkCorpus.SIZE - 1)]);
+    }
+}
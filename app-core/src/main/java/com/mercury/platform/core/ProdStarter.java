@@ -2,6 +2,8 @@ package com.mercury.platform.core;
 
 import com.mercury.platform.core.misc.SoundNotifier;
 import com.mercury.platform.core.update.UpdateClientStarter;
+import com.mercury.platform.core.utils.HistoryOutcomeTracker;
+import com.mercury.platform.core.utils.backfill.HistoryImporter;
 import com.mercury.platform.shared.FrameVisibleState;
 import com.mercury.platform.shared.HistoryManager;
 import com.mercury.platform.shared.config.descriptor.adr.AdrVisibleState;
@@ -35,6 +37,8 @@ public class ProdStarter {
         Configuration.set(configuration);
         new SoundNotifier();
         new ChatHelper();
+        new HistoryImporter();
+        new HistoryOutcomeTracker();
         new HotKeysInterceptor();
 
         Executor executor = Executors.newSingleThreadExecutor();
@@ -1,30 +1,24 @@
 package com.mercury.platform.core.utils;
 
+import com.mercury.platform.core.utils.watch.LogChangeWatcher;
 import com.mercury.platform.shared.config.Configuration;
 import com.mercury.platform.shared.store.MercuryStoreCore;
-import org.apache.commons.io.monitor.FileAlterationListener;
-import org.apache.commons.io.monitor.FileAlterationListenerAdaptor;
-import org.apache.commons.io.monitor.FileAlterationMonitor;
-import org.apache.commons.io.monitor.FileAlterationObserver;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 public class FileMonitor {
     private Logger logger = LogManager.getLogger(FileMonitor.class.getSimpleName());
 
-    private static final long POLLING_INTERVAL = 350;
     private MessageFileHandler fileHandler;
-    private FileAlterationMonitor monitor;
+    private LogChangeWatcher watcher;
     public FileMonitor(){
         MercuryStoreCore.poeFolderChangedSubject.subscribe(state -> {
-            if(monitor != null){
-                try {
-                    monitor.stop();
-                } catch (Exception e) {
-                    logger.error("Error in FileMonitor: ", e);
-                }
+            if(watcher != null){
+                watcher.stop();
+                fileHandler.close();
                 start();
             }
         });
@@ -32,23 +26,16 @@ public class FileMonitor {
     public void start(){
         String gamePath = Configuration.get().applicationConfiguration().get().getGamePath();
 
-        File folder = new File(gamePath+"logs");
         this.fileHandler = new MessageFileHandler(gamePath + "logs/Client.txt");
-        FileAlterationObserver observer = new FileAlterationObserver(folder);
-        monitor = new FileAlterationMonitor(POLLING_INTERVAL);
-        FileAlterationListener listener = new FileAlterationListenerAdaptor(){
-            @Override
-            public void onFileChange(File file) {
-                fileHandler.parse();
-            }
-        };
-
-        observer.addListener(listener);
-        monitor.addObserver(observer);
+        this.watcher = new LogChangeWatcher(Paths.get(gamePath + "logs", "Client.txt"), fileHandler::parse);
         try {
-            monitor.start();
-        } catch (Exception e) {
-            e.printStackTrace();
+            watcher.start();
+        } catch (IOException e) {
+            logger.error("Error in FileMonitor: ", e);
         }
     }
+
+    public LogChangeWatcher getWatcher() {
+        return watcher;
+    }
 }
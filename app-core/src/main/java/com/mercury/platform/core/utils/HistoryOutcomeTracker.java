@@ -0,0 +1,63 @@
+package com.mercury.platform.core.utils;
+
+import com.mercury.platform.shared.AsSubscriber;
+import com.mercury.platform.shared.HistoryManager;
+import com.mercury.platform.shared.entity.message.NotificationDescriptor;
+import com.mercury.platform.shared.history.HistoryOutcome;
+import com.mercury.platform.shared.store.MercuryStoreCore;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the outcome of the history records up to date: invite, trade and kick commands mark the
+ * newest whisper of the player, closing or expiring a notification marks its whisper when
+ * nothing was done with it. Updates run on a background thread.
+ */
+public class HistoryOutcomeTracker implements AsSubscriber {
+    private final Logger logger = LogManager.getLogger(HistoryOutcomeTracker.class.getSimpleName());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "HistoryOutcomeTracker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HistoryOutcomeTracker() {
+        this.subscribe();
+    }
+
+    @Override
+    public void subscribe() {
+        MercuryStoreCore.chatCommandSubject.subscribe(command -> {
+            if (command.startsWith("/invite ")) {
+                this.setOutcome(command.substring("/invite ".length()), null, HistoryOutcome.INVITED);
+            } else if (command.startsWith("/tradewith ")) {
+                this.setOutcome(command.substring("/tradewith ".length()), null, HistoryOutcome.TRADED);
+            } else if (command.startsWith("/kick ")) {
+                this.setOutcome(command.substring("/kick ".length()), null, HistoryOutcome.KICKED);
+            }
+        });
+        MercuryStoreCore.removeNotificationSubject.subscribe(descriptor ->
+                this.setOutcome(descriptor, HistoryOutcome.DISMISSED));
+        MercuryStoreCore.expiredNotificationSubject.subscribe(descriptor ->
+                this.setOutcome(descriptor, HistoryOutcome.EXPIRED));
+    }
+
+    private void setOutcome(NotificationDescriptor descriptor, HistoryOutcome outcome) {
+        this.setOutcome(descriptor.getWhisperNickname(), descriptor.getSourceString(), outcome);
+    }
+
+    private void setOutcome(String nickname, String sourceString, HistoryOutcome outcome) {
+        this.executor.execute(() -> {
+            try {
+                HistoryManager.INSTANCE.setOutcome(nickname.trim(), sourceString, outcome);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("Error while setting history outcome of {}: ", nickname, e);
+            }
+        });
+    }
+}
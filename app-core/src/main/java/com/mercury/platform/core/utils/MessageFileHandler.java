@@ -1,99 +1,121 @@
 package com.mercury.platform.core.utils;
 
 import com.mercury.platform.core.utils.interceptor.*;
+import com.mercury.platform.core.utils.interceptor.dispatch.ClassifiedLine;
+import com.mercury.platform.core.utils.interceptor.dispatch.InterceptorDispatcher;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineClassifier;
+import com.mercury.platform.core.utils.pipeline.IngestionPipeline;
+import com.mercury.platform.core.utils.tail.ClientLogTailer;
+import com.mercury.platform.core.utils.tail.LogPosition;
+import com.mercury.platform.core.utils.tail.LogTimestampParser;
+import com.mercury.platform.core.utils.tail.TailCheckpoint;
 import com.mercury.platform.shared.AsSubscriber;
 import com.mercury.platform.shared.store.MercuryStoreCore;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.File;
-import java.io.RandomAccessFile;
-import java.util.*;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.io.IOException;
 
 public class MessageFileHandler implements AsSubscriber {
-    private static final String dateRGPattern = "^\\n?[0-9]{4}\\/(0[1-9]|1[0-2])\\/(0[1-9]|[1-2][0-9]|3[0-1])\\s([01]?[0-9]|2[0-3]):[0-5][0-9]:[0-5][0-9]$";
     private final Logger logger = LogManager.getLogger(MessageFileHandler.class);
     private String logFilePath;
-    private Date lastMessageDate = new Date();
-    private Pattern datePattern;
+    private LogTimestampParser timestampParser = new LogTimestampParser();
+    private long startTimestamp;
+    private long lastTimestamp = LogPosition.START.getTimestamp();
+    private long lastOffset = LogPosition.START.getOffset();
 
-    private List<MessageInterceptor> interceptors = new ArrayList<>();
+    private LineClassifier classifier = LineClassifier.INSTANCE;
+    private InterceptorDispatcher dispatcher = new InterceptorDispatcher();
+    private IngestionPipeline pipeline = new IngestionPipeline(this.dispatcher);
+    private ClientLogTailer tailer;
 
     public MessageFileHandler(String logFilePath) {
         this.logFilePath = logFilePath;
-        this.datePattern = Pattern.compile(dateRGPattern);
+        this.startTimestamp = System.currentTimeMillis() / 1000 * 1000;
+        this.tailer = new ClientLogTailer(logFilePath, new TailCheckpoint());
+        this.tailer.setRotationHandler(rotation -> {
+            this.lastOffset = LogPosition.START.getOffset();
+            MercuryStoreCore.clientLogRotatedSubject.onNext(rotation);
+        });
+        try {
+            this.tailer.open();
+            if (this.tailer.isResumed()) {
+                this.lastTimestamp = this.tailer.getTimestamp();
+                this.lastOffset = this.tailer.getOffset() - 1;
+            }
+        } catch (IOException e) {
+            logger.error("Error while opening log file: {}", logFilePath, e);
+        }
 
-        this.interceptors.add(new TradeIncMessagesInterceptor());
-        this.interceptors.add(new TradeOutMessagesInterceptor());
-        this.interceptors.add(new PlainMessageInterceptor());
-        this.interceptors.add(new PlayerJoinInterceptor());
-        this.interceptors.add(new PlayerLeftInterceptor());
+        this.addInterceptor(new TradeIncMessagesInterceptor());
+        this.addInterceptor(new TradeOutMessagesInterceptor());
+        this.addInterceptor(new PlainMessageInterceptor());
+        this.addInterceptor(new PlayerJoinInterceptor());
+        this.addInterceptor(new PlayerLeftInterceptor());
 
         this.subscribe();
+        this.pipeline.start();
     }
 
+    /**
+     * Lines older than the app start can only come from the gap between the tail checkpoint and
+     * the end of file. Of those just incoming whispers are replayed, the trade interceptor
+     * decides whether they are still worth a notification.
+     */
     public void parse() {
-        List<String> stubMessages = new ArrayList<>();
-        File logFile = new File(logFilePath);
-        try {
-            RandomAccessFile randomAccessFile = new RandomAccessFile(logFile, "r");
-            int lines = 0;
-            StringBuilder builder = new StringBuilder();
-            long length = logFile.length();
-            length--;
-            randomAccessFile.seek(length);
-            for (long seek = length; seek >= 0; --seek) {
-                randomAccessFile.seek(seek);
-                char c = (char) randomAccessFile.read();
-                builder.append(c);
-                if (c == '\n') {
-                    builder = builder.reverse();
-                    String str = builder.toString();
-                    String utf8 = new String(str.getBytes("ISO-8859-1"), "UTF-8");
-                    stubMessages.add(utf8);
-                    lines++;
-                    builder = new StringBuilder();
-                    if (lines == 30) {
-                        break;
-                    }
-                }
+        this.tailer.poll((line, lineOffset) -> {
+            long timestamp = this.timestampParser.parse(line);
+            if (timestamp < 0 || !this.isNew(timestamp, lineOffset)) {
+                return;
             }
-        } catch (Exception e) {
-            logger.error("Error in MessageFileHandler: ", e);
-        }
-        List<String> filteredMessages = stubMessages.stream().filter(message ->
-                message != null && !message.equals("\n"))
-                .collect(Collectors.toList());
-
-        List<String> resultMessages = filteredMessages.stream().filter(message -> {
-            if(message.contains("2017") || message.contains("2018")) { //todo
-                Date date = new Date(StringUtils.substring(message, 0, 20));
-                return date.after(lastMessageDate);
-            }else {
-                return false;
+            boolean replayed = timestamp < this.startTimestamp;
+            ClassifiedLine classifiedLine = this.classifier.classify(line, !replayed && this.dispatcher.hasCatchAll());
+            this.lastTimestamp = timestamp;
+            this.lastOffset = lineOffset;
+            this.tailer.setTimestamp(timestamp);
+            if (classifiedLine == null || (replayed && !classifiedLine.isIncoming())) {
+                return;
             }
-        }).collect(Collectors.toList());
-        Collections.reverse(resultMessages);
-        this.interceptors.forEach(interceptor -> {
-            resultMessages.forEach(message -> {
-                if (interceptor.match(message)) {
-                    this.lastMessageDate = new Date(StringUtils.substring(message, 0, 20));
-                }
-            });
+            classifiedLine.setTimestamp(timestamp);
+            classifiedLine.setReplayed(replayed);
+            this.pipeline.submit(classifiedLine);
         });
     }
 
+    /**
+     * A line is a duplicate only if it is neither later in the file nor later in time than the
+     * last processed one. A later offset alone is enough (several lines per second, clock set
+     * back), as is a later timestamp alone (Client.txt truncated by the client).
+     */
+    private boolean isNew(long timestamp, long offset) {
+        return offset > this.lastOffset || timestamp > this.lastTimestamp;
+    }
+
+    public LogPosition getLastPosition() {
+        return new LogPosition(this.lastTimestamp, this.lastOffset);
+    }
+
+    private void addInterceptor(MessageInterceptor interceptor) {
+        interceptor.setPublisher(this.pipeline);
+        this.dispatcher.add(interceptor);
+    }
+
+    public IngestionPipeline getPipeline() {
+        return this.pipeline;
+    }
+
+    public void close() {
+        this.pipeline.close();
+        this.tailer.close();
+    }
+
     @Override
     public void subscribe() {
         MercuryStoreCore.addInterceptorSubject.subscribe(interceptor -> {
-            this.interceptors.add(interceptor);
-            this.lastMessageDate = new Date();
+            this.addInterceptor(interceptor);
         });
         MercuryStoreCore.removeInterceptorSubject.subscribe(interceptor -> {
-            this.interceptors.remove(interceptor);
+            this.dispatcher.remove(interceptor);
         });
     }
 }
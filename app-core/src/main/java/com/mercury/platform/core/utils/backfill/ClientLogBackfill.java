@@ -0,0 +1,232 @@
+package com.mercury.platform.core.utils.backfill;
+
+import com.mercury.platform.core.utils.interceptor.dispatch.ClassifiedLine;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineClassifier;
+import com.mercury.platform.core.utils.tail.LogCharsetDetector;
+import com.mercury.platform.core.utils.tail.LogTimestampParser;
+import com.mercury.platform.shared.MessageParser;
+import com.mercury.platform.shared.entity.message.NotificationDescriptor;
+import com.mercury.platform.shared.history.HistoryRecord;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One-shot import of every incoming trade whisper of a whole Client.txt. The file is mapped in
+ * chunks split at line boundaries and the chunks are scanned in parallel on a fork/join pool.
+ * Lines are split at byte level and only those containing an {@code @} are decoded and run
+ * through {@link LineClassifier} and {@link MessageParser}, the same way the live interceptors do.
+ */
+public class ClientLogBackfill {
+    public static final long CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int PROGRESS_STEP = 1024 * 1024;
+    private final Logger logger = LogManager.getLogger(ClientLogBackfill.class.getSimpleName());
+    private final Path logFilePath;
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+    private final AtomicLong processedBytes = new AtomicLong();
+    private volatile ProgressListener progressListener;
+    private volatile boolean cancelled;
+    private long totalBytes;
+
+    public ClientLogBackfill(String logFilePath) {
+        this(logFilePath, ForkJoinPool.commonPool(), CHUNK_SIZE);
+    }
+
+    public ClientLogBackfill(String logFilePath, ForkJoinPool pool, long chunkSize) {
+        this.logFilePath = Paths.get(logFilePath);
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * @return parsed whispers in file order, stamped with the time of their line
+     * @throws CancellationException if {@link #cancel()} was called meanwhile
+     */
+    public List<HistoryRecord> run() throws IOException {
+        try (FileChannel channel = FileChannel.open(this.logFilePath, StandardOpenOption.READ)) {
+            this.totalBytes = channel.size();
+            this.processedBytes.set(0);
+            Charset charset = new LogCharsetDetector().detect(channel);
+            List<Long> boundaries = this.splitAtLines(channel);
+            long start = System.currentTimeMillis();
+            List<HistoryRecord> result = this.pool.invoke(new ChunkTask(channel, charset, boundaries, 0, boundaries.size() - 1));
+            logger.info("Imported {} whispers from {} bytes in {} ms", result.size(), this.totalBytes, System.currentTimeMillis() - start);
+            return result;
+        }
+    }
+
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Chunk starts, each right after a line terminator, followed by the file size.
+     */
+    private List<Long> splitAtLines(FileChannel channel) throws IOException {
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(8 * 1024);
+        long position = this.chunkSize;
+        while (position < this.totalBytes) {
+            long lineEnd = -1;
+            while (lineEnd < 0 && position < this.totalBytes) {
+                probe.clear();
+                int read = channel.read(probe, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        lineEnd = position + i + 1;
+                        break;
+                    }
+                }
+                position += read;
+            }
+            if (lineEnd < 0 || lineEnd >= this.totalBytes) {
+                break;
+            }
+            boundaries.add(lineEnd);
+            position = lineEnd + this.chunkSize;
+        }
+        boundaries.add(this.totalBytes);
+        return boundaries;
+    }
+
+    private void reportProgress(long bytes) {
+        long processed = this.processedBytes.addAndGet(bytes);
+        ProgressListener listener = this.progressListener;
+        if (listener != null) {
+            listener.onProgress(processed, this.totalBytes);
+        }
+    }
+
+    private class ChunkTask extends RecursiveTask<List<HistoryRecord>> {
+        private final FileChannel channel;
+        private final Charset charset;
+        private final List<Long> boundaries;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(FileChannel channel, Charset charset, List<Long> boundaries, int from, int to) {
+            this.channel = channel;
+            this.charset = charset;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<HistoryRecord> compute() {
+            if (this.to - this.from > 1) {
+                int middle = (this.from + this.to) >>> 1;
+                ChunkTask tail = new ChunkTask(this.channel, this.charset, this.boundaries, middle, this.to);
+                tail.fork();
+                List<HistoryRecord> result = new ChunkTask(this.channel, this.charset, this.boundaries, this.from, middle).compute();
+                result.addAll(tail.join());
+                return result;
+            }
+            try {
+                return this.scan(this.boundaries.get(this.from), this.boundaries.get(this.to));
+            } catch (IOException e) {
+                logger.error("Error while importing Client.txt chunk at {}: ", this.boundaries.get(this.from), e);
+                return new ArrayList<>();
+            }
+        }
+
+        private List<HistoryRecord> scan(long start, long end) throws IOException {
+            List<HistoryRecord> result = new ArrayList<>();
+            if (end <= start) {
+                return result;
+            }
+            MappedByteBuffer chunk = this.channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            CharsetDecoder decoder = this.charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            MessageParser parser = new MessageParser();
+            LogTimestampParser timestampParser = new LogTimestampParser();
+            int limit = chunk.limit();
+            int lineStart = 0;
+            int reported = 0;
+            boolean hasMarker = false;
+            for (int i = 0; i <= limit; i++) {
+                byte b = i < limit ? chunk.get(i) : (byte) '\n';
+                if (b == '@') {
+                    hasMarker = true;
+                } else if (b == '\n') {
+                    if (hasMarker) {
+                        this.parseLine(chunk, lineStart, i, decoder, parser, timestampParser, result);
+                        hasMarker = false;
+                    }
+                    lineStart = i + 1;
+                    if (i - reported >= PROGRESS_STEP) {
+                        if (cancelled) {
+                            throw new CancellationException();
+                        }
+                        reportProgress(i - reported);
+                        reported = i;
+                    }
+                }
+            }
+            reportProgress(limit - reported);
+            return result;
+        }
+
+        private void parseLine(MappedByteBuffer chunk, int start, int end, CharsetDecoder decoder,
+                               MessageParser parser, LogTimestampParser timestampParser, List<HistoryRecord> result) {
+            if (end > start && chunk.get(end - 1) == '\r') {
+                end--;
+            }
+            ByteBuffer bytes = chunk.duplicate();
+            bytes.limit(end);
+            bytes.position(start);
+            CharBuffer line;
+            try {
+                line = decoder.decode(bytes);
+            } catch (CharacterCodingException e) {
+                return;
+            }
+            ClassifiedLine classifiedLine = LineClassifier.INSTANCE.classify(line, false);
+            if (classifiedLine != null && classifiedLine.isIncoming() && classifiedLine.isTradeRequest()) {
+                NotificationDescriptor descriptor = parser.parse(classifiedLine.getWhisperBody());
+                if (descriptor != null) {
+                    result.add(HistoryRecord.of(descriptor, Math.max(timestampParser.parse(line), 0)));
+                }
+            }
+        }
+    }
+
+    public interface ProgressListener {
+        /**
+         * Called from pool threads.
+         */
+        void onProgress(long processedBytes, long totalBytes);
+    }
+}
@@ -0,0 +1,78 @@
+package com.mercury.platform.core.utils.backfill;
+
+import com.mercury.platform.shared.AsSubscriber;
+import com.mercury.platform.shared.HistoryManager;
+import com.mercury.platform.shared.config.Configuration;
+import com.mercury.platform.shared.history.HistoryRecord;
+import com.mercury.platform.shared.store.MercuryStoreCore;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Runs {@link ClientLogBackfill} on request ({@code importHistorySubject}: true starts,
+ * false cancels) and stores the found whispers in {@link HistoryManager}.
+ */
+public class HistoryImporter implements AsSubscriber {
+    private final Logger logger = LogManager.getLogger(HistoryImporter.class.getSimpleName());
+    private volatile ClientLogBackfill backfill;
+
+    public HistoryImporter() {
+        this.subscribe();
+    }
+
+    @Override
+    public void subscribe() {
+        MercuryStoreCore.importHistorySubject.subscribe(start -> {
+            if (start) {
+                this.start();
+            } else if (this.backfill != null) {
+                this.backfill.cancel();
+            }
+        });
+    }
+
+    private synchronized void start() {
+        if (this.backfill != null) {
+            return;
+        }
+        String gamePath = Configuration.get().applicationConfiguration().get().getGamePath();
+        ClientLogBackfill backfill = new ClientLogBackfill(gamePath + "logs/Client.txt");
+        backfill.setProgressListener(new ProgressReporter());
+        this.backfill = backfill;
+        Thread thread = new Thread(() -> this.run(backfill), "HistoryImporter");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(ClientLogBackfill backfill) {
+        int added = 0;
+        try {
+            List<HistoryRecord> records = backfill.run();
+            added = HistoryManager.INSTANCE.addAll(records);
+        } catch (CancellationException | InterruptedException e) {
+            logger.info("History import cancelled");
+        } catch (IOException e) {
+            logger.error("Error while importing history: ", e);
+        } finally {
+            this.backfill = null;
+        }
+        MercuryStoreCore.historyImportedSubject.onNext(added);
+    }
+
+    private static class ProgressReporter implements ClientLogBackfill.ProgressListener {
+        private int lastPercent = -1;
+
+        @Override
+        public synchronized void onProgress(long processedBytes, long totalBytes) {
+            int percent = totalBytes == 0 ? 100 : (int) (processedBytes * 100 / totalBytes);
+            if (percent != this.lastPercent) {
+                this.lastPercent = percent;
+                MercuryStoreCore.historyImportProgressSubject.onNext(percent);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.mercury.platform.core.utils.dedupe;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Set of keys, e.g. offer fingerprints (see {@link OfferFingerprint}) or chat lines, that expire a
+ * fixed time after they were last added. Lookups are a hash probe. Expiry runs on a hashed timing
+ * wheel advanced lazily by every call, so there is no timer thread and the cost is spread over
+ * the calls. The number of keys is capped, once full the one closest to expiry makes room.
+ */
+public class ExpiringKeySet {
+    private final long tickMillis;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final Map<String, Long> deadlines = new HashMap<>();
+    private final ArrayDeque<String>[] wheel;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public ExpiringKeySet(long ttlMillis, int slots, int maxEntries, LongSupplier clock) {
+        if (slots < 1 || ttlMillis < slots || maxEntries < 1) {
+            throw new IllegalArgumentException("Invalid expiring key set settings");
+        }
+        this.tickMillis = ttlMillis / slots;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.wheel = new ArrayDeque[slots];
+        for (int i = 0; i < slots; i++) {
+            this.wheel[i] = new ArrayDeque<>();
+        }
+        this.currentTick = clock.getAsLong() / this.tickMillis;
+    }
+
+    /**
+     * Adds the key or restarts its time to live.
+     */
+    public synchronized void add(String key) {
+        long now = this.clock.getAsLong();
+        this.advance(now);
+        long deadline = now + this.tickMillis * this.wheel.length;
+        Long previous = this.deadlines.put(key, deadline);
+        if (previous == null && this.deadlines.size() > this.maxEntries) {
+            this.evictClosestToExpiry(key);
+        }
+        if (previous == null || previous / this.tickMillis != deadline / this.tickMillis) {
+            this.slotOf(deadline).add(key);
+        }
+    }
+
+    public synchronized boolean contains(String key) {
+        long now = this.clock.getAsLong();
+        this.advance(now);
+        Long deadline = this.deadlines.get(key);
+        return deadline != null && deadline > now;
+    }
+
+    public synchronized void remove(String key) {
+        this.deadlines.remove(key);
+    }
+
+    /**
+     * Keys expired during the current tick of the wheel are still counted.
+     */
+    public synchronized int size() {
+        this.advance(this.clock.getAsLong());
+        return this.deadlines.size();
+    }
+
+    // a slot is drained once its tick is over, so everything due in it has expired by then
+    private void advance(long now) {
+        long nowTick = now / this.tickMillis;
+        long from = Math.max(this.currentTick, nowTick - this.wheel.length);
+        for (long tick = from; tick < nowTick; tick++) {
+            this.expire(this.wheel[(int) (tick % this.wheel.length)], now);
+        }
+        if (nowTick > this.currentTick) {
+            this.currentTick = nowTick;
+        }
+    }
+
+    private void expire(ArrayDeque<String> slot, long now) {
+        Iterator<String> iterator = slot.iterator();
+        while (iterator.hasNext()) {
+            String key = iterator.next();
+            Long deadline = this.deadlines.get(key);
+            if (deadline != null && deadline <= now) {
+                this.deadlines.remove(key);
+                iterator.remove();
+            } else if (deadline == null || this.slotOf(deadline) != slot) {
+                // removed or refreshed into another slot
+                iterator.remove();
+            }
+        }
+    }
+
+    private void evictClosestToExpiry(String added) {
+        for (long tick = this.currentTick; tick < this.currentTick + this.wheel.length + 1; tick++) {
+            Iterator<String> iterator = this.wheel[(int) (tick % this.wheel.length)].iterator();
+            while (iterator.hasNext()) {
+                String key = iterator.next();
+                Long deadline = this.deadlines.get(key);
+                if (deadline != null && deadline / this.tickMillis == tick && !key.equals(added)) {
+                    this.deadlines.remove(key);
+                    iterator.remove();
+                    return;
+                }
+            }
+        }
+    }
+
+    private ArrayDeque<String> slotOf(long millis) {
+        return this.wheel[(int) ((millis / this.tickMillis) % this.wheel.length)];
+    }
+}
@@ -0,0 +1,65 @@
+package com.mercury.platform.core.utils.dedupe;
+
+import com.mercury.platform.shared.entity.message.CurrencyTradeNotificationDescriptor;
+import com.mercury.platform.shared.entity.message.ItemTradeNotificationDescriptor;
+import com.mercury.platform.shared.entity.message.NotificationDescriptor;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Identifies the listing a trade whisper is about, whoever sends it and whatever note is
+ * appended: item, price, league and stash position for items, both sides of the exchange for
+ * currency. Text is lower-cased with whitespace runs collapsed.
+ */
+public class OfferFingerprint {
+    private static final char SEPARATOR = '\u001F';
+
+    public static String of(NotificationDescriptor descriptor) {
+        StringBuilder fingerprint = new StringBuilder();
+        if (descriptor instanceof ItemTradeNotificationDescriptor) {
+            ItemTradeNotificationDescriptor item = (ItemTradeNotificationDescriptor) descriptor;
+            append(fingerprint, "item");
+            append(fingerprint, item.getItemName());
+            append(fingerprint, item.getCurCount());
+            append(fingerprint, item.getCurrency());
+            append(fingerprint, item.getLeague());
+            append(fingerprint, item.getTabName());
+            append(fingerprint, item.getLeft());
+            append(fingerprint, item.getTop());
+        } else if (descriptor instanceof CurrencyTradeNotificationDescriptor) {
+            CurrencyTradeNotificationDescriptor currency = (CurrencyTradeNotificationDescriptor) descriptor;
+            append(fingerprint, "currency");
+            append(fingerprint, currency.getCurrForSaleCount());
+            append(fingerprint, currency.getCurrForSaleTitle());
+            append(fingerprint, currency.getCurCount());
+            append(fingerprint, currency.getCurrency());
+            append(fingerprint, currency.getLeague());
+        } else {
+            append(fingerprint, "text");
+            append(fingerprint, StringUtils.substringAfter(descriptor.getSourceString(), ":"));
+        }
+        return fingerprint.toString();
+    }
+
+    private static void append(StringBuilder fingerprint, Object value) {
+        if (fingerprint.length() > 0) {
+            fingerprint.append(SEPARATOR);
+        }
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space && fingerprint.length() > 0 && fingerprint.charAt(fingerprint.length() - 1) != SEPARATOR) {
+                fingerprint.append(' ');
+            }
+            space = false;
+            fingerprint.append(Character.toLowerCase(c));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.mercury.platform.core.utils.digest;
+
+import com.mercury.platform.shared.entity.message.PlainMessageDescriptor;
+import com.mercury.platform.shared.entity.message.ScannerDigestDescriptor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Turns chat scanner matches into at most one notification and one sound per window. The match
+ * that opens a window is delivered at once; the ones that follow are grouped by rule and sender
+ * and delivered as a single {@link ScannerDigestDescriptor} when the window closes, which opens
+ * the next window if matches keep coming. A window length of 0 delivers every match as is.
+ */
+public class ScannerBurstCoalescer {
+    private final LongSupplier windowMillis;
+    private final Scheduler scheduler;
+    private final Sink sink;
+    private final Map<String, ScannerDigestDescriptor.Entry> pending = new LinkedHashMap<>();
+    private boolean windowOpen;
+
+    public ScannerBurstCoalescer(LongSupplier windowMillis, Scheduler scheduler, Sink sink) {
+        this.windowMillis = windowMillis;
+        this.scheduler = scheduler;
+        this.sink = sink;
+    }
+
+    public synchronized void offer(String ruleName, PlainMessageDescriptor message) {
+        long window = this.windowMillis.getAsLong();
+        if (window <= 0) {
+            this.sink.onMessage(message);
+            this.sink.onSound();
+            return;
+        }
+        if (!this.windowOpen) {
+            this.sink.onMessage(message);
+            this.openWindow(window);
+            return;
+        }
+        String key = ruleName + '\u001F' + message.getNickName();
+        ScannerDigestDescriptor.Entry entry = this.pending.get(key);
+        if (entry == null) {
+            entry = new ScannerDigestDescriptor.Entry(ruleName, message.getNickName());
+            this.pending.put(key, entry);
+        }
+        entry.setCount(entry.getCount() + 1);
+        entry.setLastMessage(message);
+    }
+
+    /**
+     * Closes the current window, called by the scheduler.
+     */
+    synchronized void flush() {
+        if (this.pending.isEmpty()) {
+            this.windowOpen = false;
+            return;
+        }
+        if (this.pending.size() == 1 && this.pending.values().iterator().next().getCount() == 1) {
+            this.sink.onMessage(this.pending.values().iterator().next().getLastMessage());
+        } else {
+            ScannerDigestDescriptor digest = new ScannerDigestDescriptor();
+            digest.getEntries().addAll(this.pending.values());
+            digest.setNickName(digest.getTotalCount() + " scanner matches");
+            this.sink.onDigest(digest);
+        }
+        this.pending.clear();
+        this.openWindow(Math.max(1, this.windowMillis.getAsLong()));
+    }
+
+    private void openWindow(long window) {
+        this.windowOpen = true;
+        this.sink.onSound();
+        this.scheduler.schedule(this::flush, window);
+    }
+
+    public interface Scheduler {
+        void schedule(Runnable task, long delayMillis);
+
+        static Scheduler of(ScheduledExecutorService executor) {
+            return (task, delayMillis) -> executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Receives the coalesced events, from the caller of {@link #offer} or from the scheduler.
+     */
+    public interface Sink {
+        void onMessage(PlainMessageDescriptor message);
+
+        void onDigest(ScannerDigestDescriptor digest);
+
+        void onSound();
+    }
+}
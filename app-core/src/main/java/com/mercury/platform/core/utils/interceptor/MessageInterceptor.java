@@ -1,12 +1,19 @@
 package com.mercury.platform.core.utils.interceptor;
 
+import com.mercury.platform.core.utils.interceptor.dispatch.ClassifiedLine;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineFeature;
 import com.mercury.platform.core.utils.interceptor.filter.MessageFilter;
+import com.mercury.platform.core.utils.pipeline.EventPublisher;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Created by Константин on 11.01.2017.
  */
 public abstract class MessageInterceptor {
     protected MessageFilter filter;
+    private volatile EventPublisher publisher = EventPublisher.DIRECT;
 
     public MessageInterceptor() {
         filter = getFilter();
@@ -18,6 +25,32 @@ public abstract class MessageInterceptor {
         }
         return false;
     }
+    public boolean match(ClassifiedLine line){
+        return this.match(line.getText());
+    }
+
+    /**
+     * Lines carrying none of these features are never offered to the interceptor.
+     * An empty set means the interceptor wants every line.
+     */
+    public Set<LineFeature> getTriggers(){
+        return EnumSet.noneOf(LineFeature.class);
+    }
+
+    public void setPublisher(EventPublisher publisher){
+        this.publisher = publisher;
+    }
+
+    /**
+     * Emits the event through the ingestion pipeline's publish stage, so slow subscribers
+     * do not hold up parsing.
+     */
+    protected void publish(Runnable event){
+        this.publisher.publish(event);
+    }
+    protected void publish(Object coalesceKey, Runnable event){
+        this.publisher.publish(coalesceKey, event);
+    }
     protected abstract void process(String message);
     protected abstract MessageFilter getFilter();
 }
@@ -1,14 +1,34 @@
 package com.mercury.platform.core.utils.interceptor;
 
+import com.mercury.platform.core.utils.interceptor.dispatch.ClassifiedLine;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineFeature;
 import com.mercury.platform.core.utils.interceptor.filter.MessageFilter;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 
 public class PlayerLeftInterceptor extends MessageInterceptor {
+    @Override
+    public boolean match(ClassifiedLine line) {
+        if(line.has(LineFeature.PLAYER_LEFT)){
+            process(line.getText());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Set<LineFeature> getTriggers() {
+        return EnumSet.of(LineFeature.PLAYER_LEFT);
+    }
+
     @Override
     protected void process(String message) {
-        MercuryStoreCore.playerLeftSubject.onNext(StringUtils.substringBetween(message," : ", " has left the area."));
+        String nickName = StringUtils.substringBetween(message," : ", " has left the area.");
+        this.publish(() -> MercuryStoreCore.playerLeftSubject.onNext(nickName));
     }
 
     @Override
@@ -1,125 +1,91 @@
 package com.mercury.platform.core.utils.interceptor;
 
 import com.mercury.platform.core.misc.SoundType;
+import com.mercury.platform.core.utils.dedupe.ExpiringKeySet;
+import com.mercury.platform.core.utils.dedupe.OfferFingerprint;
+import com.mercury.platform.core.utils.interceptor.dispatch.ClassifiedLine;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineClassifier;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineFeature;
 import com.mercury.platform.core.utils.interceptor.filter.MessageFilter;
+import com.mercury.platform.shared.HistoryManager;
 import com.mercury.platform.shared.MessageParser;
 import com.mercury.platform.shared.config.Configuration;
 import com.mercury.platform.shared.config.configration.PlainConfigurationService;
 import com.mercury.platform.shared.config.descriptor.NotificationSettingsDescriptor;
-import com.mercury.platform.shared.entity.message.ItemTradeNotificationDescriptor;
 import com.mercury.platform.shared.entity.message.NotificationDescriptor;
-import com.mercury.platform.shared.entity.message.NotificationType;
 import com.mercury.platform.shared.store.MercuryStoreCore;
-import net.jodah.expiringmap.ExpiringMap;
-import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 public class TradeIncMessagesInterceptor extends MessageInterceptor {
+    /** Fingerprints of expired offers, shared by every instance of the interceptor. */
+    private static final ExpiringKeySet IGNORED_OFFERS = new ExpiringKeySet(TimeUnit.HOURS.toMillis(1), 60, 4096, System::currentTimeMillis);
     private MessageParser messageParser = new MessageParser();
     private PlainConfigurationService<NotificationSettingsDescriptor> config;
-    private List<LocalizationMatcher> clients = new ArrayList<>();
-    private Map<String,String> expiresMessages;
+    private ExpiringKeySet ignoredOffers = IGNORED_OFFERS;
+    private int replayedCount;
 
     public TradeIncMessagesInterceptor() {
         this.config = Configuration.get().notificationConfiguration();
-        this.clients.add(new EngIncLocalizationMatcher());
-        this.clients.add(new RuIncLocalizationMatcher());
-        this.clients.add(new ArabicInLocalizationMatcher());
-        this.clients.add(new BZIncLocalizationMatcher());
-        this.expiresMessages = ExpiringMap.builder()
-                .expiration(1, TimeUnit.HOURS)
-                .build();
         MercuryStoreCore.expiredNotificationSubject.subscribe(notificationDescriptor -> {
-           this.expiresMessages.put(UUID.randomUUID().toString(),StringUtils.substringAfter(notificationDescriptor.getSourceString(),":"));
+           this.ignoredOffers.add(OfferFingerprint.of(notificationDescriptor));
         });
     }
 
     @Override
-    protected void process(String message) {
-        if(this.config.get().isIncNotificationEnable()) {
-            LocalizationMatcher localizationMatcher = this.clients.stream()
-                    .filter(matcher -> matcher.isSuitableFor(message))
-                    .findAny().orElse(null);
-            if(localizationMatcher != null){
-                localizationMatcher.processMessage(message);
-            }
+    public boolean match(ClassifiedLine line) {
+        if(this.isSuitableFor(line)){
+            this.processLine(line);
+            return true;
         }
+        return false;
     }
 
     @Override
-    protected MessageFilter getFilter() {
-        return message ->
-                this.clients.stream()
-                        .filter(matcher -> matcher.isSuitableFor(message))
-                        .findAny().orElse(null) != null;
+    public Set<LineFeature> getTriggers() {
+        return EnumSet.of(LineFeature.WHISPER_INCOMING);
     }
-    private abstract class LocalizationMatcher {
-        public boolean isSuitableFor(String message){
-            return message.contains("Hi, I would like") ||
-                    message.contains("Hi, I'd like") ||
-                    (message.contains("wtb") && message.contains("(stash"));
-        }
-        public abstract String trimString(String src);
-        public NotificationDescriptor getDescriptor(String message){
-            return messageParser.parse(this.trimString(message));
-        }
-        public void processMessage(String message){
-            NotificationDescriptor notificationDescriptor = this.getDescriptor(message);
-            if (notificationDescriptor != null) {
-                if(!expiresMessages.containsValue(StringUtils.substringAfter(notificationDescriptor.getSourceString(),":"))) {
-                    MercuryStoreCore.soundSubject.onNext(SoundType.MESSAGE);
-                    MercuryStoreCore.newNotificationSubject.onNext(notificationDescriptor);
-                }
-            }
-        }
+
+    @Override
+    protected void process(String message) {
+        this.processLine(LineClassifier.INSTANCE.classify(message));
     }
-    private class EngIncLocalizationMatcher extends LocalizationMatcher {
-        @Override
-        public boolean isSuitableFor(String message) {
-            return message.contains("@From") && super.isSuitableFor(message);
-        }
 
-        @Override
-        public String trimString(String src) {
-            return StringUtils.substringAfter(src, "@From");
-        }
+    @Override
+    protected MessageFilter getFilter() {
+        return message -> this.isSuitableFor(LineClassifier.INSTANCE.classify(message));
     }
-    private class RuIncLocalizationMatcher extends LocalizationMatcher{
-        @Override
-        public boolean isSuitableFor(String message) {
-            return message.contains("@От кого") && super.isSuitableFor(message);
-        }
 
-        @Override
-        public String trimString(String src) {
-            return StringUtils.substringAfter(src, "@От кого");
-        }
+    private boolean isSuitableFor(ClassifiedLine line){
+        return line.isIncoming() && line.isTradeRequest();
     }
-    private class ArabicInLocalizationMatcher extends LocalizationMatcher{
-        @Override
-        public boolean isSuitableFor(String message) {
-            return message.contains("@จาก") && super.isSuitableFor(message);
-        }
 
-        @Override
-        public String trimString(String src) {
-            return StringUtils.substringAfter(src, "@จาก");
+    private void processLine(ClassifiedLine line){
+        if(this.config.get().isIncNotificationEnable()) {
+            NotificationDescriptor notificationDescriptor = messageParser.parse(line.getWhisperBody());
+            if (notificationDescriptor != null) {
+                if(line.isReplayed() && !this.isWorthNotifying(line)) {
+                    this.publish(() -> HistoryManager.INSTANCE.add(notificationDescriptor, line.getTimestamp()));
+                    return;
+                }
+                if(!this.ignoredOffers.contains(OfferFingerprint.of(notificationDescriptor))) {
+                    this.publish(SoundType.MESSAGE, () -> MercuryStoreCore.soundSubject.onNext(SoundType.MESSAGE));
+                    this.publish(() -> MercuryStoreCore.newNotificationSubject.onNext(notificationDescriptor));
+                }
+            }
         }
     }
-    private class BZIncLocalizationMatcher extends LocalizationMatcher{
-        @Override
-        public boolean isSuitableFor(String message) {
-            return message.contains("@De") && super.isSuitableFor(message);
-        }
 
-        @Override
-        public String trimString(String src) {
-            return StringUtils.substringAfter(src, "@De");
-        }
+    /**
+     * Offers caught up on startup only notify while they are recent and few,
+     * the rest goes straight to history.
+     */
+    private boolean isWorthNotifying(ClassifiedLine line){
+        NotificationSettingsDescriptor settings = this.config.get();
+        long age = System.currentTimeMillis() - line.getTimestamp();
+        return age <= TimeUnit.MINUTES.toMillis(settings.getCatchUpMaxAge())
+                && ++this.replayedCount <= settings.getCatchUpLimit();
     }
 }
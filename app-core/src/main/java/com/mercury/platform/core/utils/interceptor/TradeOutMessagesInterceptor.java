@@ -1,6 +1,8 @@
 package com.mercury.platform.core.utils.interceptor;
 
-import com.mercury.platform.core.misc.SoundType;
+import com.mercury.platform.core.utils.interceptor.dispatch.ClassifiedLine;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineClassifier;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineFeature;
 import com.mercury.platform.core.utils.interceptor.filter.MessageFilter;
 import com.mercury.platform.shared.MessageParser;
 import com.mercury.platform.shared.config.Configuration;
@@ -10,147 +12,57 @@ import com.mercury.platform.shared.entity.message.ItemTradeNotificationDescripto
 import com.mercury.platform.shared.entity.message.NotificationDescriptor;
 import com.mercury.platform.shared.entity.message.NotificationType;
 import com.mercury.platform.shared.store.MercuryStoreCore;
-import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.EnumSet;
+import java.util.Set;
 
 public class TradeOutMessagesInterceptor extends MessageInterceptor {
     private MessageParser messageParser = new MessageParser();
     private PlainConfigurationService<NotificationSettingsDescriptor> config;
-    private List<LocalizationMatcher> clients = new ArrayList<>();
 
     public TradeOutMessagesInterceptor() {
         this.config = Configuration.get().notificationConfiguration();
-        this.clients.add(new EngOutLocalizationMatcher());
-        this.clients.add(new RuOutLocalizationMatcher());
-        this.clients.add(new ArabicOutLocalizationMatcher());
-        this.clients.add(new BZOutLocalizationMatcher());
     }
 
     @Override
-    protected void process(String message) {
-        if(this.config.get().isOutNotificationEnable()) {
-            LocalizationMatcher localizationMatcher = this.clients.stream()
-                    .filter(matcher -> matcher.isSuitableFor(message))
-                    .findAny().orElse(null);
-            if(localizationMatcher != null){
-                localizationMatcher.processMessage(message);
-            }
+    public boolean match(ClassifiedLine line) {
+        if(this.isSuitableFor(line)){
+            this.processLine(line);
+            return true;
         }
+        return false;
     }
 
     @Override
-    protected MessageFilter getFilter() {
-        return message ->
-                this.clients.stream()
-                        .filter(matcher -> matcher.isSuitableFor(message))
-                        .findAny().orElse(null) != null;
-    }
-    private abstract class LocalizationMatcher {
-        public boolean isSuitableFor(String message){
-            return message.contains("Hi, I would like") ||
-                    message.contains("Hi, I'd like") ||
-                    (message.contains("wtb") && message.contains("(stash"));
-        }
-        public abstract String trimString(String src);
-        public NotificationDescriptor getDescriptor(String message){
-            return messageParser.parse(this.trimString(message));
-        }
-        public void processMessage(String message){
-            NotificationDescriptor notificationDescriptor = this.getDescriptor(message);
-            if (notificationDescriptor != null) {
-                MercuryStoreCore.newNotificationSubject.onNext(notificationDescriptor);
-            }
-        }
+    public Set<LineFeature> getTriggers() {
+        return EnumSet.of(LineFeature.WHISPER_OUTGOING);
     }
 
-    private class EngOutLocalizationMatcher extends LocalizationMatcher{
-        @Override
-        public boolean isSuitableFor(String message) {
-            return message.contains("@To") && super.isSuitableFor(message);
-        }
-
-        @Override
-        public String trimString(String src) {
-            return StringUtils.substringAfter(src, "@To");
-        }
-
-        @Override
-        public NotificationDescriptor getDescriptor(String message) {
-            NotificationDescriptor descriptor = messageParser.parse(this.trimString(message));
-            if(descriptor instanceof ItemTradeNotificationDescriptor){
-                descriptor.setType(NotificationType.OUT_ITEM_MESSAGE);
-            }else {
-                descriptor.setType(NotificationType.OUT_CURRENCY_MESSAGE);
-            }
-            return descriptor;
-        }
+    @Override
+    protected void process(String message) {
+        this.processLine(LineClassifier.INSTANCE.classify(message));
     }
-    private class RuOutLocalizationMatcher extends LocalizationMatcher{
-        @Override
-        public boolean isSuitableFor(String message) {
-            return message.contains("@Кому") && super.isSuitableFor(message);
-        }
-
-        @Override
-        public String trimString(String src) {
-            return StringUtils.substringAfter(src, "@Кому");
-        }
 
-        @Override
-        public NotificationDescriptor getDescriptor(String message) {
-            NotificationDescriptor descriptor = messageParser.parse(this.trimString(message));
-            if(descriptor instanceof ItemTradeNotificationDescriptor){
-                descriptor.setType(NotificationType.OUT_ITEM_MESSAGE);
-            }else {
-                descriptor.setType(NotificationType.OUT_CURRENCY_MESSAGE);
-            }
-            return descriptor;
-        }
+    @Override
+    protected MessageFilter getFilter() {
+        return message -> this.isSuitableFor(LineClassifier.INSTANCE.classify(message));
     }
-    private class ArabicOutLocalizationMatcher extends LocalizationMatcher{
-        @Override
-        public boolean isSuitableFor(String message) {
-            return message.contains("@ถึง") && super.isSuitableFor(message);
-        }
 
-        @Override
-        public String trimString(String src) {
-            return StringUtils.substringAfter(src, "@ถึง");
-        }
-
-        @Override
-        public NotificationDescriptor getDescriptor(String message) {
-            NotificationDescriptor descriptor = messageParser.parse(this.trimString(message));
-            if(descriptor instanceof ItemTradeNotificationDescriptor){
-                descriptor.setType(NotificationType.OUT_ITEM_MESSAGE);
-            }else {
-                descriptor.setType(NotificationType.OUT_CURRENCY_MESSAGE);
-            }
-            return descriptor;
-        }
+    private boolean isSuitableFor(ClassifiedLine line){
+        return line.isWhisper() && !line.isIncoming() && line.isTradeRequest();
     }
-    private class BZOutLocalizationMatcher extends LocalizationMatcher{
-        @Override
-        public boolean isSuitableFor(String message) {
-            return message.contains("@Para") && super.isSuitableFor(message);
-        }
 
-        @Override
-        public String trimString(String src) {
-            return StringUtils.substringAfter(src, "@Para");
-        }
-
-        @Override
-        public NotificationDescriptor getDescriptor(String message) {
-            NotificationDescriptor descriptor = messageParser.parse(this.trimString(message));
-            if(descriptor instanceof ItemTradeNotificationDescriptor){
-                descriptor.setType(NotificationType.OUT_ITEM_MESSAGE);
-            }else {
-                descriptor.setType(NotificationType.OUT_CURRENCY_MESSAGE);
+    private void processLine(ClassifiedLine line){
+        if(this.config.get().isOutNotificationEnable()) {
+            NotificationDescriptor notificationDescriptor = messageParser.parse(line.getWhisperBody());
+            if (notificationDescriptor != null) {
+                if(notificationDescriptor instanceof ItemTradeNotificationDescriptor){
+                    notificationDescriptor.setType(NotificationType.OUT_ITEM_MESSAGE);
+                }else {
+                    notificationDescriptor.setType(NotificationType.OUT_CURRENCY_MESSAGE);
+                }
+                this.publish(() -> MercuryStoreCore.newNotificationSubject.onNext(notificationDescriptor));
             }
-            return descriptor;
         }
     }
 }
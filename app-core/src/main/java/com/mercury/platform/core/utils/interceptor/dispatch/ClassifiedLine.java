@@ -0,0 +1,48 @@
+package com.mercury.platform.core.utils.interceptor.dispatch;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+public class ClassifiedLine {
+    private final String text;
+    private final int features;
+    private final int markerStart;
+    private final int markerEnd;
+    @Setter
+    private long timestamp = -1;
+    /** Written while the app was not running and read on startup. */
+    @Setter
+    private boolean replayed;
+
+    public ClassifiedLine(String text, int features, int markerStart, int markerEnd) {
+        this.text = text;
+        this.features = features;
+        this.markerStart = markerStart;
+        this.markerEnd = markerEnd;
+    }
+
+    public boolean has(LineFeature feature) {
+        return (this.features & feature.bit()) != 0;
+    }
+
+    public boolean isWhisper() {
+        return this.markerStart >= 0;
+    }
+
+    public boolean isIncoming() {
+        return this.has(LineFeature.WHISPER_INCOMING);
+    }
+
+    public boolean isTradeRequest() {
+        return this.has(LineFeature.TRADE_REQUEST)
+                || (this.has(LineFeature.WTB) && this.has(LineFeature.STASH));
+    }
+
+    /**
+     * Text after the whisper marker, e.g. {@code " <GUILD> nickname: message"}.
+     */
+    public String getWhisperBody() {
+        return this.isWhisper() ? this.text.substring(this.markerEnd) : "";
+    }
+}
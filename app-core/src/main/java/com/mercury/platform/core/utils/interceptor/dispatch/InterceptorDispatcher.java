@@ -0,0 +1,91 @@
+package com.mercury.platform.core.utils.interceptor.dispatch;
+
+import com.mercury.platform.core.utils.interceptor.MessageInterceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes classified lines to the interceptors registered for their features. Interceptors
+ * without triggers get every line. Registration may happen from any thread; dispatch works on
+ * an immutable snapshot.
+ */
+public class InterceptorDispatcher {
+    private final List<MessageInterceptor> interceptors = new ArrayList<>();
+    private volatile Routes routes = new Routes(new ArrayList<>());
+
+    public synchronized void add(MessageInterceptor interceptor) {
+        this.interceptors.add(interceptor);
+        this.routes = new Routes(this.interceptors);
+    }
+
+    public synchronized void remove(MessageInterceptor interceptor) {
+        this.interceptors.remove(interceptor);
+        this.routes = new Routes(this.interceptors);
+    }
+
+    /**
+     * Whether some interceptor wants lines that carry no feature at all.
+     */
+    public boolean hasCatchAll() {
+        return this.routes.catchAll.length > 0;
+    }
+
+    public boolean dispatch(ClassifiedLine line) {
+        Routes routes = this.routes;
+        boolean matched = false;
+        int features = line.getFeatures();
+        int remaining = features;
+        while (remaining != 0) {
+            int bit = Integer.lowestOneBit(remaining);
+            remaining &= ~bit;
+            Route[] bucket = routes.byFeature[Integer.numberOfTrailingZeros(bit)];
+            for (Route route : bucket) {
+                if (Integer.lowestOneBit(route.mask & features) == bit) {
+                    matched |= route.interceptor.match(line);
+                }
+            }
+        }
+        for (Route route : routes.catchAll) {
+            matched |= route.interceptor.match(line);
+        }
+        return matched;
+    }
+
+    private static class Route {
+        private final MessageInterceptor interceptor;
+        private final int mask;
+
+        private Route(MessageInterceptor interceptor, int mask) {
+            this.interceptor = interceptor;
+            this.mask = mask;
+        }
+    }
+
+    private static class Routes {
+        private final Route[][] byFeature = new Route[LineFeature.values().length][];
+        private final Route[] catchAll;
+
+        private Routes(List<MessageInterceptor> interceptors) {
+            List<List<Route>> buckets = new ArrayList<>();
+            for (int i = 0; i < this.byFeature.length; i++) {
+                buckets.add(new ArrayList<>());
+            }
+            List<Route> catchAll = new ArrayList<>();
+            for (MessageInterceptor interceptor : interceptors) {
+                Route route = new Route(interceptor, LineFeature.mask(interceptor.getTriggers()));
+                if (route.mask == 0) {
+                    catchAll.add(route);
+                    continue;
+                }
+                for (LineFeature feature : interceptor.getTriggers()) {
+                    buckets.get(feature.ordinal()).add(route);
+                }
+            }
+            for (int i = 0; i < this.byFeature.length; i++) {
+                this.byFeature[i] = buckets.get(i).toArray(new Route[0]);
+            }
+            this.catchAll = catchAll.toArray(new Route[0]);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mercury.platform.core.utils.interceptor.dispatch;
+
+import com.mercury.platform.core.utils.matcher.KeywordAutomaton;
+import com.mercury.platform.core.utils.matcher.TradeTemplateMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tags a Client.txt line with every {@link LineFeature} it carries in a single pass over the line.
+ * The leftmost whisper marker decides the direction of a whisper and where its body starts.
+ */
+public class LineClassifier {
+    private static final int WHISPER_MASK = LineFeature.WHISPER_INCOMING.bit() | LineFeature.WHISPER_OUTGOING.bit();
+    public static final LineClassifier INSTANCE = new LineClassifier();
+
+    private final KeywordAutomaton automaton;
+    private final int[] keywordFeatures;
+
+    public LineClassifier() {
+        List<String> keywords = new ArrayList<>();
+        List<LineFeature> features = new ArrayList<>();
+        add(keywords, features, LineFeature.WHISPER_INCOMING, "@From", "@От кого", "@จาก", "@De");
+        add(keywords, features, LineFeature.WHISPER_OUTGOING, "@To", "@Кому", "@ถึง", "@Para");
+        add(keywords, features, LineFeature.TRADE_REQUEST, "Hi, I would like", "Hi, I'd like");
+        for (String anchor : TradeTemplateMatcher.INSTANCE.getAnchors()) {
+            add(keywords, features, LineFeature.TRADE_REQUEST, anchor);
+        }
+        add(keywords, features, LineFeature.WTB, "wtb");
+        add(keywords, features, LineFeature.STASH, "(stash");
+        add(keywords, features, LineFeature.PLAYER_JOINED, "has joined the area.");
+        add(keywords, features, LineFeature.PLAYER_LEFT, "has left the area.");
+        add(keywords, features, LineFeature.TRADE_CHANNEL, "] $");
+        add(keywords, features, LineFeature.GLOBAL_CHANNEL, "] #");
+
+        this.automaton = new KeywordAutomaton(keywords, false);
+        this.keywordFeatures = new int[features.size()];
+        for (int i = 0; i < this.keywordFeatures.length; i++) {
+            this.keywordFeatures[i] = features.get(i).bit();
+        }
+    }
+
+    public ClassifiedLine classify(String line) {
+        return this.classify(line, true);
+    }
+
+    /**
+     * Classifies a decoded line before it becomes a String. Unless keepUnmatched is set, lines
+     * without any feature are dropped and null is returned without materialising the text.
+     */
+    public ClassifiedLine classify(CharSequence line, boolean keepUnmatched) {
+        ScanState state = new ScanState(this.keywordFeatures);
+        this.automaton.scan(line, state);
+        if (state.features == 0 && !keepUnmatched) {
+            return null;
+        }
+        return new ClassifiedLine(line.toString(), state.features, state.markerStart, state.markerEnd);
+    }
+
+    private static void add(List<String> keywords, List<LineFeature> features, LineFeature feature, String... markers) {
+        for (String marker : markers) {
+            keywords.add(marker);
+            features.add(feature);
+        }
+    }
+
+    private static class ScanState implements KeywordAutomaton.MatchHandler {
+        private final int[] keywordFeatures;
+        private int features;
+        private int markerStart = -1;
+        private int markerEnd = -1;
+
+        private ScanState(int[] keywordFeatures) {
+            this.keywordFeatures = keywordFeatures;
+        }
+
+        @Override
+        public boolean onMatch(int keyword, int start, int end) {
+            int feature = this.keywordFeatures[keyword];
+            if ((feature & WHISPER_MASK) != 0) {
+                if (this.markerStart >= 0 && this.markerStart <= start) {
+                    return true;
+                }
+                this.features &= ~WHISPER_MASK;
+                this.markerStart = start;
+                this.markerEnd = end;
+            }
+            this.features |= feature;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.mercury.platform.core.utils.interceptor.dispatch;
+
+import java.util.Collection;
+
+public enum LineFeature {
+    WHISPER_INCOMING,
+    WHISPER_OUTGOING,
+    TRADE_REQUEST,
+    WTB,
+    STASH,
+    PLAYER_JOINED,
+    PLAYER_LEFT,
+    TRADE_CHANNEL,
+    GLOBAL_CHANNEL;
+
+    public int bit() {
+        return 1 << this.ordinal();
+    }
+
+    public static int mask(Collection<LineFeature> features) {
+        int mask = 0;
+        for (LineFeature feature : features) {
+            mask |= feature.bit();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,120 @@
+package com.mercury.platform.core.utils.matcher;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Chat scanner word list compiled into one case-insensitive {@link KeywordAutomaton}. A text
+ * matches when it contains at least one include word and no exclude word; the spans of the
+ * include words are returned so they can be highlighted without searching again.
+ * Instances are immutable and can be shared between threads.
+ */
+public class ChatScanner {
+    private final KeywordAutomaton automaton;
+    private final boolean[] excluded;
+    private final int includeCount;
+
+    public ChatScanner(List<String> include, List<String> exclude) {
+        List<String> keywords = new ArrayList<>();
+        addWords(keywords, include);
+        this.includeCount = keywords.size();
+        addWords(keywords, exclude);
+        this.automaton = new KeywordAutomaton(keywords, true);
+        this.excluded = new boolean[keywords.size()];
+        Arrays.fill(this.excluded, this.includeCount, keywords.size(), true);
+    }
+
+    /**
+     * Compiles the scanner settings text: words separated by commas, a word containing
+     * {@code !} excludes the text (the {@code !} itself is dropped), blank words are ignored.
+     */
+    public static ChatScanner compile(String words) {
+        List<String> include = new ArrayList<>();
+        List<String> exclude = new ArrayList<>();
+        for (String word : words.split(",")) {
+            word = word.trim();
+            if (word.contains("!")) {
+                exclude.add(word.replace("!", ""));
+            } else {
+                include.add(word);
+            }
+        }
+        return new ChatScanner(include, exclude);
+    }
+
+    private static void addWords(List<String> keywords, List<String> words) {
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                keywords.add(word);
+            }
+        }
+    }
+
+    public List<Span> scan(CharSequence text) {
+        return this.scan(text, 0, text.length());
+    }
+
+    /**
+     * @return spans of the include words found in [from, to), leftmost and longest first and not
+     * overlapping, or null when the text does not match
+     */
+    public List<Span> scan(CharSequence text, int from, int to) {
+        if (this.includeCount == 0) {
+            return null;
+        }
+        SpanCollector collector = new SpanCollector();
+        this.automaton.scan(text, from, to, collector);
+        if (collector.excluded || collector.spans.isEmpty()) {
+            return null;
+        }
+        return nonOverlapping(collector.spans);
+    }
+
+    /**
+     * Sorts the spans and keeps the leftmost, longest ones that do not overlap.
+     */
+    public static List<Span> nonOverlapping(List<Span> spans) {
+        if (spans.size() == 1) {
+            return Collections.singletonList(spans.get(0));
+        }
+        spans.sort((a, b) -> a.start != b.start ? Integer.compare(a.start, b.start) : Integer.compare(b.end, a.end));
+        List<Span> selected = new ArrayList<>();
+        int lastEnd = Integer.MIN_VALUE;
+        for (Span span : spans) {
+            if (span.start >= lastEnd) {
+                selected.add(span);
+                lastEnd = span.end;
+            }
+        }
+        return selected;
+    }
+
+    public boolean isEmpty() {
+        return this.includeCount == 0;
+    }
+
+    @Data
+    public static class Span {
+        private final int start;
+        private final int end;
+    }
+
+    private class SpanCollector implements KeywordAutomaton.MatchHandler {
+        private final List<Span> spans = new ArrayList<>();
+        private boolean excluded;
+
+        @Override
+        public boolean onMatch(int keyword, int start, int end) {
+            if (ChatScanner.this.excluded[keyword]) {
+                this.excluded = true;
+                return false;
+            }
+            this.spans.add(new Span(start, end));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.mercury.platform.core.utils.matcher;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton over a fixed set of keywords. A scan walks the text once and reports
+ * every keyword occurrence with its span, whatever the number of keywords is.
+ * Instances are immutable and can be shared between threads.
+ */
+public class KeywordAutomaton {
+    private final String[] keywords;
+    private final boolean ignoreCase;
+    private final char[][] transitionChars;
+    private final int[][] transitionStates;
+    private final int[] failure;
+    private final int[][] outputs;
+
+    public KeywordAutomaton(List<String> keywords, boolean ignoreCase) {
+        this.keywords = keywords.toArray(new String[keywords.size()]);
+        this.ignoreCase = ignoreCase;
+
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> trieOutputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        trieOutputs.add(new ArrayList<>());
+        for (int index = 0; index < this.keywords.length; index++) {
+            String keyword = this.keywords[index];
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Empty keyword at index " + index);
+            }
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = this.fold(keyword.charAt(i));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    trieOutputs.add(new ArrayList<>());
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            trieOutputs.get(state).add(index);
+        }
+
+        int size = trie.size();
+        this.transitionChars = new char[size][];
+        this.transitionStates = new int[size][];
+        for (int state = 0; state < size; state++) {
+            TreeMap<Character, Integer> edges = trie.get(state);
+            this.transitionChars[state] = new char[edges.size()];
+            this.transitionStates[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                this.transitionChars[state][i] = edge.getKey();
+                this.transitionStates[state][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        this.failure = new int[size];
+        this.outputs = new int[size][];
+        this.outputs[0] = toArray(trieOutputs.get(0));
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : this.transitionStates[0]) {
+            this.failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> stateOutputs = new ArrayList<>(trieOutputs.get(state));
+            for (int output : this.outputs[this.failure[state]]) {
+                stateOutputs.add(output);
+            }
+            this.outputs[state] = toArray(stateOutputs);
+            for (int i = 0; i < this.transitionChars[state].length; i++) {
+                char c = this.transitionChars[state][i];
+                int child = this.transitionStates[state][i];
+                int fallback = this.failure[state];
+                int target;
+                while ((target = this.next(fallback, c)) < 0 && fallback != 0) {
+                    fallback = this.failure[fallback];
+                }
+                this.failure[child] = target < 0 || target == child ? 0 : target;
+                queue.add(child);
+            }
+        }
+    }
+
+    public KeywordAutomaton(String... keywords) {
+        this(Arrays.asList(keywords), false);
+    }
+
+    public void scan(CharSequence text, MatchHandler handler) {
+        this.scan(text, 0, text.length(), handler);
+    }
+
+    public void scan(CharSequence text, int from, int to, MatchHandler handler) {
+        int state = 0;
+        for (int position = from; position < to; position++) {
+            char c = this.fold(text.charAt(position));
+            int target;
+            while ((target = this.next(state, c)) < 0 && state != 0) {
+                state = this.failure[state];
+            }
+            state = target < 0 ? 0 : target;
+            for (int keyword : this.outputs[state]) {
+                int end = position + 1;
+                if (!handler.onMatch(keyword, end - this.keywords[keyword].length(), end)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return this.keywords.length;
+    }
+
+    public String getKeyword(int index) {
+        return this.keywords[index];
+    }
+
+    public boolean isIgnoreCase() {
+        return this.ignoreCase;
+    }
+
+    private int next(int state, char c) {
+        char[] chars = this.transitionChars[state];
+        int index = Arrays.binarySearch(chars, c);
+        return index < 0 ? -1 : this.transitionStates[state][index];
+    }
+
+    private char fold(char c) {
+        return this.ignoreCase ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    public interface MatchHandler {
+        /**
+         * @return false to stop the scan
+         */
+        boolean onMatch(int keyword, int start, int end);
+    }
+}
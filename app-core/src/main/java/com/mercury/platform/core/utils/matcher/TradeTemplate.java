@@ -0,0 +1,179 @@
+package com.mercury.platform.core.utils.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compiled trade whisper template such as
+ * {@code Hi, I would like to buy your {item} listed for {price} {currency} in {league}}.
+ * The text starts with a literal, its anchor, and continues with placeholders separated by
+ * literals. A placeholder ends at the first occurrence of the next literal the rest of the
+ * template matches after; the last placeholder takes the rest of the message.
+ * Instances are immutable.
+ */
+public class TradeTemplate {
+    private final String locale;
+    private final String source;
+    private final Kind kind;
+    private final String anchor;
+    private final Field[] fields;
+    private final String[] literals;
+
+    private TradeTemplate(String locale, String source, Kind kind, String anchor, Field[] fields, String[] literals) {
+        this.locale = locale;
+        this.source = source;
+        this.kind = kind;
+        this.anchor = anchor;
+        this.fields = fields;
+        this.literals = literals;
+    }
+
+    public static TradeTemplate compile(String locale, String source) {
+        List<Field> fields = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int position = 0;
+        while (position < source.length()) {
+            char c = source.charAt(position);
+            if (c != '{') {
+                literal.append(c);
+                position++;
+                continue;
+            }
+            int close = source.indexOf('}', position);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in template: " + source);
+            }
+            if (literal.length() == 0) {
+                throw new IllegalArgumentException("Placeholders must be separated by text in template: " + source);
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            fields.add(Field.of(source.substring(position + 1, close), source));
+            position = close + 1;
+        }
+        literals.add(literal.toString());
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("Template without placeholders: " + source);
+        }
+        Kind kind;
+        if (fields.contains(Field.ITEM)) {
+            kind = Kind.ITEM;
+        } else if (fields.contains(Field.TITLE)) {
+            kind = Kind.CURRENCY;
+        } else {
+            throw new IllegalArgumentException("Template has neither {item} nor {title}: " + source);
+        }
+        return new TradeTemplate(locale, source, kind,
+                literals.get(0),
+                fields.toArray(new Field[fields.size()]),
+                literals.subList(1, literals.size()).toArray(new String[fields.size()]));
+    }
+
+    /**
+     * Matches the template against the message, the anchor being at anchorStart.
+     *
+     * @return field bounds indexed by {@link Field#ordinal()} (start at 2*i, end at 2*i+1, -1 when
+     * the field is not part of the template) or null
+     */
+    public int[] match(String message, int anchorStart) {
+        if (!message.startsWith(this.anchor, anchorStart)) {
+            return null;
+        }
+        int[] bounds = new int[Field.values().length * 2];
+        Arrays.fill(bounds, -1);
+        return this.matchField(message, 0, anchorStart + this.anchor.length(), bounds) ? bounds : null;
+    }
+
+    private boolean matchField(String message, int index, int from, int[] bounds) {
+        if (index == this.fields.length) {
+            return true;
+        }
+        Field field = this.fields[index];
+        String literal = this.literals[index];
+        if (index == this.fields.length - 1) {
+            return message.endsWith(literal) && message.length() - literal.length() >= from
+                    && this.accept(field, message, from, message.length() - literal.length(), bounds);
+        }
+        for (int end = message.indexOf(literal, from); end >= 0; end = message.indexOf(literal, end + 1)) {
+            if (this.accept(field, message, from, end, bounds)
+                    && this.matchField(message, index + 1, end + literal.length(), bounds)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean accept(Field field, String message, int start, int end, int[] bounds) {
+        if (field == Field.OFFER) {
+            while (start < end && Character.isWhitespace(message.charAt(start))) {
+                start++;
+            }
+        } else if (end <= start || (field.isNumeric() && !isNumber(message, start, end, field.isDecimal()))) {
+            return false;
+        }
+        bounds[field.ordinal() * 2] = start;
+        bounds[field.ordinal() * 2 + 1] = end;
+        return true;
+    }
+
+    private static boolean isNumber(String message, int start, int end, boolean decimal) {
+        boolean dot = false;
+        for (int i = start; i < end; i++) {
+            char c = message.charAt(i);
+            if (c == '.' && decimal && !dot && i > start && i < end - 1) {
+                dot = true;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getLocale() {
+        return this.locale;
+    }
+
+    public String getSource() {
+        return this.source;
+    }
+
+    public Kind getKind() {
+        return this.kind;
+    }
+
+    public String getAnchor() {
+        return this.anchor;
+    }
+
+    @Override
+    public String toString() {
+        return this.locale + ": " + this.source;
+    }
+
+    public enum Kind {
+        ITEM, CURRENCY
+    }
+
+    public enum Field {
+        ITEM, PRICE, CURRENCY, LEAGUE, TAB, LEFT, TOP, COUNT, TITLE, OFFER;
+
+        private boolean isNumeric() {
+            return this == PRICE || this == LEFT || this == TOP || this == COUNT;
+        }
+
+        private boolean isDecimal() {
+            return this == PRICE || this == COUNT;
+        }
+
+        private static Field of(String name, String source) {
+            for (Field field : values()) {
+                if (field.name().equalsIgnoreCase(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown placeholder {" + name + "} in template: " + source);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.mercury.platform.core.utils.matcher;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.mercury.platform.shared.entity.message.CurrencyTradeNotificationDescriptor;
+import com.mercury.platform.shared.entity.message.ItemTradeNotificationDescriptor;
+import com.mercury.platform.shared.entity.message.NotificationDescriptor;
+import com.mercury.platform.shared.entity.message.NotificationType;
+import com.mercury.platform.shared.entity.message.TradeNotificationDescriptor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Localized trade whisper templates loaded from {@value #RESOURCE} ({@code {"<locale>": ["<template>", ...]}})
+ * and compiled into one {@link KeywordAutomaton} over their anchors. A message is scanned once
+ * whatever the number of locales; only the templates whose anchor occurs are then tried, in file
+ * order. Instances are immutable and can be shared between threads.
+ */
+public class TradeTemplateMatcher {
+    public static final String RESOURCE = "app/trade-templates.json";
+    private static final Logger logger = LogManager.getLogger(TradeTemplateMatcher.class.getSimpleName());
+    public static final TradeTemplateMatcher INSTANCE = new TradeTemplateMatcher(load(RESOURCE));
+
+    private final List<TradeTemplate> templates;
+    private final KeywordAutomaton automaton;
+    private final TradeTemplate[][] templatesByAnchor;
+
+    public TradeTemplateMatcher(List<TradeTemplate> templates) {
+        this.templates = Collections.unmodifiableList(new ArrayList<>(templates));
+        Map<String, List<TradeTemplate>> byAnchor = new LinkedHashMap<>();
+        for (TradeTemplate template : templates) {
+            byAnchor.computeIfAbsent(template.getAnchor(), it -> new ArrayList<>()).add(template);
+        }
+        this.automaton = new KeywordAutomaton(new ArrayList<>(byAnchor.keySet()), false);
+        this.templatesByAnchor = new TradeTemplate[byAnchor.size()][];
+        int index = 0;
+        for (List<TradeTemplate> anchored : byAnchor.values()) {
+            this.templatesByAnchor[index++] = anchored.toArray(new TradeTemplate[anchored.size()]);
+        }
+    }
+
+    /**
+     * @return descriptor of the first template matching after the leftmost anchor that leads to a match, or null
+     */
+    public NotificationDescriptor match(String message) {
+        if (this.templatesByAnchor.length == 0) {
+            return null;
+        }
+        MatchState state = new MatchState(message);
+        this.automaton.scan(message, state);
+        return state.descriptor;
+    }
+
+    /**
+     * Text every template starts with, for a quick "is this a trade request" check.
+     */
+    public List<String> getAnchors() {
+        List<String> anchors = new ArrayList<>();
+        for (int i = 0; i < this.automaton.size(); i++) {
+            anchors.add(this.automaton.getKeyword(i));
+        }
+        return anchors;
+    }
+
+    public List<TradeTemplate> getTemplates() {
+        return this.templates;
+    }
+
+    public static List<TradeTemplate> compile(Map<String, List<String>> templatesByLocale) {
+        List<TradeTemplate> templates = new ArrayList<>();
+        templatesByLocale.forEach((locale, sources) -> {
+            for (String source : sources) {
+                templates.add(TradeTemplate.compile(locale, source));
+            }
+        });
+        return templates;
+    }
+
+    private static List<TradeTemplate> load(String resource) {
+        InputStream stream = TradeTemplateMatcher.class.getClassLoader().getResourceAsStream(resource);
+        if (stream == null) {
+            logger.warn("Trade templates {} not found, only english whispers will be recognised", resource);
+            return new ArrayList<>();
+        }
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            Map<String, List<String>> templatesByLocale = new Gson().fromJson(reader,
+                    new TypeToken<LinkedHashMap<String, List<String>>>() {}.getType());
+            return compile(templatesByLocale);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error while loading trade templates {}: ", resource, e);
+            return new ArrayList<>();
+        }
+    }
+
+    private static NotificationDescriptor toDescriptor(String message, int colon, int nicknameStart, TradeTemplate template, int[] bounds) {
+        TradeNotificationDescriptor descriptor;
+        if (template.getKind() == TradeTemplate.Kind.ITEM) {
+            ItemTradeNotificationDescriptor itemDescriptor = new ItemTradeNotificationDescriptor();
+            itemDescriptor.setItemName(field(message, bounds, TradeTemplate.Field.ITEM));
+            itemDescriptor.setTabName(field(message, bounds, TradeTemplate.Field.TAB));
+            String left = field(message, bounds, TradeTemplate.Field.LEFT);
+            String top = field(message, bounds, TradeTemplate.Field.TOP);
+            itemDescriptor.setLeft(left == null ? 0 : Integer.parseInt(left));
+            itemDescriptor.setTop(top == null ? 0 : Integer.parseInt(top));
+            itemDescriptor.setType(NotificationType.INC_ITEM_MESSAGE);
+            descriptor = itemDescriptor;
+        } else {
+            CurrencyTradeNotificationDescriptor currencyDescriptor = new CurrencyTradeNotificationDescriptor();
+            String count = field(message, bounds, TradeTemplate.Field.COUNT);
+            currencyDescriptor.setCurrForSaleCount(count == null ? null : Double.parseDouble(count));
+            currencyDescriptor.setCurrForSaleTitle(field(message, bounds, TradeTemplate.Field.TITLE));
+            currencyDescriptor.setType(NotificationType.INC_CURRENCY_MESSAGE);
+            descriptor = currencyDescriptor;
+        }
+        String price = field(message, bounds, TradeTemplate.Field.PRICE);
+        String currency = field(message, bounds, TradeTemplate.Field.CURRENCY);
+        descriptor.setCurCount(price == null ? 0d : Double.parseDouble(price));
+        descriptor.setCurrency(currency == null ? "???" : currency);
+        descriptor.setLeague(field(message, bounds, TradeTemplate.Field.LEAGUE));
+        descriptor.setOffer(field(message, bounds, TradeTemplate.Field.OFFER));
+        descriptor.setSourceString(message);
+        descriptor.setWhisperNickname(message.substring(nicknameStart, colon));
+        return descriptor;
+    }
+
+    private static String field(String message, int[] bounds, TradeTemplate.Field field) {
+        int start = bounds[field.ordinal() * 2];
+        return start < 0 ? null : message.substring(start, bounds[field.ordinal() * 2 + 1]);
+    }
+
+    private class MatchState implements KeywordAutomaton.MatchHandler {
+        private final String message;
+        private NotificationDescriptor descriptor;
+
+        private MatchState(String message) {
+            this.message = message;
+        }
+
+        // "[<guild> ]<nickname>:<whitespace><anchor>..."
+        @Override
+        public boolean onMatch(int keyword, int start, int end) {
+            int colon = start - 1;
+            while (colon >= 0 && Character.isWhitespace(this.message.charAt(colon))) {
+                colon--;
+            }
+            if (colon < 1 || this.message.charAt(colon) != ':' || Character.isWhitespace(this.message.charAt(colon - 1))) {
+                return true;
+            }
+            int nicknameStart = colon - 1;
+            while (nicknameStart > 0 && !Character.isWhitespace(this.message.charAt(nicknameStart - 1))) {
+                nicknameStart--;
+            }
+            for (TradeTemplate template : templatesByAnchor[keyword]) {
+                int[] bounds = template.match(this.message, start);
+                if (bounds != null) {
+                    this.descriptor = toDescriptor(this.message, colon, nicknameStart, template, bounds);
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.mercury.platform.core.utils.matcher.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled scanner query. Literals are not searched by the nodes themselves: all literals of a
+ * rule set go into one automaton and the nodes only look up whether theirs was found.
+ * Children of AND/OR are ordered by {@link #cost()}, so channel and literal checks short-circuit
+ * before any regular expression runs.
+ */
+public abstract class QueryNode {
+    static final int CHEAP = 1;
+    static final int REGEX = 100;
+
+    abstract boolean matches(ScanContext context);
+
+    abstract int cost();
+
+    /**
+     * @return literal ids at least one of which must be found for the node to match, or null
+     * when there is no such guarantee
+     */
+    abstract int[] requiredLiterals();
+
+    /**
+     * Collects the literals whose occurrences are worth highlighting, those not under a NOT.
+     */
+    abstract void positiveLiterals(Set<Integer> literals);
+
+    abstract void collectLiterals(List<Literal> literals);
+
+    static class Literal extends QueryNode {
+        private final String text;
+        private int id = -1;
+
+        Literal(String text) {
+            this.text = text;
+        }
+
+        String getText() {
+            return this.text;
+        }
+
+        void setId(int id) {
+            this.id = id;
+        }
+
+        @Override
+        boolean matches(ScanContext context) {
+            return context.isFound(this.id);
+        }
+
+        @Override
+        int cost() {
+            return CHEAP;
+        }
+
+        @Override
+        int[] requiredLiterals() {
+            return new int[]{this.id};
+        }
+
+        @Override
+        void positiveLiterals(Set<Integer> literals) {
+            literals.add(this.id);
+        }
+
+        @Override
+        void collectLiterals(List<Literal> literals) {
+            literals.add(this);
+        }
+
+        @Override
+        public String toString() {
+            return '"' + this.text + '"';
+        }
+    }
+
+    static class Regex extends QueryNode {
+        private final Pattern pattern;
+
+        Regex(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        boolean matches(ScanContext context) {
+            return this.pattern.matcher(context.getText()).region(context.getFrom(), context.getTo()).find();
+        }
+
+        @Override
+        int cost() {
+            return REGEX;
+        }
+
+        @Override
+        int[] requiredLiterals() {
+            return null;
+        }
+
+        @Override
+        void positiveLiterals(Set<Integer> literals) {
+        }
+
+        @Override
+        void collectLiterals(List<Literal> literals) {
+        }
+
+        @Override
+        public String toString() {
+            return "/" + this.pattern.pattern() + "/";
+        }
+    }
+
+    static class Channel extends QueryNode {
+        private final char marker;
+
+        Channel(char marker) {
+            this.marker = marker;
+        }
+
+        @Override
+        boolean matches(ScanContext context) {
+            return context.getChannel() == this.marker;
+        }
+
+        @Override
+        int cost() {
+            return 0;
+        }
+
+        @Override
+        int[] requiredLiterals() {
+            return null;
+        }
+
+        @Override
+        void positiveLiterals(Set<Integer> literals) {
+        }
+
+        @Override
+        void collectLiterals(List<Literal> literals) {
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(this.marker);
+        }
+    }
+
+    static class Not extends QueryNode {
+        private final QueryNode child;
+
+        Not(QueryNode child) {
+            this.child = child;
+        }
+
+        QueryNode getChild() {
+            return this.child;
+        }
+
+        @Override
+        boolean matches(ScanContext context) {
+            return !this.child.matches(context);
+        }
+
+        @Override
+        int cost() {
+            return this.child.cost();
+        }
+
+        @Override
+        int[] requiredLiterals() {
+            return null;
+        }
+
+        @Override
+        void positiveLiterals(Set<Integer> literals) {
+        }
+
+        @Override
+        void collectLiterals(List<Literal> literals) {
+            this.child.collectLiterals(literals);
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + this.child;
+        }
+    }
+
+    static class And extends QueryNode {
+        private final QueryNode[] children;
+
+        And(List<QueryNode> children) {
+            this.children = byCost(children);
+        }
+
+        @Override
+        boolean matches(ScanContext context) {
+            for (QueryNode child : this.children) {
+                if (!child.matches(context)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int cost() {
+            return totalCost(this.children);
+        }
+
+        // any child's guarantee holds for the conjunction, the narrowest one is kept
+        @Override
+        int[] requiredLiterals() {
+            int[] required = null;
+            for (QueryNode child : this.children) {
+                int[] childRequired = child.requiredLiterals();
+                if (childRequired != null && (required == null || childRequired.length < required.length)) {
+                    required = childRequired;
+                }
+            }
+            return required;
+        }
+
+        @Override
+        void positiveLiterals(Set<Integer> literals) {
+            for (QueryNode child : this.children) {
+                child.positiveLiterals(literals);
+            }
+        }
+
+        @Override
+        void collectLiterals(List<Literal> literals) {
+            for (QueryNode child : this.children) {
+                child.collectLiterals(literals);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "(" + join(this.children, " AND ") + ")";
+        }
+    }
+
+    static class Or extends QueryNode {
+        private final QueryNode[] children;
+
+        Or(List<QueryNode> children) {
+            this.children = byCost(children);
+        }
+
+        @Override
+        boolean matches(ScanContext context) {
+            for (QueryNode child : this.children) {
+                if (child.matches(context)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        int cost() {
+            return totalCost(this.children);
+        }
+
+        // holds only if every alternative has a guarantee
+        @Override
+        int[] requiredLiterals() {
+            List<Integer> required = new ArrayList<>();
+            for (QueryNode child : this.children) {
+                int[] childRequired = child.requiredLiterals();
+                if (childRequired == null) {
+                    return null;
+                }
+                for (int id : childRequired) {
+                    required.add(id);
+                }
+            }
+            return required.stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+
+        @Override
+        void positiveLiterals(Set<Integer> literals) {
+            for (QueryNode child : this.children) {
+                child.positiveLiterals(literals);
+            }
+        }
+
+        @Override
+        void collectLiterals(List<Literal> literals) {
+            for (QueryNode child : this.children) {
+                child.collectLiterals(literals);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "(" + join(this.children, " OR ") + ")";
+        }
+    }
+
+    private static QueryNode[] byCost(List<QueryNode> children) {
+        QueryNode[] sorted = children.toArray(new QueryNode[children.size()]);
+        Arrays.sort(sorted, Comparator.comparingInt(QueryNode::cost));
+        return sorted;
+    }
+
+    private static int totalCost(QueryNode[] children) {
+        int cost = 0;
+        for (QueryNode child : children) {
+            cost += child.cost();
+        }
+        return cost;
+    }
+
+    private static String join(QueryNode[] children, String separator) {
+        StringBuilder result = new StringBuilder();
+        for (QueryNode child : children) {
+            if (result.length() > 0) {
+                result.append(separator);
+            }
+            result.append(child);
+        }
+        return result.toString();
+    }
+}
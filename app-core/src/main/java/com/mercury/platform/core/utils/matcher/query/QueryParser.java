@@ -0,0 +1,214 @@
+package com.mercury.platform.core.utils.matcher.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Recursive descent parser of scanner queries:
+ * <pre>
+ * query   := or
+ * or      := and (("OR" | "|") and)*
+ * and     := unary (["AND" | "&amp;"] unary)*     adjacent terms are AND-ed
+ * unary   := ("NOT" | "!" | "-") unary | primary
+ * primary := "(" or ")" | "phrase" | /regex/ | $ | # | channel:trade | channel:global | word
+ * </pre>
+ * Words and phrases match case-insensitively anywhere in the message, regular expressions are
+ * case-insensitive too and anchors ({@code ^}, {@code $}) refer to the message bounds.
+ * {@code $} and {@code #} alone select the trade and the global channel.
+ */
+public class QueryParser {
+    private final String source;
+    private int position;
+
+    private QueryParser(String source) {
+        this.source = source;
+    }
+
+    /**
+     * @throws IllegalArgumentException with the position of the error when the query is malformed
+     */
+    public static QueryNode parse(String query) {
+        QueryParser parser = new QueryParser(query);
+        QueryNode node = parser.parseOr();
+        parser.skipWhitespace();
+        if (parser.position < query.length()) {
+            throw parser.error("Unexpected '" + query.charAt(parser.position) + "'");
+        }
+        return node;
+    }
+
+    private QueryNode parseOr() {
+        List<QueryNode> children = new ArrayList<>();
+        children.add(this.parseAnd());
+        while (this.acceptOperator("OR") || this.acceptSymbol('|')) {
+            children.add(this.parseAnd());
+        }
+        return children.size() == 1 ? children.get(0) : new QueryNode.Or(children);
+    }
+
+    private QueryNode parseAnd() {
+        List<QueryNode> children = new ArrayList<>();
+        children.add(this.parseUnary());
+        while (true) {
+            if (this.acceptOperator("AND") || this.acceptSymbol('&')) {
+                children.add(this.parseUnary());
+            } else if (this.startsTerm()) {
+                children.add(this.parseUnary());
+            } else {
+                break;
+            }
+        }
+        return children.size() == 1 ? children.get(0) : new QueryNode.And(children);
+    }
+
+    private QueryNode parseUnary() {
+        if (this.acceptOperator("NOT") || this.acceptSymbol('!') || this.acceptSymbol('-')) {
+            QueryNode child = this.parseUnary();
+            return child instanceof QueryNode.Not ? ((QueryNode.Not) child).getChild() : new QueryNode.Not(child);
+        }
+        return this.parsePrimary();
+    }
+
+    private QueryNode parsePrimary() {
+        this.skipWhitespace();
+        if (this.position == this.source.length()) {
+            throw this.error("Unexpected end of query");
+        }
+        char c = this.source.charAt(this.position);
+        switch (c) {
+            case '(': {
+                this.position++;
+                QueryNode node = this.parseOr();
+                if (!this.acceptSymbol(')')) {
+                    throw this.error("Missing ')'");
+                }
+                return node;
+            }
+            case '"':
+                return new QueryNode.Literal(this.readDelimited('"', "phrase"));
+            case '/':
+                return this.parseRegex();
+            case ')':
+                throw this.error("Unexpected ')'");
+            default:
+                break;
+        }
+        int start = this.position;
+        String word = this.readWord();
+        if (word.equals("|") || word.equals("&")) {
+            this.position = start;
+            throw this.error("Missing term before '" + word + "'");
+        }
+        if (word.equals("$")) {
+            return new QueryNode.Channel('$');
+        }
+        if (word.equals("#")) {
+            return new QueryNode.Channel('#');
+        }
+        if (word.regionMatches(true, 0, "channel:", 0, "channel:".length())) {
+            String channel = word.substring("channel:".length());
+            if (channel.equalsIgnoreCase("trade")) {
+                return new QueryNode.Channel('$');
+            }
+            if (channel.equalsIgnoreCase("global")) {
+                return new QueryNode.Channel('#');
+            }
+            this.position = start;
+            throw this.error("Unknown channel '" + channel + "'");
+        }
+        return new QueryNode.Literal(word);
+    }
+
+    private QueryNode parseRegex() {
+        int start = this.position;
+        String regex = this.readDelimited('/', "regular expression");
+        try {
+            return new QueryNode.Regex(Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+        } catch (PatternSyntaxException e) {
+            this.position = start;
+            throw this.error("Invalid regular expression: " + e.getDescription());
+        }
+    }
+
+    // the delimiter is escaped with a backslash, any other backslash is kept as is
+    private String readDelimited(char delimiter, String what) {
+        int start = this.position;
+        StringBuilder text = new StringBuilder();
+        this.position++;
+        while (this.position < this.source.length()) {
+            char c = this.source.charAt(this.position++);
+            if (c == delimiter) {
+                if (text.length() == 0) {
+                    this.position = start;
+                    throw this.error("Empty " + what);
+                }
+                return text.toString();
+            }
+            if (c == '\\' && this.position < this.source.length() && this.source.charAt(this.position) == delimiter) {
+                c = delimiter;
+                this.position++;
+            }
+            text.append(c);
+        }
+        this.position = start;
+        throw this.error("Unclosed " + what);
+    }
+
+    private String readWord() {
+        int start = this.position;
+        while (this.position < this.source.length() && !isDelimiter(this.source.charAt(this.position))) {
+            this.position++;
+        }
+        return this.source.substring(start, this.position);
+    }
+
+    private boolean startsTerm() {
+        this.skipWhitespace();
+        if (this.position == this.source.length()) {
+            return false;
+        }
+        char c = this.source.charAt(this.position);
+        return c != ')' && c != '|' && c != '&' && !this.atOperator("OR") && !this.atOperator("AND");
+    }
+
+    private boolean acceptOperator(String operator) {
+        this.skipWhitespace();
+        if (this.atOperator(operator)) {
+            this.position += operator.length();
+            return true;
+        }
+        return false;
+    }
+
+    // operators are upper case so that "or" and "not" stay usable as words
+    private boolean atOperator(String operator) {
+        int end = this.position + operator.length();
+        return this.source.startsWith(operator, this.position)
+                && (end == this.source.length() || isDelimiter(this.source.charAt(end)));
+    }
+
+    private boolean acceptSymbol(char symbol) {
+        this.skipWhitespace();
+        if (this.position < this.source.length() && this.source.charAt(this.position) == symbol) {
+            this.position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (this.position < this.source.length() && Character.isWhitespace(this.source.charAt(this.position))) {
+            this.position++;
+        }
+    }
+
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '(' || c == ')' || c == '"';
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at " + (this.position + 1) + " in query: " + this.source);
+    }
+}
@@ -0,0 +1,41 @@
+package com.mercury.platform.core.utils.matcher.query;
+
+/**
+ * One scanned message: the text region the rules look at, its channel marker and the literals
+ * the automaton found in it.
+ */
+class ScanContext {
+    private final CharSequence text;
+    private final int from;
+    private final int to;
+    private final char channel;
+    private final boolean[] found;
+
+    ScanContext(CharSequence text, int from, int to, char channel, boolean[] found) {
+        this.text = text;
+        this.from = from;
+        this.to = to;
+        this.channel = channel;
+        this.found = found;
+    }
+
+    CharSequence getText() {
+        return this.text;
+    }
+
+    int getFrom() {
+        return this.from;
+    }
+
+    int getTo() {
+        return this.to;
+    }
+
+    char getChannel() {
+        return this.channel;
+    }
+
+    boolean isFound(int literal) {
+        return this.found[literal];
+    }
+}
@@ -0,0 +1,112 @@
+package com.mercury.platform.core.utils.matcher.query;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A named, compiled scanner query with its counters. Counters are updated from the interceptor
+ * thread and can be read from any thread.
+ */
+public class ScannerRule {
+    private final String name;
+    private final String query;
+    private final QueryNode root;
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private int[] requiredLiterals;
+    private int[] positiveLiterals;
+
+    public ScannerRule(String name, String query, QueryNode root) {
+        this.name = name;
+        this.query = query;
+        this.root = root;
+    }
+
+    QueryNode getRoot() {
+        return this.root;
+    }
+
+    // called by ScannerRuleSet once literal ids are assigned
+    void link() {
+        this.requiredLiterals = this.root.requiredLiterals();
+        Set<Integer> positive = new HashSet<>();
+        this.root.positiveLiterals(positive);
+        this.positiveLiterals = positive.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    boolean evaluate(ScanContext context) {
+        this.evaluations.increment();
+        if (this.requiredLiterals != null && !anyFound(context, this.requiredLiterals)) {
+            this.skipped.increment();
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean matches = this.root.matches(context);
+        this.nanos.add(System.nanoTime() - start);
+        if (matches) {
+            this.hits.increment();
+        }
+        return matches;
+    }
+
+    int[] getPositiveLiterals() {
+        return this.positiveLiterals;
+    }
+
+    private static boolean anyFound(ScanContext context, int[] literals) {
+        for (int literal : literals) {
+            if (context.isFound(literal)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getQuery() {
+        return this.query;
+    }
+
+    /**
+     * Messages the rule was applied to, including those rejected by the literal prefilter.
+     */
+    public long getEvaluations() {
+        return this.evaluations.sum();
+    }
+
+    /**
+     * Messages rejected by the literal prefilter without evaluating the query.
+     */
+    public long getSkipped() {
+        return this.skipped.sum();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Time spent evaluating the query tree; the shared literal scan is not included.
+     */
+    public long getTotalNanos() {
+        return this.nanos.sum();
+    }
+
+    public void resetCounters() {
+        this.evaluations.reset();
+        this.skipped.reset();
+        this.hits.reset();
+        this.nanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return this.name + ": " + this.root;
+    }
+}
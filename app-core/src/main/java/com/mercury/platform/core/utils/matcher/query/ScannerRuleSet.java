@@ -0,0 +1,180 @@
+package com.mercury.platform.core.utils.matcher.query;
+
+import com.mercury.platform.core.utils.matcher.ChatScanner;
+import com.mercury.platform.core.utils.matcher.KeywordAutomaton;
+import com.mercury.platform.shared.config.descriptor.ScannerDescriptor;
+import com.mercury.platform.shared.config.descriptor.ScannerRuleDescriptor;
+import lombok.Data;
+
+import java.util.*;
+
+/**
+ * Chat scanner rules evaluated together. The literals of every rule are searched by a single
+ * case-insensitive {@link KeywordAutomaton} pass, then each rule is checked against the literals
+ * found, so a rule whose required literals are absent costs nothing and regular expressions only
+ * run on messages that passed the cheaper terms. Instances can be shared between threads.
+ */
+public class ScannerRuleSet {
+    public static final String WORDS_RULE = "words";
+    private final List<ScannerRule> rules;
+    private final KeywordAutomaton automaton;
+    private final int literalCount;
+
+    public ScannerRuleSet(List<ScannerRule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> keywords = new ArrayList<>();
+        for (ScannerRule rule : rules) {
+            List<QueryNode.Literal> literals = new ArrayList<>();
+            rule.getRoot().collectLiterals(literals);
+            for (QueryNode.Literal literal : literals) {
+                String key = literal.getText().toLowerCase();
+                Integer id = ids.get(key);
+                if (id == null) {
+                    id = keywords.size();
+                    ids.put(key, id);
+                    keywords.add(literal.getText());
+                }
+                literal.setId(id);
+            }
+            rule.link();
+        }
+        this.literalCount = keywords.size();
+        this.automaton = keywords.isEmpty() ? null : new KeywordAutomaton(keywords, true);
+    }
+
+    /**
+     * Compiles the enabled rules of the descriptor; the legacy word list, when not blank, becomes
+     * an extra rule named {@value #WORDS_RULE}.
+     *
+     * @throws IllegalArgumentException naming the rule whose query is malformed
+     */
+    public static ScannerRuleSet compile(ScannerDescriptor descriptor) {
+        List<ScannerRule> rules = new ArrayList<>();
+        QueryNode words = descriptor.getWords() == null ? null : fromWords(descriptor.getWords());
+        if (words != null) {
+            rules.add(new ScannerRule(WORDS_RULE, descriptor.getWords(), words));
+        }
+        if (descriptor.getRules() != null) {
+            for (ScannerRuleDescriptor rule : descriptor.getRules()) {
+                if (rule.isEnabled() && rule.getQuery() != null && !rule.getQuery().trim().isEmpty()) {
+                    rules.add(compile(rule.getName(), rule.getQuery()));
+                }
+            }
+        }
+        return new ScannerRuleSet(rules);
+    }
+
+    public static ScannerRule compile(String name, String query) {
+        try {
+            return new ScannerRule(name, query, QueryParser.parse(query));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Rule '" + name + "': " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Converts the legacy word list (see {@link ChatScanner#compile(String)}) into
+     * {@code (include OR ...) AND NOT (exclude OR ...)}.
+     *
+     * @return the query or null when the list has no include word
+     */
+    public static QueryNode fromWords(String words) {
+        List<QueryNode> include = new ArrayList<>();
+        List<QueryNode> exclude = new ArrayList<>();
+        for (String word : words.split(",")) {
+            word = word.trim();
+            if (word.contains("!")) {
+                word = word.replace("!", "");
+                if (!word.isEmpty()) {
+                    exclude.add(new QueryNode.Literal(word));
+                }
+            } else if (!word.isEmpty()) {
+                include.add(new QueryNode.Literal(word));
+            }
+        }
+        if (include.isEmpty()) {
+            return null;
+        }
+        QueryNode includeNode = include.size() == 1 ? include.get(0) : new QueryNode.Or(include);
+        if (exclude.isEmpty()) {
+            return includeNode;
+        }
+        QueryNode excludeNode = exclude.size() == 1 ? exclude.get(0) : new QueryNode.Or(exclude);
+        return new QueryNode.And(Arrays.asList(includeNode, new QueryNode.Not(excludeNode)));
+    }
+
+    /**
+     * Evaluates every rule against text[from, to).
+     *
+     * @param channel {@code '$'} for the trade channel, {@code '#'} for the global one
+     * @return the rules that matched with the spans of their literals to highlight, or null
+     */
+    public Match match(CharSequence text, int from, int to, char channel) {
+        if (this.rules.isEmpty()) {
+            return null;
+        }
+        LiteralCollector collector = new LiteralCollector(this.literalCount);
+        if (this.automaton != null) {
+            this.automaton.scan(text, from, to, collector);
+        }
+        ScanContext context = new ScanContext(text, from, to, channel, collector.found);
+        List<ScannerRule> matched = null;
+        for (ScannerRule rule : this.rules) {
+            if (rule.evaluate(context)) {
+                if (matched == null) {
+                    matched = new ArrayList<>();
+                }
+                matched.add(rule);
+            }
+        }
+        if (matched == null) {
+            return null;
+        }
+        boolean[] highlighted = new boolean[this.literalCount];
+        for (ScannerRule rule : matched) {
+            for (int literal : rule.getPositiveLiterals()) {
+                highlighted[literal] = true;
+            }
+        }
+        List<ChatScanner.Span> spans = new ArrayList<>();
+        for (int i = 0; i < collector.literals.size(); i++) {
+            if (highlighted[collector.literals.get(i)]) {
+                spans.add(collector.spans.get(i));
+            }
+        }
+        return new Match(matched, spans.isEmpty() ? spans : ChatScanner.nonOverlapping(spans));
+    }
+
+    public List<ScannerRule> getRules() {
+        return this.rules;
+    }
+
+    public boolean isEmpty() {
+        return this.rules.isEmpty();
+    }
+
+    @Data
+    public static class Match {
+        private final List<ScannerRule> rules;
+        private final List<ChatScanner.Span> spans;
+    }
+
+    private static class LiteralCollector implements KeywordAutomaton.MatchHandler {
+        private final boolean[] found;
+        private final List<Integer> literals = new ArrayList<>();
+        private final List<ChatScanner.Span> spans = new ArrayList<>();
+
+        private LiteralCollector(int literalCount) {
+            this.found = new boolean[literalCount];
+        }
+
+        @Override
+        public boolean onMatch(int keyword, int start, int end) {
+            this.found[keyword] = true;
+            this.literals.add(keyword);
+            this.spans.add(new ChatScanner.Span(start, end));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.mercury.platform.core.utils.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency aggregate (count, average, max and last sample), safe to record from any thread.
+ */
+public class LatencyCounter {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private volatile long lastNanos;
+
+    public LatencyCounter(String name) {
+        this.name = name;
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        this.count.increment();
+        this.totalNanos.add(nanos);
+        this.lastNanos = nanos;
+        long max;
+        do {
+            max = this.maxNanos.get();
+        } while (nanos > max && !this.maxNanos.compareAndSet(max, nanos));
+    }
+
+    public void recordSince(long startNanos) {
+        this.record(System.nanoTime() - startNanos);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getAverageNanos() {
+        long count = this.count.sum();
+        return count == 0 ? 0 : this.totalNanos.sum() / count;
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+    public long getLastNanos() {
+        return this.lastNanos;
+    }
+
+    public void reset() {
+        this.count.reset();
+        this.totalNanos.reset();
+        this.maxNanos.set(0);
+        this.lastNanos = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d, avg=%.3fms, max=%.3fms, last=%.3fms",
+                this.name,
+                this.getCount(),
+                this.getAverageNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                this.getMaxNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1),
+                this.getLastNanos() / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
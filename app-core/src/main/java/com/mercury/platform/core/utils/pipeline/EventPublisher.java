@@ -0,0 +1,26 @@
+package com.mercury.platform.core.utils.pipeline;
+
+/**
+ * Delivers the events interceptors produce, e.g. {@code MercuryStoreCore} emissions.
+ */
+public interface EventPublisher {
+    EventPublisher DIRECT = new EventPublisher() {
+        @Override
+        public void publish(Runnable event) {
+            event.run();
+        }
+
+        @Override
+        public void publish(Object coalesceKey, Runnable event) {
+            event.run();
+        }
+    };
+
+    void publish(Runnable event);
+
+    /**
+     * Publishes the event unless an event with the same key is still waiting to be delivered,
+     * in which case the new one is merged into it.
+     */
+    void publish(Object coalesceKey, Runnable event);
+}
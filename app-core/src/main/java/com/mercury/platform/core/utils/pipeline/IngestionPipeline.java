@@ -0,0 +1,269 @@
+package com.mercury.platform.core.utils.pipeline;
+
+import com.mercury.platform.core.utils.interceptor.dispatch.ClassifiedLine;
+import com.mercury.platform.core.utils.interceptor.dispatch.InterceptorDispatcher;
+import com.mercury.platform.core.utils.metrics.LatencyCounter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Three stage log ingestion: the reader thread (the log watcher) submits classified lines,
+ * a parse worker runs the interceptors and a publish thread delivers their events to
+ * subscribers. Stages are connected by bounded single-producer/single-consumer ring buffers.
+ * <p>
+ * When the parse stage falls behind, whisper lines block the reader (the tailer simply stops
+ * advancing, nothing is lost) while channel and area lines are dropped. When the publish stage
+ * falls behind, the parse worker waits for it, and events published with a coalesce key that is
+ * already queued are merged into the queued one.
+ * <p>
+ * Closing drains both queues before the stages stop, so every line the reader handed over is
+ * parsed and its events delivered before the tail checkpoint moves past it.
+ */
+public class IngestionPipeline implements EventPublisher, Closeable {
+    public static final int LINE_CAPACITY = 4096;
+    public static final int EVENT_CAPACITY = 1024;
+    private static final long BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private final Logger logger = LogManager.getLogger(IngestionPipeline.class.getSimpleName());
+
+    private final InterceptorDispatcher dispatcher;
+    private final SpscRingBuffer<LineEntry> lines;
+    private final SpscRingBuffer<EventEntry> events;
+    private final Set<Object> pendingKeys = ConcurrentHashMap.newKeySet();
+    private final Thread parseThread;
+    private final Thread publishThread;
+    private volatile boolean running = true;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LatencyCounter readerStall = new LatencyCounter("reader stall");
+    private final LatencyCounter lineQueueLatency = new LatencyCounter("line queue");
+    private final LatencyCounter parseLatency = new LatencyCounter("parse");
+    private final LatencyCounter eventQueueLatency = new LatencyCounter("event queue");
+    private final LatencyCounter publishLatency = new LatencyCounter("publish");
+
+    public IngestionPipeline(InterceptorDispatcher dispatcher) {
+        this(dispatcher, LINE_CAPACITY, EVENT_CAPACITY);
+    }
+
+    public IngestionPipeline(InterceptorDispatcher dispatcher, int lineCapacity, int eventCapacity) {
+        this.dispatcher = dispatcher;
+        this.lines = new SpscRingBuffer<>(lineCapacity);
+        this.events = new SpscRingBuffer<>(eventCapacity);
+        this.parseThread = new Thread(this::runParseStage, "LogParseWorker");
+        this.parseThread.setDaemon(true);
+        this.publishThread = new Thread(this::runPublishStage, "LogEventPublisher");
+        this.publishThread.setDaemon(true);
+    }
+
+    public void start() {
+        this.parseThread.start();
+        this.publishThread.start();
+    }
+
+    /**
+     * Called by the reader thread only.
+     *
+     * @return false if the line was dropped
+     */
+    public boolean submit(ClassifiedLine line) {
+        LineEntry entry = new LineEntry(line, System.nanoTime());
+        if (!this.lines.offer(entry)) {
+            if (this.policyFor(line) == OverflowPolicy.DROP) {
+                this.dropped.increment();
+                return false;
+            }
+            long stallStart = System.nanoTime();
+            while (!this.lines.offer(entry)) {
+                if (!this.running) {
+                    this.dropped.increment();
+                    return false;
+                }
+                LockSupport.parkNanos(BACKOFF_NANOS);
+            }
+            this.readerStall.recordSince(stallStart);
+        }
+        this.submitted.increment();
+        LockSupport.unpark(this.parseThread);
+        return true;
+    }
+
+    private OverflowPolicy policyFor(ClassifiedLine line) {
+        return line.isWhisper() ? OverflowPolicy.BLOCK : OverflowPolicy.DROP;
+    }
+
+    /**
+     * Called by interceptors on the parse worker.
+     */
+    @Override
+    public void publish(Runnable event) {
+        this.publish(null, event);
+    }
+
+    @Override
+    public void publish(Object coalesceKey, Runnable event) {
+        if (coalesceKey != null && !this.pendingKeys.add(coalesceKey)) {
+            this.coalesced.increment();
+            return;
+        }
+        EventEntry entry = new EventEntry(coalesceKey, event, System.nanoTime());
+        while (!this.events.offer(entry)) {
+            // the publish stage outlives the parse stage, so this only gives up on a pipeline that never started
+            if (!this.running && !this.publishThread.isAlive()) {
+                return;
+            }
+            LockSupport.parkNanos(BACKOFF_NANOS);
+        }
+        LockSupport.unpark(this.publishThread);
+    }
+
+    // runs until closed and the line queue is empty
+    private void runParseStage() {
+        while (true) {
+            LineEntry entry = this.lines.poll();
+            if (entry == null) {
+                if (!this.running) {
+                    break;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            long start = System.nanoTime();
+            this.lineQueueLatency.record(start - entry.enqueuedAt);
+            try {
+                this.dispatcher.dispatch(entry.line);
+            } catch (Exception e) {
+                logger.error("Error while processing line: {}", entry.line.getText(), e);
+            }
+            this.parseLatency.recordSince(start);
+        }
+    }
+
+    // runs until the parse stage is over and the event queue is empty
+    private void runPublishStage() {
+        while (true) {
+            EventEntry entry = this.events.poll();
+            if (entry == null) {
+                if (!this.running && !this.parseThread.isAlive() && this.events.size() == 0) {
+                    break;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            if (entry.coalesceKey != null) {
+                this.pendingKeys.remove(entry.coalesceKey);
+            }
+            long start = System.nanoTime();
+            this.eventQueueLatency.record(start - entry.enqueuedAt);
+            try {
+                entry.event.run();
+            } catch (Exception e) {
+                logger.error("Error while publishing event: ", e);
+            }
+            this.publishLatency.recordSince(start);
+        }
+    }
+
+    public int getLineQueueDepth() {
+        return this.lines.size();
+    }
+
+    public int getEventQueueDepth() {
+        return this.events.size();
+    }
+
+    public long getSubmittedCount() {
+        return this.submitted.sum();
+    }
+
+    public long getDroppedCount() {
+        return this.dropped.sum();
+    }
+
+    public long getCoalescedCount() {
+        return this.coalesced.sum();
+    }
+
+    public LatencyCounter getReaderStall() {
+        return this.readerStall;
+    }
+
+    public LatencyCounter getLineQueueLatency() {
+        return this.lineQueueLatency;
+    }
+
+    public LatencyCounter getParseLatency() {
+        return this.parseLatency;
+    }
+
+    public LatencyCounter getEventQueueLatency() {
+        return this.eventQueueLatency;
+    }
+
+    public LatencyCounter getPublishLatency() {
+        return this.publishLatency;
+    }
+
+    /**
+     * Stops taking lines and waits for the queued ones to be parsed and their events published.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.parseThread);
+        LockSupport.unpark(this.publishThread);
+        try {
+            this.parseThread.join(CLOSE_TIMEOUT_MILLIS);
+            LockSupport.unpark(this.publishThread);
+            this.publishThread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.parseThread.isAlive() || this.publishThread.isAlive()) {
+            logger.warn("Ingestion pipeline did not drain in time: {}", this.toString());
+        } else {
+            logger.debug(this.toString());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("lines=%d/%d, events=%d/%d, submitted=%d, dropped=%d, coalesced=%d; %s; %s; %s; %s; %s",
+                this.getLineQueueDepth(), this.lines.capacity(),
+                this.getEventQueueDepth(), this.events.capacity(),
+                this.getSubmittedCount(), this.getDroppedCount(), this.getCoalescedCount(),
+                this.readerStall, this.lineQueueLatency, this.parseLatency,
+                this.eventQueueLatency, this.publishLatency);
+    }
+
+    private static class LineEntry {
+        private final ClassifiedLine line;
+        private final long enqueuedAt;
+
+        private LineEntry(ClassifiedLine line, long enqueuedAt) {
+            this.line = line;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    private static class EventEntry {
+        private final Object coalesceKey;
+        private final Runnable event;
+        private final long enqueuedAt;
+
+        private EventEntry(Object coalesceKey, Runnable event, long enqueuedAt) {
+            this.coalesceKey = coalesceKey;
+            this.enqueuedAt = enqueuedAt;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.mercury.platform.core.utils.pipeline;
+
+public enum OverflowPolicy {
+    /** Stall the log reader until the parse stage catches up. */
+    BLOCK,
+    /** Count the line as dropped and go on reading. */
+    DROP
+}
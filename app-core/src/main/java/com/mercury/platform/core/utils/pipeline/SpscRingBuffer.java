@@ -0,0 +1,50 @@
+package com.mercury.platform.core.utils.pipeline;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer thread.
+ */
+public class SpscRingBuffer<T> {
+    private final Object[] items;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    public SpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.items = new Object[size];
+        this.mask = size - 1;
+    }
+
+    public boolean offer(T item) {
+        long tail = this.tail.get();
+        if (tail - this.head.get() == this.items.length) {
+            return false;
+        }
+        this.items[(int) tail & this.mask] = item;
+        this.tail.lazySet(tail + 1);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long head = this.head.get();
+        if (head == this.tail.get()) {
+            return null;
+        }
+        int index = (int) head & this.mask;
+        T item = (T) this.items[index];
+        this.items[index] = null;
+        this.head.lazySet(head + 1);
+        return item;
+    }
+
+    public int size() {
+        return (int) (this.tail.get() - this.head.get());
+    }
+
+    public int capacity() {
+        return this.items.length;
+    }
+}
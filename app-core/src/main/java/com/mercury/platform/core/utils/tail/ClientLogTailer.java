@@ -0,0 +1,354 @@
+package com.mercury.platform.core.utils.tail;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Forward-only reader of Client.txt. Every poll reads just the bytes appended since the
+ * previous one, splits them into lines at byte level and decodes each line straight from the
+ * read buffer into a reused {@link CharBuffer}. A trailing partial line stays in the buffer
+ * until its terminator arrives.
+ * <p>
+ * The tailer keeps the identity of the open file (file key, or creation time where the file
+ * system has no keys) and its first bytes. A new identity means the file was replaced: the rest
+ * of the old file is read before switching to the new one from its start. A size below the read
+ * position or a changed head means it was truncated, reading starts over from offset 0.
+ */
+public class ClientLogTailer implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int HEAD_SIZE = 64;
+    /** A checkpoint further behind the end of file than this is not worth replaying. */
+    public static final long MAX_RESUME_BYTES = 32 * 1024 * 1024;
+    /** Minimal interval between two checkpoint writes while lines keep coming, the last one is written on close. */
+    private static final long CHECKPOINT_INTERVAL = 5000;
+    private final Logger logger = LogManager.getLogger(ClientLogTailer.class.getSimpleName());
+    private final Path logFilePath;
+    private final TailCheckpoint checkpoint;
+    private RotationHandler rotationHandler;
+
+    private FileChannel channel;
+    private String fileIdentity;
+    private byte[] head = new byte[0];
+    private Charset charset;
+    private CharsetDecoder decoder;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private CharBuffer chars = CharBuffer.allocate(1024);
+    /** Offset right after the last complete line handed out. */
+    private long offset;
+    /** Offset of the next byte to read from the channel, includes the pending partial line. */
+    private long readPosition;
+    /** Timestamp of the last consumed line as reported by the caller, persisted with the offset. */
+    private long timestamp;
+    private boolean resumed;
+    private boolean opened;
+    private boolean checkpointPending;
+    private long checkpointSavedAt;
+
+    public ClientLogTailer(String logFilePath, TailCheckpoint checkpoint) {
+        this.logFilePath = Paths.get(logFilePath);
+        this.checkpoint = checkpoint;
+    }
+
+    public void open() throws IOException {
+        this.opened = true;
+        this.channel = FileChannel.open(this.logFilePath, StandardOpenOption.READ);
+        this.fileIdentity = identityOf(this.logFilePath);
+        this.head = this.readHead();
+        long size = this.channel.size();
+        this.offset = size;
+        TailCheckpoint.State state = this.checkpoint != null ? this.checkpoint.load() : null;
+        boolean sameFile = state != null && this.logFilePath.toString().equals(state.getLogFilePath())
+                && (state.getFileKey() == null || state.getFileKey().equals(this.fileIdentity));
+        if (sameFile && state.getOffset() <= size) {
+            if (size - state.getOffset() <= MAX_RESUME_BYTES) {
+                this.offset = state.getOffset();
+                this.timestamp = state.getTimestamp();
+                this.resumed = true;
+            } else {
+                logger.info("Checkpoint is {} bytes behind the end of Client.txt, skipping the gap", size - state.getOffset());
+            }
+        }
+        if (sameFile && state.getCharset() != null && Charset.isSupported(state.getCharset())) {
+            this.charset = Charset.forName(state.getCharset());
+        } else {
+            this.charset = new LogCharsetDetector().detect(this.channel);
+        }
+        this.createDecoder();
+        this.readPosition = this.offset;
+        this.buffer.clear();
+    }
+
+    private void createDecoder() {
+        this.decoder = this.charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Switches to the file now found at the log path and reads it from the start.
+     */
+    private void reopen() throws IOException {
+        this.closeChannel();
+        this.channel = FileChannel.open(this.logFilePath, StandardOpenOption.READ);
+        this.fileIdentity = identityOf(this.logFilePath);
+        this.head = this.readHead();
+        if (this.charset == null) {
+            this.charset = new LogCharsetDetector().detect(this.channel);
+            this.createDecoder();
+        }
+        this.resetToStart();
+    }
+
+    private void resetToStart() {
+        this.offset = 0;
+        this.readPosition = 0;
+        this.buffer.clear();
+    }
+
+    public List<String> poll() {
+        List<String> lines = new ArrayList<>();
+        this.poll((line, lineOffset) -> lines.add(line.toString()));
+        return lines;
+    }
+
+    /**
+     * Hands every new complete line to the handler. The {@link CharSequence} is only valid
+     * during the callback, call {@code toString()} to keep it.
+     */
+    public void poll(LineHandler handler) {
+        long startOffset = this.offset;
+        LogRotation rotation = null;
+        try {
+            rotation = this.detectRotation();
+            if (rotation == LogRotation.REPLACED) {
+                logger.warn("Client.txt was replaced, reading the new file from the start");
+                if (this.channel != null) {
+                    this.readAvailable(handler);
+                    this.flushPartialLine(handler);
+                }
+                this.reopen();
+            } else if (rotation == LogRotation.TRUNCATED) {
+                logger.warn("Client.txt was truncated, reading from the start");
+                this.resetToStart();
+            }
+            if (rotation != null && this.rotationHandler != null) {
+                this.rotationHandler.onRotation(rotation);
+            }
+            if (this.channel != null) {
+                this.readAvailable(handler);
+            }
+        } catch (IOException e) {
+            logger.error("Error while reading Client.txt: ", e);
+        }
+        if (this.offset != startOffset || rotation != null) {
+            this.checkpointPending = true;
+        }
+        if (this.checkpointPending && (rotation != null || System.currentTimeMillis() - this.checkpointSavedAt >= CHECKPOINT_INTERVAL)) {
+            this.saveCheckpoint();
+        }
+    }
+
+    private LogRotation detectRotation() throws IOException {
+        if (!Files.exists(this.logFilePath)) {
+            // moved away, the new one is not there yet
+            return null;
+        }
+        if (this.channel == null) {
+            // was missing when opened or when last replaced
+            return this.opened ? LogRotation.REPLACED : null;
+        }
+        if (!identityOf(this.logFilePath).equals(this.fileIdentity)) {
+            return LogRotation.REPLACED;
+        }
+        if (this.channel.size() < this.readPosition) {
+            return LogRotation.TRUNCATED;
+        }
+        byte[] head = this.readHead();
+        int common = Math.min(head.length, this.head.length);
+        if (!Arrays.equals(Arrays.copyOf(head, common), Arrays.copyOf(this.head, common))) {
+            this.head = head;
+            return LogRotation.TRUNCATED;
+        }
+        if (head.length > this.head.length) {
+            this.head = head;
+        }
+        return null;
+    }
+
+    private void readAvailable(LineHandler handler) throws IOException {
+        while (true) {
+            if (!this.buffer.hasRemaining()) {
+                this.growBuffer();
+            }
+            int read = this.channel.read(this.buffer, this.readPosition);
+            if (read <= 0) {
+                break;
+            }
+            this.readPosition += read;
+            this.buffer.flip();
+            this.consume(handler);
+            this.buffer.compact();
+        }
+    }
+
+    /**
+     * The last line of a replaced file will never get its terminator.
+     */
+    private void flushPartialLine(LineHandler handler) {
+        this.buffer.flip();
+        int end = this.buffer.limit();
+        if (end > 0 && this.buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (end > 0) {
+            handler.onLine(this.decode(0, end, this.buffer.limit()), this.offset);
+        }
+        this.buffer.clear();
+    }
+
+    private byte[] readHead() throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(HEAD_SIZE);
+        while (head.hasRemaining()) {
+            if (this.channel.read(head, head.position()) <= 0) {
+                break;
+            }
+        }
+        return Arrays.copyOf(head.array(), head.position());
+    }
+
+    private static String identityOf(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Object fileKey = attributes.fileKey();
+        return fileKey != null ? fileKey.toString() : "created:" + attributes.creationTime().toMillis();
+    }
+
+    private void consume(LineHandler handler) {
+        int limit = this.buffer.limit();
+        long bufferStart = this.offset;
+        int lineStart = this.buffer.position();
+        for (int i = lineStart; i < limit; i++) {
+            if (this.buffer.get(i) == '\n') {
+                int lineEnd = i;
+                if (lineEnd > lineStart && this.buffer.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+                if (lineEnd > lineStart) {
+                    handler.onLine(this.decode(lineStart, lineEnd, limit), bufferStart + lineStart);
+                }
+                lineStart = i + 1;
+                this.offset = bufferStart + lineStart;
+            }
+        }
+        this.buffer.limit(limit);
+        this.buffer.position(lineStart);
+    }
+
+    private CharSequence decode(int start, int end, int limit) {
+        this.buffer.limit(end);
+        this.buffer.position(start);
+        int maxChars = (int) Math.ceil((end - start) * (double) this.decoder.maxCharsPerByte());
+        if (this.chars.capacity() < maxChars) {
+            this.chars = CharBuffer.allocate(Math.max(maxChars, this.chars.capacity() * 2));
+        }
+        this.chars.clear();
+        this.decoder.reset();
+        this.decoder.decode(this.buffer, this.chars, true);
+        this.decoder.flush(this.chars);
+        this.chars.flip();
+        this.buffer.limit(limit);
+        return this.chars;
+    }
+
+    private void growBuffer() {
+        ByteBuffer larger = ByteBuffer.allocateDirect(this.buffer.capacity() * 2);
+        this.buffer.flip();
+        larger.put(this.buffer);
+        this.buffer = larger;
+    }
+
+    private void saveCheckpoint() {
+        this.checkpointPending = false;
+        this.checkpointSavedAt = System.currentTimeMillis();
+        if (this.checkpoint != null && this.charset != null) {
+            TailCheckpoint.State state = new TailCheckpoint.State();
+            state.setLogFilePath(this.logFilePath.toString());
+            state.setOffset(this.offset);
+            state.setTimestamp(this.timestamp);
+            state.setFileKey(this.fileIdentity);
+            state.setCharset(this.charset.name());
+            this.checkpoint.save(state);
+        }
+    }
+
+    public long getOffset() {
+        return this.offset;
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Whether reading continues from a checkpoint rather than from the end of file.
+     */
+    public boolean isResumed() {
+        return this.resumed;
+    }
+
+    public void setRotationHandler(RotationHandler rotationHandler) {
+        this.rotationHandler = rotationHandler;
+    }
+
+    public Charset getCharset() {
+        return this.charset;
+    }
+
+    @Override
+    public void close() {
+        if (this.checkpointPending) {
+            this.saveCheckpoint();
+        }
+        this.opened = false;
+        this.closeChannel();
+    }
+
+    private void closeChannel() {
+        if (this.channel != null) {
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                logger.error("Error while closing Client.txt: ", e);
+            }
+            this.channel = null;
+        }
+    }
+
+    public interface LineHandler {
+        void onLine(CharSequence line, long lineOffset);
+    }
+
+    public interface RotationHandler {
+        void onRotation(LogRotation rotation);
+    }
+}
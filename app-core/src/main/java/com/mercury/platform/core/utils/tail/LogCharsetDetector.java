@@ -0,0 +1,52 @@
+package com.mercury.platform.core.utils.tail;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.mozilla.universalchardet.UniversalDetector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Guesses the encoding the game client writes Client.txt with. Only the head of the file is
+ * sampled; plain ASCII, an inconclusive sample or an encoding that is not ASCII compatible
+ * resolves to UTF-8.
+ */
+public class LogCharsetDetector {
+    private static final int SAMPLE_LIMIT = 1024 * 1024;
+    private final Logger logger = LogManager.getLogger(LogCharsetDetector.class.getSimpleName());
+
+    public Charset detect(FileChannel channel) {
+        UniversalDetector detector = new UniversalDetector(null);
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        long position = 0;
+        try {
+            int read;
+            while (!detector.isDone() && position < SAMPLE_LIMIT && (read = channel.read(buffer, position)) > 0) {
+                detector.handleData(buffer.array(), 0, read);
+                position += read;
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            logger.error("Error while sampling Client.txt encoding: ", e);
+        }
+        detector.dataEnd();
+        String detected = detector.getDetectedCharset();
+        if (detected == null) {
+            return StandardCharsets.UTF_8;
+        }
+        try {
+            Charset charset = Charset.forName(detected);
+            byte[] newLine = "\n".getBytes(charset);
+            if (newLine.length == 1 && newLine[0] == '\n') {
+                return charset;
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unsupported Client.txt encoding {}", detected);
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
@@ -0,0 +1,20 @@
+package com.mercury.platform.core.utils.tail;
+
+import lombok.Data;
+
+/**
+ * Position of a line in Client.txt: the epoch millis of its timestamp prefix and the byte
+ * offset it starts at. Offsets disambiguate lines written within the same second.
+ */
+@Data
+public class LogPosition implements Comparable<LogPosition> {
+    public static final LogPosition START = new LogPosition(Long.MIN_VALUE, -1);
+    private final long timestamp;
+    private final long offset;
+
+    @Override
+    public int compareTo(LogPosition other) {
+        int result = Long.compare(this.timestamp, other.timestamp);
+        return result != 0 ? result : Long.compare(this.offset, other.offset);
+    }
+}
@@ -0,0 +1,8 @@
+package com.mercury.platform.core.utils.tail;
+
+public enum LogRotation {
+    /** Same file, cut down and written again from the start. */
+    TRUNCATED,
+    /** Another file was put in place of the tailed one (renamed, deleted and recreated). */
+    REPLACED
+}
@@ -0,0 +1,90 @@
+package com.mercury.platform.core.utils.tail;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+
+/**
+ * Parses the fixed-width {@code yyyy/MM/dd HH:mm:ss} prefix of a Client.txt line into epoch
+ * millis. The zone offset is looked up once per local hour, so parsing a line does not allocate.
+ * Not thread safe.
+ */
+public class LogTimestampParser {
+    public static final int LENGTH = 19;
+    private static final long MILLIS_PER_HOUR = 3600_000L;
+    private final ZoneRules zoneRules;
+    private long cachedHour = Long.MIN_VALUE;
+    private long cachedOffsetMillis;
+
+    public LogTimestampParser() {
+        this(ZoneId.systemDefault());
+    }
+
+    public LogTimestampParser(ZoneId zone) {
+        this.zoneRules = zone.getRules();
+    }
+
+    /**
+     * @return epoch millis of the line prefix or -1 when the line does not start with a timestamp
+     */
+    public long parse(CharSequence line) {
+        if (line.length() < LENGTH
+                || line.charAt(4) != '/' || line.charAt(7) != '/' || line.charAt(10) != ' '
+                || line.charAt(13) != ':' || line.charAt(16) != ':') {
+            return -1;
+        }
+        int year = digits(line, 0, 4);
+        int month = digits(line, 5, 2);
+        int day = digits(line, 8, 2);
+        int hour = digits(line, 11, 2);
+        int minute = digits(line, 14, 2);
+        int second = digits(line, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return -1;
+        }
+        long localMillis = ((daysFromCivil(year, month, day) * 24 + hour) * 60 + minute) * 60_000L + second * 1000L;
+        long localHour = Math.floorDiv(localMillis, MILLIS_PER_HOUR);
+        if (localHour != this.cachedHour) {
+            this.cachedOffsetMillis = this.zoneRules.getOffset(LocalDateTime.of(year, month, day, hour, 0)).getTotalSeconds() * 1000L;
+            this.cachedHour = localHour;
+        }
+        return localMillis - this.cachedOffsetMillis;
+    }
+
+    private static int digits(CharSequence line, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // days since 1970-01-01 of a proleptic Gregorian date
+    private static long daysFromCivil(int year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        long era = Math.floorDiv(year, 400);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
@@ -0,0 +1,73 @@
+package com.mercury.platform.core.utils.tail;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import lombok.Data;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Persists the byte offset of the last consumed line of Client.txt so the tailer
+ * can resume from the same position after a restart.
+ */
+public class TailCheckpoint {
+    public static final String CHECKPOINT_FILE = System.getenv("USERPROFILE") + "\\AppData\\Local\\MercuryTrade\\client-log-checkpoint.json";
+    private final Logger logger = LogManager.getLogger(TailCheckpoint.class.getSimpleName());
+    private final Gson gson = new Gson();
+    private final Path checkpointPath;
+
+    public TailCheckpoint() {
+        this(CHECKPOINT_FILE);
+    }
+
+    public TailCheckpoint(String checkpointPath) {
+        this.checkpointPath = Paths.get(checkpointPath);
+    }
+
+    public State load() {
+        if (!Files.exists(this.checkpointPath)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(this.checkpointPath, StandardCharsets.UTF_8)) {
+            return this.gson.fromJson(reader, State.class);
+        } catch (IOException | JsonSyntaxException e) {
+            logger.error("Error while reading tail checkpoint: ", e);
+            return null;
+        }
+    }
+
+    public void save(State state) {
+        Path tempPath = this.checkpointPath.resolveSibling(this.checkpointPath.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                this.gson.toJson(state, writer);
+            }
+            try {
+                Files.move(tempPath, this.checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, this.checkpointPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.error("Error while writing tail checkpoint: ", e);
+        }
+    }
+
+    @Data
+    public static class State {
+        private String logFilePath;
+        private String fileKey;
+        private long offset;
+        private long timestamp;
+        private String charset;
+    }
+}
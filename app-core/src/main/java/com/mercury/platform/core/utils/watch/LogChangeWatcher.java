@@ -0,0 +1,149 @@
+package com.mercury.platform.core.utils.watch;
+
+import com.mercury.platform.core.utils.metrics.LatencyCounter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Notifies about changes of a single log file. Changes are taken from the {@link WatchService}
+ * of the log folder; a stat based poll runs between events and takes over when the file system
+ * does not deliver them (network shares, some virtualised drives).
+ */
+public class LogChangeWatcher {
+    private static final long MIN_POLLING_INTERVAL = 50;
+    private static final long IDLE_POLLING_INTERVAL = 350;
+    private static final long SAFETY_POLLING_INTERVAL = 2000;
+    private final Logger logger = LogManager.getLogger(LogChangeWatcher.class.getSimpleName());
+    private final Path logFile;
+    private final Runnable changeHandler;
+    private final LatencyCounter detectionLatency = new LatencyCounter("change detection");
+    private final LatencyCounter handlerLatency = new LatencyCounter("log parse");
+
+    private WatchService watchService;
+    private Thread thread;
+    private volatile boolean running;
+    private boolean eventsDelivered;
+    private long pollingInterval = MIN_POLLING_INTERVAL;
+    private long lastSize = -1;
+    private long lastModified = -1;
+
+    public LogChangeWatcher(Path logFile, Runnable changeHandler) {
+        this.logFile = logFile;
+        this.changeHandler = changeHandler;
+    }
+
+    public void start() throws IOException {
+        this.watchService = this.logFile.getFileSystem().newWatchService();
+        this.logFile.getParent().register(this.watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        this.hasChangedOnDisk();
+        this.running = true;
+        this.thread = new Thread(this::run, "LogChangeWatcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public void stop() {
+        this.running = false;
+        if (this.watchService != null) {
+            try {
+                this.watchService.close();
+            } catch (IOException e) {
+                logger.error("Error while closing watch service: ", e);
+            }
+        }
+        if (this.thread != null) {
+            this.thread.interrupt();
+            // the handler must not read any more once stop returns, the caller closes what it reads into
+            if (this.thread != Thread.currentThread()) {
+                try {
+                    this.thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        logger.debug("{}; {}", this.detectionLatency, this.handlerLatency);
+    }
+
+    private void run() {
+        // lines written while nobody was watching, the age of the file is no detection latency
+        this.onChange(false);
+        while (this.running) {
+            try {
+                boolean changed = false;
+                WatchKey key = this.watchService.poll(this.pollingInterval, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW || this.logFile.getFileName().equals(event.context())) {
+                            changed = true;
+                        }
+                    }
+                    if (!key.reset()) {
+                        logger.warn("Log folder {} is no longer watchable, falling back to polling", this.logFile.getParent());
+                        this.eventsDelivered = false;
+                    }
+                }
+                boolean changedOnDisk = this.hasChangedOnDisk();
+                if (changed) {
+                    this.eventsDelivered = true;
+                } else if (changedOnDisk) {
+                    if (this.eventsDelivered) {
+                        logger.debug("Change of {} was picked up by polling, events look unreliable", this.logFile);
+                    }
+                    this.eventsDelivered = false;
+                    changed = true;
+                }
+                if (changed) {
+                    this.pollingInterval = MIN_POLLING_INTERVAL;
+                    this.onChange(changedOnDisk);
+                } else {
+                    long maxInterval = this.eventsDelivered ? SAFETY_POLLING_INTERVAL : IDLE_POLLING_INTERVAL;
+                    this.pollingInterval = Math.min(this.pollingInterval * 2, maxInterval);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            } catch (Exception e) {
+                logger.error("Error in LogChangeWatcher: ", e);
+            }
+        }
+    }
+
+    /**
+     * @param modificationSeen whether the modification time of the file was just read, so it dates this change
+     */
+    private void onChange(boolean modificationSeen) {
+        if (modificationSeen && this.lastModified > 0) {
+            this.detectionLatency.record(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - this.lastModified));
+        }
+        long start = System.nanoTime();
+        this.changeHandler.run();
+        this.handlerLatency.recordSince(start);
+    }
+
+    private boolean hasChangedOnDisk() {
+        try {
+            long size = Files.size(this.logFile);
+            long modified = Files.getLastModifiedTime(this.logFile).toMillis();
+            boolean changed = size != this.lastSize || modified != this.lastModified;
+            this.lastSize = size;
+            this.lastModified = modified;
+            return changed;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public LatencyCounter getDetectionLatency() {
+        return this.detectionLatency;
+    }
+
+    public LatencyCounter getHandlerLatency() {
+        return this.handlerLatency;
+    }
+}
@@ -3,25 +3,235 @@ package com.mercury.platform.shared;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.awt.*;
 import java.io.*;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Deep copy of configuration descriptors. Application classes are created through their no-arg
+ * constructor and copied field by field, the JDK types they hold (collections, maps, arrays, awt
+ * geometry) through their own constructors or clone; the copier of every class is resolved once.
+ * Immutable values are shared, the object graph (shared references, cycles) is preserved. Other
+ * types fall back to Java serialization.
+ */
 public class CloneHelper {
     private static Logger log = LogManager.getLogger("CloneHelper");
+    private static final String APPLICATION_PACKAGE = "com.mercury.platform.";
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class, Color.class, Font.class, Class.class));
+    private static final Copier IMMUTABLE = (source, copies) -> source;
+    private static final Map<Class<?>, Copier> copiers = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
     public static <T> T cloneObject(T source){
-        T cloned = null;
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ObjectOutputStream ous = new ObjectOutputStream(baos);
+            return (T) copy(source, new IdentityHashMap<>());
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            log.error("Error while cloning object: ", e);
+            return null;
+        }
+    }
 
-            ous.writeObject(source);
-            ous.close();
-            ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-            ObjectInputStream ois = new ObjectInputStream(bais);
+    private static Object copy(Object source, Map<Object, Object> copies) throws IOException, ReflectiveOperationException {
+        if (source == null) {
+            return null;
+        }
+        Copier copier = copiers.get(source.getClass());
+        if (copier == null) {
+            copier = copierOf(source.getClass());
+            copiers.put(source.getClass(), copier);
+        }
+        if (copier == IMMUTABLE) {
+            return source;
+        }
+        Object copy = copies.get(source);
+        return copy != null ? copy : copier.copy(source, copies);
+    }
 
-            cloned = (T)ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            log.error("Error while cloning object: ", e);
+    private static Copier copierOf(Class<?> type) {
+        if (IMMUTABLE_TYPES.contains(type) || type.isEnum() || Enum.class.isAssignableFrom(type)) {
+            return IMMUTABLE;
+        }
+        if (type.isArray()) {
+            return type.getComponentType().isPrimitive() ? new PrimitiveArrayCopier() : new ArrayCopier();
+        }
+        if (Cloneable.class.isAssignableFrom(type) && type.getName().startsWith("java.awt.")) {
+            try {
+                return new CloneMethodCopier(type.getMethod("clone"));
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        Constructor<?> constructor = defaultConstructor(type);
+        if (constructor != null && type.getName().startsWith(APPLICATION_PACKAGE)) {
+            return new FieldCopier(type, constructor);
+        }
+        if (constructor != null && type.getName().startsWith("java.util.")
+                && !SortedMap.class.isAssignableFrom(type) && !SortedSet.class.isAssignableFrom(type)) {
+            if (Collection.class.isAssignableFrom(type)) {
+                return new CollectionCopier(constructor);
+            }
+            if (Map.class.isAssignableFrom(type)) {
+                return new MapCopier(constructor);
+            }
+        }
+        return new SerializationCopier();
+    }
+
+    private static Constructor<?> defaultConstructor(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private interface Copier {
+        Object copy(Object source, Map<Object, Object> copies) throws IOException, ReflectiveOperationException;
+    }
+
+    private static class FieldCopier implements Copier {
+        private final Constructor<?> constructor;
+        private final Field[] fields;
+
+        private FieldCopier(Class<?> type, Constructor<?> constructor) {
+            this.constructor = constructor;
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            this.fields = fields.toArray(new Field[fields.size()]);
+        }
+
+        @Override
+        public Object copy(Object source, Map<Object, Object> copies) throws IOException, ReflectiveOperationException {
+            Object copy = this.constructor.newInstance();
+            copies.put(source, copy);
+            for (Field field : this.fields) {
+                Class<?> type = field.getType();
+                if (!type.isPrimitive()) {
+                    field.set(copy, CloneHelper.copy(field.get(source), copies));
+                } else if (type == int.class) {
+                    field.setInt(copy, field.getInt(source));
+                } else if (type == boolean.class) {
+                    field.setBoolean(copy, field.getBoolean(source));
+                } else if (type == float.class) {
+                    field.setFloat(copy, field.getFloat(source));
+                } else if (type == double.class) {
+                    field.setDouble(copy, field.getDouble(source));
+                } else if (type == long.class) {
+                    field.setLong(copy, field.getLong(source));
+                } else {
+                    field.set(copy, field.get(source));
+                }
+            }
+            return copy;
+        }
+    }
+
+    private static class CollectionCopier implements Copier {
+        private final Constructor<?> constructor;
+
+        private CollectionCopier(Constructor<?> constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object copy(Object source, Map<Object, Object> copies) throws IOException, ReflectiveOperationException {
+            Collection<Object> copy = (Collection<Object>) this.constructor.newInstance();
+            copies.put(source, copy);
+            for (Object element : (Collection<?>) source) {
+                copy.add(CloneHelper.copy(element, copies));
+            }
+            return copy;
+        }
+    }
+
+    private static class MapCopier implements Copier {
+        private final Constructor<?> constructor;
+
+        private MapCopier(Constructor<?> constructor) {
+            this.constructor = constructor;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object copy(Object source, Map<Object, Object> copies) throws IOException, ReflectiveOperationException {
+            Map<Object, Object> copy = (Map<Object, Object>) this.constructor.newInstance();
+            copies.put(source, copy);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) source).entrySet()) {
+                copy.put(CloneHelper.copy(entry.getKey(), copies), CloneHelper.copy(entry.getValue(), copies));
+            }
+            return copy;
+        }
+    }
+
+    private static class ArrayCopier implements Copier {
+        @Override
+        public Object copy(Object source, Map<Object, Object> copies) throws IOException, ReflectiveOperationException {
+            Object[] array = (Object[]) source;
+            Object[] copy = (Object[]) Array.newInstance(source.getClass().getComponentType(), array.length);
+            copies.put(source, copy);
+            for (int i = 0; i < array.length; i++) {
+                copy[i] = CloneHelper.copy(array[i], copies);
+            }
+            return copy;
+        }
+    }
+
+    private static class PrimitiveArrayCopier implements Copier {
+        @Override
+        public Object copy(Object source, Map<Object, Object> copies) {
+            int length = Array.getLength(source);
+            Object copy = Array.newInstance(source.getClass().getComponentType(), length);
+            System.arraycopy(source, 0, copy, 0, length);
+            copies.put(source, copy);
+            return copy;
+        }
+    }
+
+    private static class CloneMethodCopier implements Copier {
+        private final Method clone;
+
+        private CloneMethodCopier(Method clone) {
+            this.clone = clone;
+        }
+
+        @Override
+        public Object copy(Object source, Map<Object, Object> copies) throws ReflectiveOperationException {
+            Object copy = this.clone.invoke(source);
+            copies.put(source, copy);
+            return copy;
+        }
+    }
+
+    private static class SerializationCopier implements Copier {
+        @Override
+        public Object copy(Object source, Map<Object, Object> copies) throws IOException, ClassNotFoundException {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (ObjectOutputStream ous = new ObjectOutputStream(baos)) {
+                ous.writeObject(source);
+            }
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+                Object copy = ois.readObject();
+                copies.put(source, copy);
+                return copy;
+            }
         }
-        return cloned;
     }
 }
@@ -1,18 +1,27 @@
 package com.mercury.platform.shared;
 
 import com.mercury.platform.shared.entity.message.NotificationDescriptor;
+import com.mercury.platform.shared.history.HistoryField;
+import com.mercury.platform.shared.history.HistoryOutcome;
+import com.mercury.platform.shared.history.HistoryQuery;
+import com.mercury.platform.shared.history.HistoryRecord;
+import com.mercury.platform.shared.history.HistoryResult;
+import com.mercury.platform.shared.history.HistoryStore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Arrays;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
+/**
+ * Trade whisper history backed by a {@link HistoryStore}: adding a message only queues it for
+ * the store's writer thread, reading goes through paged {@link HistoryResult}s.
+ */
 public class HistoryManager {
     private Logger logger = LogManager.getLogger(HistoryManager.class);
 
@@ -21,88 +30,111 @@ public class HistoryManager {
     }
     public static HistoryManager INSTANCE = HistoryManager.HistoryManagerHolder.HOLDER_INSTANCE;
 
-    private final String HISTORY_FILE = System.getenv("USERPROFILE") + "\\AppData\\Local\\MercuryTrade\\history.json";
+    private static final String HISTORY_FOLDER = System.getenv("USERPROFILE") + "\\AppData\\Local\\MercuryTrade";
 
-    private String[] messages;
-    private int curIndex = 0;
+    private final HistoryStore store;
 
     public HistoryManager() {
-        messages = new String[0];
+        this(Paths.get(HISTORY_FOLDER));
     }
 
-    public void load(){
-        File configFile = new File(HISTORY_FILE);
-        if (configFile.exists()) {
-            JSONParser parser = new JSONParser();
-            try {
-                JSONObject root = (JSONObject)parser.parse(new FileReader(HISTORY_FILE));
-                JSONArray msgsArray = (JSONArray) root.get("messages");
-                messages = new String[msgsArray.size()];
-                for (int i = 0; i < msgsArray.size(); i++) {
-                    messages[i] = (String) msgsArray.get(i);
-                }
-            } catch (Exception e) {
-                logger.error("Error during loading history file: ", e);
-            }
-        }else {
-            createEmptyFile();
-        }
+    public HistoryManager(Path folder) {
+        this.store = new HistoryStore(folder);
     }
-    private void createEmptyFile(){
+
+    public void load(){
         try {
-            FileWriter fileWriter = new FileWriter(HISTORY_FILE);
-            JSONObject root = new JSONObject();
-            root.put("messages", new JSONArray());
-            fileWriter.write(root.toJSONString());
-            fileWriter.flush();
-            fileWriter.close();
+            this.store.open();
+            Runtime.getRuntime().addShutdownHook(new Thread(this.store::close, "HistoryStoreShutdown"));
         } catch (IOException e) {
-            logger.error("Error during creating history file: ", e);
+            logger.error("Error during loading history file: ", e);
         }
     }
     public void add(NotificationDescriptor notificationDescriptor){
-        JSONParser parser = new JSONParser();
-        try {
-            JSONObject root = (JSONObject)parser.parse(new FileReader(HISTORY_FILE));
-            JSONArray msgsArray = (JSONArray) root.get("messages");
-            msgsArray.add(0, notificationDescriptor.getSourceString());
-            root.replace("messages",msgsArray);
-            FileWriter fileWriter = new FileWriter(HISTORY_FILE);
-            fileWriter.write(root.toJSONString());
-            fileWriter.flush();
-            fileWriter.close();
-
-        } catch (Exception e) {
-            logger.error("Error during adding message to history file: ", e);
-        }
+        this.add(notificationDescriptor, System.currentTimeMillis());
+    }
+    /**
+     * Adds a message received at the given time, e.g. the time of its Client.txt line.
+     */
+    public void add(NotificationDescriptor notificationDescriptor, long timestamp){
+        this.store.append(HistoryRecord.of(notificationDescriptor, timestamp));
     }
     public void clear(){
-        curIndex = 0;
-        messages = new String[0];
-        JSONParser parser = new JSONParser();
+        this.store.clear();
+    }
+    /**
+     * Adds imported messages (oldest first) behind the existing ones, skipping those
+     * already in history. The source strings in history are collected once per call.
+     *
+     * @return count of added messages
+     */
+    public synchronized int addAll(List<HistoryRecord> records) throws InterruptedException {
+        Set<String> known = this.sourceStrings();
+        List<HistoryRecord> added = new ArrayList<>();
+        for (HistoryRecord record : records) {
+            if (known.add(record.getSourceString())) {
+                added.add(record);
+            }
+        }
+        this.store.appendAll(added);
+        return added.size();
+    }
+
+    /**
+     * Every message, newest first.
+     */
+    public HistoryResult findAll(){
         try {
-            JSONObject root = (JSONObject)parser.parse(new FileReader(HISTORY_FILE));
-            JSONArray msgsArray = (JSONArray) root.get("messages");
-            msgsArray.clear();
-            root.replace("messages",msgsArray);
-            FileWriter fileWriter = new FileWriter(HISTORY_FILE);
-            fileWriter.write(root.toJSONString());
-            fileWriter.flush();
-            fileWriter.close();
-        } catch (Exception e) {
-            logger.error("Error during creating history file: ", e);
+            return this.store.find(HistoryQuery.all());
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
         }
     }
-    public String[] fetchNext(int messagesCount){
-        String[] chunk = new String[0];
-        if((curIndex + messagesCount) < messages.length){
-            chunk = Arrays.copyOfRange(messages, curIndex, curIndex + messagesCount);
-            curIndex += messagesCount;
-        }else if((messages.length - curIndex) > 0){
-            int availableCount = messages.length - curIndex;
-            chunk = Arrays.copyOfRange(messages, curIndex, curIndex + availableCount);
-            curIndex += availableCount;
+
+    /**
+     * Messages whose nickname, item, currency or league starts with the text (ignoring case),
+     * newest first; every message when the text is blank.
+     */
+    public HistoryResult search(String text) throws InterruptedException {
+        if (text == null || text.trim().isEmpty()) {
+            return this.store.find(HistoryQuery.all());
         }
-        return chunk;
+        List<HistoryQuery> queries = new ArrayList<>();
+        for (HistoryField field : HistoryField.values()) {
+            queries.add(HistoryQuery.prefix(field, text));
+        }
+        return this.store.find(HistoryQuery.anyOf(queries.toArray(new HistoryQuery[queries.size()])));
+    }
+
+    public HistoryResult find(HistoryQuery query) throws InterruptedException {
+        return this.store.find(query);
+    }
+
+    /**
+     * Records what was done with the newest message of the player, or with the newest one
+     * with the source string when it is not null.
+     */
+    public void setOutcome(String nickname, String sourceString, HistoryOutcome outcome) throws InterruptedException {
+        this.store.setOutcome(nickname, sourceString, outcome);
+    }
+
+    private Set<String> sourceStrings() throws InterruptedException {
+        HistoryResult all = this.store.find(HistoryQuery.all());
+        Set<String> sourceStrings = new HashSet<>(all.size() * 2);
+        for (int i = 0; i < all.size(); i++) {
+            HistoryRecord record = all.get(i);
+            if (record == null) {
+                break;
+            }
+            sourceStrings.add(record.getSourceString());
+        }
+        return sourceStrings;
+    }
+
+    /**
+     * Blocks until the queued messages are on disk.
+     */
+    public void flush() throws InterruptedException {
+        this.store.flush();
     }
 }
@@ -1,105 +1,462 @@
 package com.mercury.platform.shared;
 
+import com.mercury.platform.core.utils.matcher.TradeTemplateMatcher;
 import com.mercury.platform.shared.entity.message.CurrencyTradeNotificationDescriptor;
 import com.mercury.platform.shared.entity.message.ItemTradeNotificationDescriptor;
 import com.mercury.platform.shared.entity.message.NotificationDescriptor;
 import com.mercury.platform.shared.entity.message.NotificationType;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+/**
+ * Recognises the poe.app, poe.trade (with and without stash position) and currency trade
+ * whispers without regular expressions. Each template is resolved by locating its fixed
+ * anchors ({@code "wtb"}, {@code " to buy your"}, {@code " in "}, {@code "(stash"}, ...) and
+ * cutting the fields between them, picking the same split the former backtracking patterns
+ * picked (greedy fields take the last anchor that still lets the rest match, lazy fields the
+ * first one). Templates are tried in the former order: poe.app, poe.trade stash, currency,
+ * poe.trade.
+ * <p>
+ * A whisper is a single log line, text containing a line break is never a trade message.
+ * <p>
+ * Whispers of the other game languages are recognised by {@link TradeTemplateMatcher} first, from
+ * the templates of {@value TradeTemplateMatcher#RESOURCE}. The english templates stay hand-written
+ * as they have to reproduce the splits of the former patterns, poe.app ones included.
+ */
 public class MessageParser {
-    private final static String poeTradeStashTabPattern = "^(.*\\s)?(.+):.+ to buy your\\s+?(.+?)(\\s+?listed for\\s+?([\\d\\.]+?)\\s+?(.+))?\\s+?in\\s+?(.+?)\\s+?\\(stash tab \"(.*)\"; position: left (\\d+), top (\\d+)\\)\\s*?(.*)$";
-    private final static String poeTradePattern = "^(.*\\s)?(.+):.+ to buy your\\s+?(.+?)(\\s+?listed for\\s+?([\\d\\.]+?)\\s+?(.+))?\\s+?in\\s+?(.*?)$";
-    private final static String poeAppPattern = "^(.*\\s)?(.+):\\s*?wtb\\s+?(.+?)(\\s+?listed for\\s+?([\\d\\.]+?)\\s+?(.+))?\\s+?in\\s+?(.+?)\\s+?\\(stash\\s+?\"(.*?)\";\\s+?left\\s+?(\\d+?),\\s+?top\\s+(\\d+?)\\)\\s*?(.*)$";
-    private final static String poeCurrencyPattern = "^(.*\\s)?(.+):.+ to buy your (\\d+(\\.\\d+)?)? (.+) for my (\\d+(\\.\\d+)?)? (.+) in (.*?)\\.\\s*(.*)$";
-    private Pattern poeAppItemPattern;
-    private Pattern poeTradeStashItemPattern;
-    private Pattern poeTradeItemPattern;
-    private Pattern poeTradeCurrencyPattern;
-
-    public MessageParser() {
-        this.poeAppItemPattern = Pattern.compile(poeAppPattern);
-        this.poeTradeStashItemPattern = Pattern.compile(poeTradeStashTabPattern);
-        this.poeTradeItemPattern = Pattern.compile(poeTradePattern);
-        this.poeTradeCurrencyPattern = Pattern.compile(poeCurrencyPattern);
-    }
+    private static final String WTB = "wtb";
+    private static final String TO_BUY_YOUR = " to buy your";
+    private static final String LISTED_FOR = "listed for";
+    private static final String IN = "in";
+    private static final String APP_STASH = "(stash";
+    private static final String APP_TAB_END = "\";";
+    private static final String TRADE_STASH = "(stash tab \"";
+    private static final String TRADE_POSITION = "\"; position: left ";
+    private static final String TRADE_TOP = ", top ";
+    private static final String FOR_MY = " for my ";
+    private static final String CURRENCY_IN = " in ";
 
     public NotificationDescriptor parse(String fullMessage){
-        Matcher poeAppItemMatcher = poeAppItemPattern.matcher(fullMessage);
-        if(poeAppItemMatcher.find()){
-            ItemTradeNotificationDescriptor tradeNotification = new ItemTradeNotificationDescriptor();
-            tradeNotification.setSourceString(fullMessage);
-            tradeNotification.setWhisperNickname(poeAppItemMatcher.group(2));
-            tradeNotification.setItemName(poeAppItemMatcher.group(3));
-            if(poeAppItemMatcher.group(5) != null) {
-                tradeNotification.setCurCount(Double.parseDouble(poeAppItemMatcher.group(5)));
-                tradeNotification.setCurrency(poeAppItemMatcher.group(6));
-            }else {
-                tradeNotification.setCurCount(0d);
-                tradeNotification.setCurrency("???");
-            }
-            tradeNotification.setLeague(poeAppItemMatcher.group(7));
-            if(poeAppItemMatcher.group(8) != null) {
-                tradeNotification.setTabName(poeAppItemMatcher.group(8));
-                tradeNotification.setLeft(Integer.parseInt(poeAppItemMatcher.group(9)));
-                tradeNotification.setTop(Integer.parseInt(poeAppItemMatcher.group(10)));
-            }
-            tradeNotification.setOffer(poeAppItemMatcher.group(11));
-            tradeNotification.setType(NotificationType.INC_ITEM_MESSAGE);
-            return tradeNotification;
+        if (hasLineBreak(fullMessage)) {
+            return null;
         }
-        Matcher poeTradeStashItemMatcher = poeTradeStashItemPattern.matcher(fullMessage);
-        if(poeTradeStashItemMatcher.find()){
-            ItemTradeNotificationDescriptor tradeNotification = new ItemTradeNotificationDescriptor();
-            tradeNotification.setSourceString(fullMessage);
-            tradeNotification.setWhisperNickname(poeTradeStashItemMatcher.group(2));
-            tradeNotification.setItemName(poeTradeStashItemMatcher.group(3));
-            if(poeTradeStashItemMatcher.group(4) != null){
-                tradeNotification.setCurCount(Double.parseDouble(poeTradeStashItemMatcher.group(5)));
-                tradeNotification.setCurrency(poeTradeStashItemMatcher.group(6));
-            }else {
-                tradeNotification.setCurCount(0d);
-                tradeNotification.setCurrency("???");
-            }
-            tradeNotification.setLeague(poeTradeStashItemMatcher.group(7));
-            tradeNotification.setTabName(poeTradeStashItemMatcher.group(8));
-            tradeNotification.setLeft(Integer.parseInt(poeTradeStashItemMatcher.group(9)));
-            tradeNotification.setTop(Integer.parseInt(poeTradeStashItemMatcher.group(10)));
-            tradeNotification.setOffer(poeTradeStashItemMatcher.group(11));
-            tradeNotification.setType(NotificationType.INC_ITEM_MESSAGE);
-            return tradeNotification;
+        NotificationDescriptor descriptor = TradeTemplateMatcher.INSTANCE.match(fullMessage);
+        if (descriptor != null) {
+            return descriptor;
         }
-        Matcher poeTradeCurrencyMatcher = poeTradeCurrencyPattern.matcher(fullMessage);
-        if(poeTradeCurrencyMatcher.find()){
-            CurrencyTradeNotificationDescriptor tradeNotification = new CurrencyTradeNotificationDescriptor();
-            tradeNotification.setSourceString(fullMessage);
-            tradeNotification.setWhisperNickname(poeTradeCurrencyMatcher.group(2));
-            tradeNotification.setCurrForSaleCount(Double.parseDouble(poeTradeCurrencyMatcher.group(3)));
-            tradeNotification.setCurrForSaleTitle(poeTradeCurrencyMatcher.group(5));
-            tradeNotification.setCurCount(Double.parseDouble(poeTradeCurrencyMatcher.group(6)));
-            tradeNotification.setCurrency(poeTradeCurrencyMatcher.group(8));
-            tradeNotification.setLeague(poeTradeCurrencyMatcher.group(9));
-            tradeNotification.setOffer(poeTradeCurrencyMatcher.group(10));
-            tradeNotification.setType(NotificationType.INC_CURRENCY_MESSAGE);
-            return tradeNotification;
+        descriptor = this.parsePoeApp(fullMessage);
+        if (descriptor == null) {
+            descriptor = this.parsePoeTrade(fullMessage, TailKind.TRADE_STASH);
+        }
+        if (descriptor == null) {
+            descriptor = this.parseCurrency(fullMessage);
         }
-        Matcher poeTradeItemMatcher = poeTradeItemPattern.matcher(fullMessage);
-        if(poeTradeItemMatcher.find()){
+        if (descriptor == null) {
+            descriptor = this.parsePoeTrade(fullMessage, TailKind.TRADE);
+        }
+        return descriptor;
+    }
+
+    // <nickname>: wtb <item> [listed for <price> <currency>] in <league> (stash "<tab>"; left <x>, top <y>) <offer>
+    private NotificationDescriptor parsePoeApp(String message) {
+        ItemScan scan = new ItemScan(message, TailKind.APP);
+        for (int wtb = message.lastIndexOf(WTB); wtb >= 0; wtb = message.lastIndexOf(WTB, wtb - 1)) {
+            int colon = skipSpacesBackward(message, wtb - 1);
+            if (colon < 0 || message.charAt(colon) != ':' || !scan.match(wtb + WTB.length())) {
+                continue;
+            }
+            int nicknameStart = nicknameStart(message, colon);
+            if (nicknameStart < 0) {
+                return null;
+            }
             ItemTradeNotificationDescriptor tradeNotification = new ItemTradeNotificationDescriptor();
-            tradeNotification.setSourceString(fullMessage);
-            tradeNotification.setWhisperNickname(poeTradeItemMatcher.group(2));
-            tradeNotification.setItemName(poeTradeItemMatcher.group(3));
-            if(poeTradeItemMatcher.group(4) != null){
-                tradeNotification.setCurCount(Double.parseDouble(poeTradeItemMatcher.group(5)));
-                tradeNotification.setCurrency(poeTradeItemMatcher.group(6));
-            }else {
-                tradeNotification.setCurCount(0d);
-                tradeNotification.setCurrency("???");
-            }
-            tradeNotification.setLeague(poeTradeItemMatcher.group(7));
+            tradeNotification.setSourceString(message);
+            tradeNotification.setWhisperNickname(message.substring(nicknameStart, colon));
+            this.fillItem(tradeNotification, scan);
+            tradeNotification.setTabName(message.substring(scan.tabStart, scan.tabEnd));
+            tradeNotification.setLeft(Integer.parseInt(message.substring(scan.leftStart, scan.leftEnd)));
+            tradeNotification.setTop(Integer.parseInt(message.substring(scan.topStart, scan.topEnd)));
+            tradeNotification.setOffer(message.substring(scan.offerStart));
             tradeNotification.setType(NotificationType.INC_ITEM_MESSAGE);
             return tradeNotification;
         }
         return null;
     }
+
+    // <nickname>: ... to buy your <item> [listed for <price> <currency>] in <league> [(stash tab "<tab>"; position: left <x>, top <y>) <offer>]
+    private NotificationDescriptor parsePoeTrade(String message, TailKind kind) {
+        ItemScan scan = new ItemScan(message, kind);
+        int buy = message.lastIndexOf(TO_BUY_YOUR);
+        while (buy >= 0 && !scan.match(buy + TO_BUY_YOUR.length())) {
+            buy = message.lastIndexOf(TO_BUY_YOUR, buy - 1);
+        }
+        int colon = buy >= 2 ? message.lastIndexOf(':', buy - 2) : -1;
+        int nicknameStart = colon >= 0 ? nicknameStart(message, colon) : -1;
+        if (nicknameStart < 0) {
+            return null;
+        }
+        ItemTradeNotificationDescriptor tradeNotification = new ItemTradeNotificationDescriptor();
+        tradeNotification.setSourceString(message);
+        tradeNotification.setWhisperNickname(message.substring(nicknameStart, colon));
+        this.fillItem(tradeNotification, scan);
+        if (kind == TailKind.TRADE_STASH) {
+            tradeNotification.setTabName(message.substring(scan.tabStart, scan.tabEnd));
+            tradeNotification.setLeft(Integer.parseInt(message.substring(scan.leftStart, scan.leftEnd)));
+            tradeNotification.setTop(Integer.parseInt(message.substring(scan.topStart, scan.topEnd)));
+            tradeNotification.setOffer(message.substring(scan.offerStart));
+        }
+        tradeNotification.setType(NotificationType.INC_ITEM_MESSAGE);
+        return tradeNotification;
+    }
+
+    private void fillItem(ItemTradeNotificationDescriptor tradeNotification, ItemScan scan) {
+        String message = scan.message;
+        tradeNotification.setItemName(message.substring(scan.itemStart, scan.itemEnd));
+        if (scan.priceStart >= 0) {
+            tradeNotification.setCurCount(Double.parseDouble(message.substring(scan.priceStart, scan.priceEnd)));
+            tradeNotification.setCurrency(message.substring(scan.currencyStart, scan.currencyEnd));
+        } else {
+            tradeNotification.setCurCount(0d);
+            tradeNotification.setCurrency("???");
+        }
+        tradeNotification.setLeague(message.substring(scan.leagueStart, scan.leagueEnd));
+    }
+
+    // <nickname>: ... to buy your [<count>] <title> for my [<count>] <currency> in <league>. <offer>
+    private NotificationDescriptor parseCurrency(String message) {
+        int length = message.length();
+        int lastDot = message.lastIndexOf('.');
+        for (int buy = message.lastIndexOf(TO_BUY_YOUR); buy >= 0; buy = message.lastIndexOf(TO_BUY_YOUR, buy - 1)) {
+            int countStart = buy + TO_BUY_YOUR.length() + 1;
+            if (countStart > length || message.charAt(countStart - 1) != ' ') {
+                continue;
+            }
+            int titleSpace = optionalNumber(message, countStart);
+            if (titleSpace < 0) {
+                continue;
+            }
+            for (int forMy = message.lastIndexOf(FOR_MY); forMy >= titleSpace + 2; forMy = message.lastIndexOf(FOR_MY, forMy - 1)) {
+                int priceStart = forMy + FOR_MY.length();
+                int currencySpace = optionalNumber(message, priceStart);
+                if (currencySpace < 0) {
+                    continue;
+                }
+                int in = lastDot >= CURRENCY_IN.length() ? message.lastIndexOf(CURRENCY_IN, lastDot - CURRENCY_IN.length()) : -1;
+                if (in < currencySpace + 2) {
+                    continue;
+                }
+                int colon = buy >= 2 ? message.lastIndexOf(':', buy - 2) : -1;
+                int nicknameStart = colon >= 0 ? nicknameStart(message, colon) : -1;
+                if (nicknameStart < 0) {
+                    return null;
+                }
+                int leagueStart = in + CURRENCY_IN.length();
+                int leagueEnd = message.indexOf('.', leagueStart);
+                CurrencyTradeNotificationDescriptor tradeNotification = new CurrencyTradeNotificationDescriptor();
+                tradeNotification.setSourceString(message);
+                tradeNotification.setWhisperNickname(message.substring(nicknameStart, colon));
+                tradeNotification.setCurrForSaleCount(Double.parseDouble(optionalGroup(message, countStart, titleSpace)));
+                tradeNotification.setCurrForSaleTitle(message.substring(titleSpace + 1, forMy));
+                tradeNotification.setCurCount(Double.parseDouble(optionalGroup(message, priceStart, currencySpace)));
+                tradeNotification.setCurrency(message.substring(currencySpace + 1, in));
+                tradeNotification.setLeague(message.substring(leagueStart, leagueEnd));
+                tradeNotification.setOffer(message.substring(skipSpaces(message, leagueEnd + 1)));
+                tradeNotification.setType(NotificationType.INC_CURRENCY_MESSAGE);
+                return tradeNotification;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Matches an optional {@code \d+(\.\d+)?} followed by a space.
+     *
+     * @return index of the space or -1
+     */
+    private static int optionalNumber(String message, int from) {
+        int length = message.length();
+        if (from < length && isDigit(message.charAt(from))) {
+            int end = skipDigits(message, from);
+            if (end + 1 < length && message.charAt(end) == '.' && isDigit(message.charAt(end + 1))) {
+                end = skipDigits(message, end + 1);
+            }
+            return end < length && message.charAt(end) == ' ' ? end : -1;
+        }
+        return from < length && message.charAt(from) == ' ' ? from : -1;
+    }
+
+    private static String optionalGroup(String message, int start, int end) {
+        return end > start ? message.substring(start, end) : null;
+    }
+
+    /**
+     * The nickname is what follows the last whitespace that leaves it at least one character.
+     *
+     * @return start of the nickname or -1 if it would be empty
+     */
+    private static int nicknameStart(String message, int colon) {
+        for (int i = colon - 2; i >= 0; i--) {
+            if (isSpace(message.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return colon >= 1 ? 0 : -1;
+    }
+
+    private static boolean hasLineBreak(String message) {
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int skipSpaces(String message, int from) {
+        while (from < message.length() && isSpace(message.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int skipSpacesBackward(String message, int from) {
+        while (from >= 0 && isSpace(message.charAt(from))) {
+            from--;
+        }
+        return from;
+    }
+
+    private static int skipDigits(String message, int from) {
+        while (from < message.length() && isDigit(message.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int skipPrice(String message, int from) {
+        while (from < message.length() && (isDigit(message.charAt(from)) || message.charAt(from) == '.')) {
+            from++;
+        }
+        return from;
+    }
+
+    private enum TailKind {
+        /** {@code (stash "<tab>"; left <x>, top <y>) <offer>} after the league */
+        APP,
+        /** {@code (stash tab "<tab>"; position: left <x>, top <y>) <offer>} after the league */
+        TRADE_STASH,
+        /** the league runs to the end of the message */
+        TRADE
+    }
+
+    /**
+     * Resolves {@code <item> [listed for <price> <currency>] in <league> <tail>} of the item
+     * templates. Field bounds of the last successful {@link #match(int)} are kept in the fields.
+     */
+    private static class ItemScan {
+        private final String message;
+        private final int length;
+        private final TailKind kind;
+        private int lastIn = -2;
+
+        private int itemStart;
+        private int itemEnd;
+        private int priceStart;
+        private int priceEnd;
+        private int currencyStart;
+        private int currencyEnd;
+        private int leagueStart;
+        private int leagueEnd;
+        private int tabStart;
+        private int tabEnd;
+        private int leftStart;
+        private int leftEnd;
+        private int topStart;
+        private int topEnd;
+        private int offerStart;
+
+        private ItemScan(String message, TailKind kind) {
+            this.message = message;
+            this.length = message.length();
+            this.kind = kind;
+        }
+
+        /**
+         * @param from index right after the keyword introducing the item ({@code wtb} or {@code to buy your})
+         */
+        private boolean match(int from) {
+            if (from >= this.length || !isSpace(this.message.charAt(from))) {
+                return false;
+            }
+            int itemStart = from + 1;
+            int lastIn = this.lastIn();
+            int end = itemStart + 1;
+            // the item is as short as possible: stop at the first whitespace the rest matches after
+            while (end < this.length) {
+                if (!isSpace(this.message.charAt(end))) {
+                    end++;
+                    continue;
+                }
+                int next = skipSpaces(this.message, end);
+                if (this.message.startsWith(LISTED_FOR, next)) {
+                    int priceStart = skipSpaces(this.message, next + LISTED_FOR.length());
+                    int priceEnd = skipPrice(this.message, priceStart);
+                    if (priceStart > next + LISTED_FOR.length() && priceEnd > priceStart
+                            && priceEnd < this.length && isSpace(this.message.charAt(priceEnd))
+                            && lastIn >= priceEnd + 3) {
+                        this.itemStart = itemStart;
+                        this.itemEnd = end;
+                        this.priceStart = priceStart;
+                        this.priceEnd = priceEnd;
+                        this.currencyStart = priceEnd + 1;
+                        // the currency is as long as possible: up to the last " in " that fits
+                        this.currencyEnd = lastIn - 1;
+                        this.leagueStart = lastIn + IN.length() + 1;
+                        this.leagueEnd = this.tail(this.leagueStart);
+                        return true;
+                    }
+                }
+                if (this.isLeagueIn(next)) {
+                    this.itemStart = itemStart;
+                    this.itemEnd = end;
+                    this.priceStart = -1;
+                    this.leagueStart = next + IN.length() + 1;
+                    this.leagueEnd = this.tail(this.leagueStart);
+                    return true;
+                }
+                end = next;
+            }
+            return false;
+        }
+
+        private int lastIn() {
+            if (this.lastIn == -2) {
+                int in = this.message.lastIndexOf(IN);
+                while (in >= 0 && !this.isLeagueIn(in)) {
+                    in = this.message.lastIndexOf(IN, in - 1);
+                }
+                this.lastIn = in;
+            }
+            return this.lastIn;
+        }
+
+        // whitespace "in" whitespace, followed by a league and a matching tail
+        private boolean isLeagueIn(int in) {
+            return in >= 1 && isSpace(this.message.charAt(in - 1))
+                    && this.message.startsWith(IN, in)
+                    && in + IN.length() < this.length && isSpace(this.message.charAt(in + IN.length()))
+                    && this.tail(in + IN.length() + 1) >= 0;
+        }
+
+        /**
+         * Finds the shortest league starting at leagueStart the tail matches after.
+         *
+         * @return end of the league or -1
+         */
+        private int tail(int leagueStart) {
+            if (this.kind == TailKind.TRADE) {
+                return this.length;
+            }
+            String stash = this.kind == TailKind.APP ? APP_STASH : TRADE_STASH;
+            for (int open = this.message.indexOf(stash, leagueStart + 2); open >= 0; open = this.message.indexOf(stash, open + 1)) {
+                if (!isSpace(this.message.charAt(open - 1)) || !this.matchStash(open)) {
+                    continue;
+                }
+                int leagueEnd = open - 1;
+                while (leagueEnd - 1 > leagueStart && isSpace(this.message.charAt(leagueEnd - 1))) {
+                    leagueEnd--;
+                }
+                return leagueEnd;
+            }
+            return -1;
+        }
+
+        private boolean matchStash(int open) {
+            if (this.kind == TailKind.APP) {
+                int afterStash = open + APP_STASH.length();
+                int quote = skipSpaces(this.message, afterStash);
+                if (quote == afterStash || quote >= this.length || this.message.charAt(quote) != '"') {
+                    return false;
+                }
+                // the tab name is as short as possible
+                for (int tabEnd = this.message.indexOf(APP_TAB_END, quote + 1); tabEnd >= 0; tabEnd = this.message.indexOf(APP_TAB_END, tabEnd + 1)) {
+                    if (this.matchAppPosition(tabEnd)) {
+                        this.tabStart = quote + 1;
+                        this.tabEnd = tabEnd;
+                        return true;
+                    }
+                }
+                return false;
+            }
+            int tabStart = open + TRADE_STASH.length();
+            // the tab name is as long as possible
+            for (int tabEnd = this.message.lastIndexOf(TRADE_POSITION); tabEnd >= tabStart; tabEnd = this.message.lastIndexOf(TRADE_POSITION, tabEnd - 1)) {
+                if (this.matchTradePosition(tabEnd)) {
+                    this.tabStart = tabStart;
+                    this.tabEnd = tabEnd;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // "; <ws>left<ws><digits>,<ws>top<ws><digits>)
+        private boolean matchAppPosition(int tabEnd) {
+            int from = tabEnd + APP_TAB_END.length();
+            int left = skipSpaces(this.message, from);
+            if (left == from || !this.message.startsWith("left", left)) {
+                return false;
+            }
+            from = left + "left".length();
+            int leftStart = skipSpaces(this.message, from);
+            int leftEnd = skipDigits(this.message, leftStart);
+            if (leftStart == from || leftEnd == leftStart || leftEnd >= this.length || this.message.charAt(leftEnd) != ',') {
+                return false;
+            }
+            from = leftEnd + 1;
+            int top = skipSpaces(this.message, from);
+            if (top == from || !this.message.startsWith("top", top)) {
+                return false;
+            }
+            from = top + "top".length();
+            int topStart = skipSpaces(this.message, from);
+            int topEnd = skipDigits(this.message, topStart);
+            if (topStart == from || topEnd == topStart || topEnd >= this.length || this.message.charAt(topEnd) != ')') {
+                return false;
+            }
+            this.setPosition(leftStart, leftEnd, topStart, topEnd);
+            return true;
+        }
+
+        // "; position: left <digits>, top <digits>)
+        private boolean matchTradePosition(int tabEnd) {
+            int leftStart = tabEnd + TRADE_POSITION.length();
+            int leftEnd = skipDigits(this.message, leftStart);
+            if (leftEnd == leftStart || !this.message.startsWith(TRADE_TOP, leftEnd)) {
+                return false;
+            }
+            int topStart = leftEnd + TRADE_TOP.length();
+            int topEnd = skipDigits(this.message, topStart);
+            if (topEnd == topStart || topEnd >= this.length || this.message.charAt(topEnd) != ')') {
+                return false;
+            }
+            this.setPosition(leftStart, leftEnd, topStart, topEnd);
+            return true;
+        }
+
+        private void setPosition(int leftStart, int leftEnd, int topStart, int topEnd) {
+            this.leftStart = leftStart;
+            this.leftEnd = leftEnd;
+            this.topStart = topStart;
+            this.topEnd = topEnd;
+            this.offerStart = topEnd + 1;
+        }
+    }
 }
@@ -0,0 +1,73 @@
+package com.mercury.platform.shared.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ConcurrentModificationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind for the configuration file: save requests made within {@code delayMillis} of the
+ * first one are coalesced into a single write, run on the persister thread instead of the
+ * caller's (usually the EDT). A write that races with a change to the descriptors is retried
+ * in the next window.
+ */
+public class ConfigPersister {
+    private final Logger logger = LogManager.getLogger(ConfigPersister.class.getSimpleName());
+    private final Runnable write;
+    private final long delayMillis;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public ConfigPersister(Runnable write, long delayMillis) {
+        this(write, delayMillis, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ConfigPersister");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public ConfigPersister(Runnable write, long delayMillis, ScheduledExecutorService executor) {
+        this.write = write;
+        this.delayMillis = delayMillis;
+        this.executor = executor;
+    }
+
+    public void requestSave() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            this.executor.schedule(this::save, this.delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Runs a pending write now and waits for it, e.g. before the application exits.
+     */
+    public void flush() {
+        try {
+            this.executor.submit(this::save).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.error("Error while saving configuration: ", e.getCause());
+        }
+    }
+
+    private void save() {
+        // cleared first: a request made while writing schedules another write
+        if (!this.scheduled.getAndSet(false)) {
+            return;
+        }
+        try {
+            this.write.run();
+        } catch (ConcurrentModificationException e) {
+            logger.debug("Configuration changed while saving, retrying");
+            this.requestSave();
+        } catch (RuntimeException e) {
+            logger.error("Error while saving configuration: ", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.mercury.platform.shared.config;
+
+import com.google.gson.reflect.TypeToken;
+import com.mercury.platform.shared.config.descriptor.*;
+import com.mercury.platform.shared.config.descriptor.adr.AdrProfileDescriptor;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Part of a {@link ProfileDescriptor} persisted in its own file, one per configuration service.
+ */
+@SuppressWarnings("unchecked")
+public enum ConfigSection {
+    FRAMES("frames", new TypeToken<Map<String, FrameDescriptor>>() {}.getType()),
+    SOUND("sound", new TypeToken<Map<String, SoundDescriptor>>() {}.getType()),
+    APPLICATION("application", ApplicationDescriptor.class),
+    NOTIFICATION("notification", NotificationSettingsDescriptor.class),
+    SCANNER("scanner", ScannerDescriptor.class),
+    SCALE("scale", new TypeToken<Map<String, Float>>() {}.getType()),
+    HOTKEYS("hotkeys", HotKeysSettingsDescriptor.class),
+    STASH_TABS("stash-tabs", new TypeToken<List<StashTabDescriptor>>() {}.getType()),
+    ADR("adr", new TypeToken<List<AdrProfileDescriptor>>() {}.getType()),
+    ICON_BUNDLE("icon-bundle", new TypeToken<List<String>>() {}.getType());
+
+    private final String fileName;
+    private final Type type;
+
+    ConfigSection(String fileName, Type type) {
+        this.fileName = fileName + ".json";
+        this.type = type;
+    }
+
+    public String getFileName() {
+        return this.fileName;
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    public Object get(ProfileDescriptor profile) {
+        switch (this) {
+            case FRAMES:
+                return profile.getFrameDescriptorMap();
+            case SOUND:
+                return profile.getSoundDescriptorMap();
+            case APPLICATION:
+                return profile.getApplicationDescriptor();
+            case NOTIFICATION:
+                return profile.getNotificationDescriptor();
+            case SCANNER:
+                return profile.getScannerDescriptor();
+            case SCALE:
+                return profile.getScaleDataMap();
+            case HOTKEYS:
+                return profile.getHotKeysSettingsDescriptor();
+            case STASH_TABS:
+                return profile.getStashTabDescriptors();
+            case ADR:
+                return profile.getAdrProfileDescriptorList();
+            default:
+                return profile.getIconBundleList();
+        }
+    }
+
+    public void set(ProfileDescriptor profile, Object value) {
+        switch (this) {
+            case FRAMES:
+                profile.setFrameDescriptorMap((Map<String, FrameDescriptor>) value);
+                break;
+            case SOUND:
+                profile.setSoundDescriptorMap((Map<String, SoundDescriptor>) value);
+                break;
+            case APPLICATION:
+                profile.setApplicationDescriptor((ApplicationDescriptor) value);
+                break;
+            case NOTIFICATION:
+                profile.setNotificationDescriptor((NotificationSettingsDescriptor) value);
+                break;
+            case SCANNER:
+                profile.setScannerDescriptor((ScannerDescriptor) value);
+                break;
+            case SCALE:
+                profile.setScaleDataMap((Map<String, Float>) value);
+                break;
+            case HOTKEYS:
+                profile.setHotKeysSettingsDescriptor((HotKeysSettingsDescriptor) value);
+                break;
+            case STASH_TABS:
+                profile.setStashTabDescriptors((List<StashTabDescriptor>) value);
+                break;
+            case ADR:
+                profile.setAdrProfileDescriptorList((List<AdrProfileDescriptor>) value);
+                break;
+            default:
+                profile.setIconBundleList((List<String>) value);
+        }
+    }
+}
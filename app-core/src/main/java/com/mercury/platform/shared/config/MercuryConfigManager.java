@@ -1,13 +1,11 @@
 package com.mercury.platform.shared.config;
 
-import com.google.gson.reflect.TypeToken;
 import com.mercury.platform.shared.AsSubscriber;
 import com.mercury.platform.shared.config.configration.*;
 import com.mercury.platform.shared.config.configration.impl.*;
 import com.mercury.platform.shared.config.configration.impl.adr.AdrConfigurationServiceMock;
 import com.mercury.platform.shared.config.descriptor.*;
 import com.mercury.platform.shared.config.descriptor.StashTabDescriptor;
-import com.mercury.platform.shared.config.json.JSONHelper;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
@@ -18,13 +16,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 public class MercuryConfigManager implements ConfigManager, AsSubscriber {
+    private static final long SAVE_DELAY = 500;
     private Logger logger = LogManager.getLogger(MercuryConfigManager.class.getSimpleName());
 
     private ConfigurationSource dataSource;
-    private JSONHelper jsonHelper;
+    private SectionedConfigStore store;
+    private ConfigPersister persister;
+    private final AtomicBoolean indexDirty = new AtomicBoolean();
+    private final AtomicBoolean checkAll = new AtomicBoolean();
     private List<ProfileDescriptor> profileDescriptors;
     private ProfileDescriptor selectedProfile;
     private FramesConfigurationService framesConfigurationService;
@@ -42,7 +45,9 @@ public class MercuryConfigManager implements ConfigManager, AsSubscriber {
 
     public MercuryConfigManager(ConfigurationSource dataSource){
         this.dataSource = dataSource;
-        this.jsonHelper = new JSONHelper(dataSource.getConfigurationFilePath());
+        this.store = new SectionedConfigStore(dataSource.getConfigurationPath(), dataSource.getConfigurationFilePath());
+        this.persister = new ConfigPersister(this::writeDirty, SAVE_DELAY);
+        Runtime.getRuntime().addShutdownHook(new Thread(this.persister::flush, "ConfigPersisterShutdown"));
         this.subscribe();
     }
     @Override
@@ -116,13 +121,12 @@ public class MercuryConfigManager implements ConfigManager, AsSubscriber {
                 File dest = new File(dataSource.getConfigurationPath() + "\\local-updater.jar");
                 FileUtils.copyInputStreamToFile(resourceAsStream,dest);
             }
-            this.profileDescriptors = this.jsonHelper.readArrayData(new TypeToken<List<ProfileDescriptor>>(){});
+            this.profileDescriptors = this.store.load();
             if(this.profileDescriptors == null){
                 this.profileDescriptors = new ArrayList<>();
                 ProfileDescriptor defaultProfile = this.getDefaultProfile();
                 this.selectedProfile = defaultProfile;
                 this.profileDescriptors.add(defaultProfile);
-                this.jsonHelper.writeListObject(this.profileDescriptors,new TypeToken<List<ProfileDescriptor>>(){});
             }else {
                 this.selectedProfile = this.profileDescriptors.stream()
                         .filter(ProfileDescriptor::isSelected)
@@ -131,7 +135,6 @@ public class MercuryConfigManager implements ConfigManager, AsSubscriber {
                     ProfileDescriptor defaultProfile = this.getDefaultProfile();
                     this.selectedProfile = defaultProfile;
                     this.profileDescriptors.add(defaultProfile);
-                    this.jsonHelper.writeListObject(this.profileDescriptors,new TypeToken<List<ProfileDescriptor>>(){});
                 }
             }
 
@@ -159,8 +162,9 @@ public class MercuryConfigManager implements ConfigManager, AsSubscriber {
 
             this.services.forEach(BaseConfigurationService::validate);
 
-
-            this.jsonHelper.writeListObject(this.profileDescriptors,new TypeToken<List<ProfileDescriptor>>(){});
+            this.indexDirty.set(true);
+            this.checkAll.set(true);
+            this.writeDirty();
         }catch (IOException e) {
             logger.error("Error while processing file:{}",dataSource.getConfigurationPath(),e);
         }
@@ -169,12 +173,22 @@ public class MercuryConfigManager implements ConfigManager, AsSubscriber {
     @Override
     public void subscribe() {
         MercuryStoreCore.saveConfigSubject.subscribe(state -> {
-            this.jsonHelper.writeListObject(this.profileDescriptors,new TypeToken<List<ProfileDescriptor>>(){});
+            this.checkAll.set(true);
+            this.persister.requestSave();
+        });
+        MercuryStoreCore.saveConfigSectionSubject.subscribe(section -> {
+            this.services.stream()
+                    .filter(service -> service.getSection() == section)
+                    .forEach(BaseConfigurationService::markDirty);
+            this.persister.requestSave();
         });
         MercuryStoreCore.toDefaultSubject.subscribe(state -> {
             this.services.forEach(BaseConfigurationService::toDefault);
+            this.checkAll.set(true);
+            this.persister.requestSave();
         });
         MercuryStoreCore.changeProfileSubject.subscribe(profile -> {
+            this.store.materialize(this.indexOf(profile), profile);
             this.selectedProfile.setSelected(false);
             this.selectedProfile = profile;
             profile.setSelected(true);
@@ -182,9 +196,64 @@ public class MercuryConfigManager implements ConfigManager, AsSubscriber {
                 service.setSelectedProfile(profile);
                 service.validate();
             });
-            this.jsonHelper.writeListObject(this.profileDescriptors,new TypeToken<List<ProfileDescriptor>>(){});
+            this.indexDirty.set(true);
+            this.checkAll.set(true);
+            this.persister.requestSave();
         });
     }
+
+    /**
+     * Writes the index if profiles were switched and the sections saved since the last call. A generic
+     * save request serializes every section of every profile, but only the changed ones are written.
+     * On failure the pending work is kept for the retry.
+     */
+    private void writeDirty(){
+        boolean index = this.indexDirty.getAndSet(false);
+        boolean all = this.checkAll.getAndSet(false);
+        List<BaseConfigurationService> dirty = new ArrayList<>();
+        for (BaseConfigurationService service : this.services) {
+            if(service.takeDirty()){
+                dirty.add(service);
+            }
+        }
+        try {
+            if(index){
+                this.store.writeIndex(this.profileDescriptors);
+            }
+            for (int i = 0; i < this.profileDescriptors.size(); i++) {
+                ProfileDescriptor profile = this.profileDescriptors.get(i);
+                if(all){
+                    for (ConfigSection section : ConfigSection.values()) {
+                        this.store.writeSection(i, profile, section);
+                    }
+                }else if(profile == this.selectedProfile){
+                    for (BaseConfigurationService service : dirty) {
+                        this.store.writeSection(i, profile, service.getSection());
+                    }
+                }
+            }
+        }catch (IOException | RuntimeException e){
+            if(index){
+                this.indexDirty.set(true);
+            }
+            if(all){
+                this.checkAll.set(true);
+            }
+            dirty.forEach(BaseConfigurationService::markDirty);
+            if(e instanceof RuntimeException){
+                throw (RuntimeException) e;
+            }
+            logger.error("Error while saving configuration to {}",dataSource.getConfigurationPath(),e);
+        }
+    }
+    private int indexOf(ProfileDescriptor profile){
+        for (int i = 0; i < this.profileDescriptors.size(); i++) {
+            if(this.profileDescriptors.get(i) == profile){
+                return i;
+            }
+        }
+        return -1;
+    }
     private ProfileDescriptor getDefaultProfile(){
         ProfileDescriptor defaultProfile = new ProfileDescriptor();
         defaultProfile.setSelected(true);
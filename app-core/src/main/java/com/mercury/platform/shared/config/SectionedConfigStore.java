@@ -0,0 +1,109 @@
+package com.mercury.platform.shared.config;
+
+import com.google.gson.reflect.TypeToken;
+import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
+import com.mercury.platform.shared.config.json.JSONHelper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Profiles persisted as an index file (names and selection only) plus one file per
+ * {@link ConfigSection} under {@code profiles/<profile index>/}. The last json read or written for
+ * every section file is kept, so a section that did not change is neither written nor synced again.
+ * Only the selected profile is read at load, the others are read by {@link #materialize} when they
+ * get selected. Profiles with sections inline in the index file (older versions) are migrated on load.
+ */
+public class SectionedConfigStore {
+    private static final String PROFILES_FOLDER = "profiles";
+    private final Logger logger = LogManager.getLogger(SectionedConfigStore.class.getSimpleName());
+    private final String configurationPath;
+    private final JSONHelper indexHelper;
+    private final Map<String, String> persisted = new ConcurrentHashMap<>();
+    private final Set<ProfileDescriptor> materialized = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public SectionedConfigStore(String configurationPath, String indexFilePath) {
+        this.configurationPath = configurationPath;
+        this.indexHelper = new JSONHelper(indexFilePath);
+    }
+
+    /**
+     * @return profiles, the selected one with its sections, null if the index file is missing or not valid
+     */
+    public synchronized List<ProfileDescriptor> load() {
+        List<ProfileDescriptor> profiles = this.indexHelper.readArrayData(new TypeToken<List<ProfileDescriptor>>() {});
+        if (profiles == null) {
+            return null;
+        }
+        this.materialized.clear();
+        for (int i = 0; i < profiles.size(); i++) {
+            if (profiles.get(i).isSelected()) {
+                this.materialize(i, profiles.get(i));
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * Reads the section files of a profile, once. Sections without a file keep their inline value.
+     */
+    public synchronized void materialize(int profileIndex, ProfileDescriptor profile) {
+        if (!this.materialized.add(profile)) {
+            return;
+        }
+        for (ConfigSection section : ConfigSection.values()) {
+            String path = this.getSectionFile(profileIndex, section).getPath();
+            Object value = new JSONHelper(path).readData(section.getType());
+            if (value != null) {
+                section.set(profile, value);
+                this.persisted.put(path, this.toJson(value, section));
+            }
+        }
+    }
+
+    public void writeIndex(List<ProfileDescriptor> profiles) throws IOException {
+        List<ProfileDescriptor> index = new ArrayList<>();
+        for (ProfileDescriptor profile : profiles) {
+            ProfileDescriptor entry = new ProfileDescriptor();
+            entry.setName(profile.getName());
+            entry.setSelected(profile.isSelected());
+            index.add(entry);
+        }
+        this.indexHelper.writeString(this.indexHelper.toJson(index, new TypeToken<List<ProfileDescriptor>>() {}.getType()));
+    }
+
+    /**
+     * @return whether the section file was written, false if it already had the same content
+     */
+    public boolean writeSection(int profileIndex, ProfileDescriptor profile, ConfigSection section) throws IOException {
+        Object value = section.get(profile);
+        if (value == null) {
+            return false;
+        }
+        File file = this.getSectionFile(profileIndex, section);
+        String json = this.toJson(value, section);
+        if (json.equals(this.persisted.get(file.getPath()))) {
+            return false;
+        }
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Unable to create " + folder);
+        }
+        new JSONHelper(file.getPath()).writeString(json);
+        this.persisted.put(file.getPath(), json);
+        logger.debug("Written {}", file);
+        return true;
+    }
+
+    public File getSectionFile(int profileIndex, ConfigSection section) {
+        return new File(new File(new File(this.configurationPath, PROFILES_FOLDER), String.valueOf(profileIndex)), section.getFileName());
+    }
+
+    private String toJson(Object value, ConfigSection section) {
+        return this.indexHelper.toJson(value, section.getType());
+    }
+}
@@ -1,15 +1,39 @@
 package com.mercury.platform.shared.config.configration;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
+import com.mercury.platform.shared.store.MercuryStoreCore;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 
 public abstract class BaseConfigurationService<T> implements HasDefault<T>{
     @Getter @Setter
     protected ProfileDescriptor selectedProfile;
-    public BaseConfigurationService(ProfileDescriptor selectedProfile){
+    @Getter
+    private final ConfigSection section;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    public BaseConfigurationService(ProfileDescriptor selectedProfile, ConfigSection section){
         this.selectedProfile = selectedProfile;
+        this.section = section;
     }
     public abstract void validate();
+
+    /**
+     * Persists the section of this service alone.
+     */
+    protected void save(){
+        MercuryStoreCore.saveConfigSectionSubject.onNext(this.section);
+    }
+    public void markDirty(){
+        this.dirty.set(true);
+    }
+    /**
+     * @return whether the section was changed since the last call
+     */
+    public boolean takeDirty(){
+        return this.dirty.getAndSet(false);
+    }
 }
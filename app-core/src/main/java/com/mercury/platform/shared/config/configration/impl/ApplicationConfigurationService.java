@@ -1,6 +1,7 @@
 package com.mercury.platform.shared.config.configration.impl;
 
 import com.mercury.platform.core.misc.WhisperNotifierStatus;
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.configration.BaseConfigurationService;
 import com.mercury.platform.shared.config.configration.PlainConfigurationService;
 import com.mercury.platform.shared.config.descriptor.ApplicationDescriptor;
@@ -12,7 +13,7 @@ import java.util.Map;
 
 public class ApplicationConfigurationService extends BaseConfigurationService<ApplicationDescriptor> implements PlainConfigurationService<ApplicationDescriptor> {
     public ApplicationConfigurationService(ProfileDescriptor selectedProfile) {
-        super(selectedProfile);
+        super(selectedProfile, ConfigSection.APPLICATION);
     }
 
     @Override
@@ -1,10 +1,10 @@
 package com.mercury.platform.shared.config.configration.impl;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.configration.BaseConfigurationService;
 import com.mercury.platform.shared.config.configration.FramesConfigurationService;
 import com.mercury.platform.shared.config.descriptor.FrameDescriptor;
 import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
-import com.mercury.platform.shared.store.MercuryStoreCore;
 
 import java.awt.*;
 import java.util.HashMap;
@@ -15,7 +15,7 @@ public class FramesConfigurationServiceImpl extends BaseConfigurationService<Map
     private Map<String, Dimension> minimumFrameSize = new HashMap<>();
     private Map<String, FrameDescriptor> defaultFramesSettings = new HashMap<>();
     public FramesConfigurationServiceImpl(ProfileDescriptor selectedProfile) {
-        super(selectedProfile);
+        super(selectedProfile, ConfigSection.FRAMES);
         this.initMinimumMap();
         this.initDefaultMap();
     }
@@ -30,7 +30,7 @@ public class FramesConfigurationServiceImpl extends BaseConfigurationService<Map
     public FrameDescriptor get(String key) {
         return this.selectedProfile.getFrameDescriptorMap().computeIfAbsent(key, k -> {
             this.selectedProfile.getFrameDescriptorMap().put(key,this.getDefault().get(key));
-            MercuryStoreCore.saveConfigSubject.onNext(true);
+            this.save();
             return this.getDefault().get(key);
         });
     }
@@ -1,6 +1,7 @@
 package com.mercury.platform.shared.config.configration.impl;
 
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.configration.BaseConfigurationService;
 import com.mercury.platform.shared.config.configration.KeyValueConfigurationService;
 import com.mercury.platform.shared.config.configration.PlainConfigurationService;
@@ -12,7 +13,7 @@ import java.util.*;
 
 public class HotKeyConfigurationService extends BaseConfigurationService<HotKeysSettingsDescriptor> implements PlainConfigurationService<HotKeysSettingsDescriptor> {
     public HotKeyConfigurationService(ProfileDescriptor selectedProfile) {
-        super(selectedProfile);
+        super(selectedProfile, ConfigSection.HOTKEYS);
     }
 
     @Override
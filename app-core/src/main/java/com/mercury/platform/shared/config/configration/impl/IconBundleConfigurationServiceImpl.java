@@ -1,5 +1,6 @@
 package com.mercury.platform.shared.config.configration.impl;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.configration.BaseConfigurationService;
 import com.mercury.platform.shared.config.configration.IconBundleConfigurationService;
 import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
@@ -20,7 +21,7 @@ public class IconBundleConfigurationServiceImpl extends BaseConfigurationService
     private Map<String, URL> iconBundle = new HashMap<>();
     private static final String ICONS_PATH = System.getenv("USERPROFILE") + "\\AppData\\Local\\MercuryTrade\\icons\\";
     public IconBundleConfigurationServiceImpl(ProfileDescriptor selectedProfile) {
-        super(selectedProfile);
+        super(selectedProfile, ConfigSection.ICON_BUNDLE);
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.mercury.platform.shared.config.configration.impl;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.configration.BaseConfigurationService;
 import com.mercury.platform.shared.config.configration.PlainConfigurationService;
 import com.mercury.platform.shared.config.descriptor.HotKeyDescriptor;
@@ -14,7 +15,7 @@ import java.util.List;
 
 public class NotificationConfigurationService extends BaseConfigurationService<NotificationSettingsDescriptor> implements PlainConfigurationService<NotificationSettingsDescriptor> {
     public NotificationConfigurationService(ProfileDescriptor selectedProfile) {
-        super(selectedProfile);
+        super(selectedProfile, ConfigSection.NOTIFICATION);
     }
 
     @Override
@@ -1,9 +1,9 @@
 package com.mercury.platform.shared.config.configration.impl;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.configration.BaseConfigurationService;
 import com.mercury.platform.shared.config.configration.KeyValueConfigurationService;
 import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
-import com.mercury.platform.shared.store.MercuryStoreCore;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -11,7 +11,7 @@ import java.util.Map;
 
 public class ScaleConfigurationService extends BaseConfigurationService<Map<String,Float>> implements KeyValueConfigurationService<String,Float> {
     public ScaleConfigurationService(ProfileDescriptor selectedProfile) {
-        super(selectedProfile);
+        super(selectedProfile, ConfigSection.SCALE);
     }
 
     @Override
@@ -25,7 +25,7 @@ public class ScaleConfigurationService extends BaseConfigurationService<Map<Stri
     public Float get(String key) {
         return this.selectedProfile.getScaleDataMap().computeIfAbsent(key, k -> {
             this.selectedProfile.getScaleDataMap().put(key,this.getDefault().get(key));
-            MercuryStoreCore.saveConfigSubject.onNext(true);
+            this.save();
             return this.getDefault().get(key);
         });
     }
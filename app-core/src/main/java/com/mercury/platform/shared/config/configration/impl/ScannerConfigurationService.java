@@ -1,13 +1,16 @@
 package com.mercury.platform.shared.config.configration.impl;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.configration.BaseConfigurationService;
 import com.mercury.platform.shared.config.configration.PlainConfigurationService;
 import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
 import com.mercury.platform.shared.config.descriptor.ScannerDescriptor;
 
+import java.util.ArrayList;
+
 public class ScannerConfigurationService extends BaseConfigurationService<ScannerDescriptor> implements PlainConfigurationService<ScannerDescriptor> {
     public ScannerConfigurationService(ProfileDescriptor selectedProfile) {
-        super(selectedProfile);
+        super(selectedProfile, ConfigSection.SCANNER);
     }
 
     @Override
@@ -28,6 +31,9 @@ public class ScannerConfigurationService extends BaseConfigurationService<Scanne
         if(this.selectedProfile.getScannerDescriptor() == null){
             this.selectedProfile.setScannerDescriptor(this.getDefault());
         }
+        if(this.selectedProfile.getScannerDescriptor().getRules() == null){
+            this.selectedProfile.getScannerDescriptor().setRules(new ArrayList<>());
+        }
     }
 
     @Override
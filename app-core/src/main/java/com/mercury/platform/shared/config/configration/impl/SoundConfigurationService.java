@@ -1,17 +1,17 @@
 package com.mercury.platform.shared.config.configration.impl;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.configration.BaseConfigurationService;
 import com.mercury.platform.shared.config.configration.KeyValueConfigurationService;
 import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
 import com.mercury.platform.shared.config.descriptor.SoundDescriptor;
-import com.mercury.platform.shared.store.MercuryStoreCore;
 
 import java.util.*;
 
 
 public class SoundConfigurationService extends BaseConfigurationService<Map<String,SoundDescriptor>> implements KeyValueConfigurationService<String,SoundDescriptor> {
     public SoundConfigurationService(ProfileDescriptor selectedProfile) {
-        super(selectedProfile);
+        super(selectedProfile, ConfigSection.SOUND);
     }
 
     @Override
@@ -25,7 +25,7 @@ public class SoundConfigurationService extends BaseConfigurationService<Map<Stri
     public SoundDescriptor get(String key) {
         return this.selectedProfile.getSoundDescriptorMap().computeIfAbsent(key, k -> {
             this.selectedProfile.getSoundDescriptorMap().put(key,this.getDefault().get(key));
-            MercuryStoreCore.saveConfigSubject.onNext(true);
+            this.save();
             return this.getDefault().get(key);
         });
     }
@@ -1,5 +1,6 @@
 package com.mercury.platform.shared.config.configration.impl;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.configration.BaseConfigurationService;
 import com.mercury.platform.shared.config.configration.ListConfigurationService;
 import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
@@ -10,7 +11,7 @@ import java.util.List;
 
 public class StashTabConfigurationService extends BaseConfigurationService<List<StashTabDescriptor>> implements ListConfigurationService<StashTabDescriptor> {
     public StashTabConfigurationService(ProfileDescriptor selectedProfile) {
-        super(selectedProfile);
+        super(selectedProfile, ConfigSection.STASH_TABS);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.mercury.platform.shared.config.configration.impl.adr;
 
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.configration.AdrConfigurationService;
 import com.mercury.platform.shared.config.configration.BaseConfigurationService;
 import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
@@ -16,7 +17,7 @@ import java.util.stream.Collectors;
 public class AdrConfigurationServiceMock extends BaseConfigurationService<List<AdrProfileDescriptor>> implements AdrConfigurationService {
     private List<AdrProfileDescriptor> currentProfiles;
     public AdrConfigurationServiceMock(ProfileDescriptor selectedProfile) {
-        super(selectedProfile);
+        super(selectedProfile, ConfigSection.ADR);
     }
 
     @Override
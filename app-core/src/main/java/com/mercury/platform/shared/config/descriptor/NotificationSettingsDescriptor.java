@@ -14,6 +14,8 @@ public class NotificationSettingsDescriptor implements Serializable{
     private boolean scannerNotificationEnable = true;
     private int limitCount = 3;
     private int unfoldCount = 2;
+    private int catchUpLimit = 5;
+    private int catchUpMaxAge = 10;
     private FlowDirections flowDirections = FlowDirections.DOWNWARDS;
     private boolean dismissAfterKick = true;
     private boolean dismissAfterLeave = true;
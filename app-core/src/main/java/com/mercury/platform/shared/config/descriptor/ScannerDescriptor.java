@@ -3,9 +3,13 @@ package com.mercury.platform.shared.config.descriptor;
 import lombok.Data;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 public class ScannerDescriptor implements Serializable{
     private String words;
     private String responseMessage;
+    private List<ScannerRuleDescriptor> rules = new ArrayList<>();
+    private int digestWindow = 5;
 }
@@ -0,0 +1,16 @@
+package com.mercury.platform.shared.config.descriptor;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScannerRuleDescriptor implements Serializable {
+    private String name;
+    private String query;
+    private boolean enabled = true;
+}
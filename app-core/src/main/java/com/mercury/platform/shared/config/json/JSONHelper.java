@@ -5,23 +5,41 @@ import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import com.mercury.platform.shared.config.descriptor.adr.AdrComponentDescriptor;
-import com.mercury.platform.shared.config.descriptor.adr.AdrTrackerGroupDescriptor;
 import com.mercury.platform.shared.config.json.deserializer.AdrComponentJsonAdapter;
-import com.mercury.platform.shared.config.json.deserializer.AdrTrackerGroupDeserializer;
 import com.mercury.platform.shared.entity.message.MercuryError;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.awt.*;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Json persistence of the configuration. The {@link Gson} instances are built once and shared, they are
+ * thread-safe; values are read and written in one streaming pass.
+ */
 public class JSONHelper {
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new AdrComponentJsonAdapter())
+            .create();
+    private static final Gson MAP_GSON = new GsonBuilder()
+            .enableComplexMapKeySerialization()
+            .setPrettyPrinting()
+            .create();
     private Logger logger = LogManager.getLogger(JSONHelper.class.getSimpleName());
     private String dataSource;
 
@@ -33,80 +51,111 @@ public class JSONHelper {
     }
     public <T> List<T> readArrayData(TypeToken<List<T>> typeToken){
         try {
-
-            Gson gson = new GsonBuilder()
-                    .registerTypeHierarchyAdapter(AdrTrackerGroupDescriptor.class,new AdrTrackerGroupDeserializer())
-                    .registerTypeHierarchyAdapter(AdrComponentDescriptor.class,new AdrComponentJsonAdapter())
-                    .create();
-
-            JsonParser jsonParser = new JsonParser();
             try(JsonReader reader = new JsonReader(new FileReader(dataSource))) {
-                return gson.fromJson(
-                        jsonParser.parse(reader),
-                        typeToken.getType());
+                return GSON.fromJson(reader, typeToken.getType());
             }
-        }catch (IOException | IllegalStateException | JsonSyntaxException e){
+        }catch (IOException | IllegalStateException | JsonParseException e){
             logger.error(e);
             return null;
         }
     }
-    public <T> T readMapData(String key,TypeToken<T> typeToken){
+    /**
+     * @return the content of the data source, null when it does not exist or is not valid
+     */
+    public <T> T readData(Type type){
+        if(!new File(dataSource).exists()){
+            return null;
+        }
         try {
-            Gson gson = new Gson();
-            JsonParser jsonParser = new JsonParser();
             try(JsonReader reader = new JsonReader(new FileReader(dataSource))) {
-                return gson.fromJson(
-                        jsonParser.parse(reader)
-                                .getAsJsonObject()
-                                .get(key),
-                        typeToken.getType());
+                return GSON.fromJson(reader, type);
             }
-        }catch (IOException | IllegalStateException e){
+        }catch (IOException | JsonParseException e){
             logger.error(e);
             return null;
         }
     }
-    public void writeMapObject(String key, Map<?,?> object){
+    public <T> T readMapData(String key,TypeToken<T> typeToken){
         try {
-            Gson gson = new GsonBuilder().enableComplexMapKeySerialization().setPrettyPrinting().create();
-
-            try(JsonWriter writer = new JsonWriter(new FileWriter(dataSource))) {
-                JsonObject jsonObject = new JsonObject();
-                jsonObject.add(key,gson.toJsonTree(object));
-                gson.toJson(jsonObject,writer);
+            try(JsonReader reader = new JsonReader(new FileReader(dataSource))) {
+                T value = null;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if(reader.nextName().equals(key)){
+                        value = GSON.fromJson(reader, typeToken.getType());
+                    }else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                return value;
             }
+        }catch (IOException | IllegalStateException | JsonParseException e){
+            logger.error(e);
+            return null;
+        }
+    }
+    public synchronized void writeMapObject(String key, Map<?,?> object){
+        try {
+            this.writeAtomically(writer -> {
+                JsonWriter jsonWriter = MAP_GSON.newJsonWriter(writer);
+                jsonWriter.beginObject();
+                jsonWriter.name(key);
+                MAP_GSON.toJson(object, object.getClass(), jsonWriter);
+                jsonWriter.endObject();
+                jsonWriter.flush();
+            });
         }catch (IOException e){
             logger.error(e);
         }
 
     }
-    public <T> void writeListObject(List<?> object, TypeToken<List<T>> typeToken){
+    public synchronized <T> void writeListObject(List<?> object, TypeToken<List<T>> typeToken){
         try {
-            Gson gson = new GsonBuilder()
-                    .registerTypeAdapter(AdrComponentDescriptor.class,new AdrComponentJsonAdapter())
-                    .create();
-            try(JsonWriter writer = new JsonWriter(new FileWriter(dataSource))) {
-                gson.toJson(object,typeToken.getType(),writer);
-            }
+            this.writeAtomically(writer -> GSON.toJson(object,typeToken.getType(),writer));
         }catch (IOException e){
             logger.error(e);
         }
 
     }
+    public String toJson(Object object, Type type){
+        return GSON.toJson(object,type);
+    }
+    public synchronized void writeString(String json) throws IOException {
+        this.writeAtomically(writer -> writer.write(json));
+    }
+
+    /**
+     * Writes a temp file next to the data source, syncs it and renames it over the data source,
+     * so that a crash while writing leaves the previous file in place.
+     */
+    private void writeAtomically(JsonWriteAction action) throws IOException {
+        Path target = Paths.get(this.dataSource);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try(FileOutputStream out = new FileOutputStream(temp.toFile());
+            Writer writer = new OutputStreamWriter(out)) {
+            action.write(writer);
+            writer.flush();
+            out.getFD().sync();
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }catch (AtomicMoveNotSupportedException e){
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private interface JsonWriteAction {
+        void write(Writer writer) throws IOException;
+    }
     public List<AdrComponentDescriptor> getJsonAsObjectFromFile(String filePath){
         try {
-            Gson gson = new GsonBuilder()
-                    .registerTypeAdapter(AdrComponentDescriptor.class,new AdrComponentJsonAdapter())
-                    .create();
-            JsonParser jsonParser = new JsonParser();
             try(JsonReader reader = new JsonReader(new InputStreamReader(getClass().getClassLoader().getResourceAsStream(filePath)))) {
-                return gson.fromJson(
-                        jsonParser.parse(reader),
-                        new TypeToken<List<AdrComponentDescriptor>>(){}.getType());
+                return GSON.fromJson(reader, new TypeToken<List<AdrComponentDescriptor>>(){}.getType());
             } catch (IOException e) {
                 MercuryStoreCore.errorHandlerSubject.onNext(new MercuryError("Error while importing from file:",e));
             }
-        }catch (IllegalStateException | JsonSyntaxException e){
+        }catch (IllegalStateException | JsonParseException e){
             MercuryStoreCore.errorHandlerSubject.onNext(new MercuryError("Error while importing from file:",e));
             return null;
         }
@@ -114,14 +163,8 @@ public class JSONHelper {
     }
     public static List<AdrComponentDescriptor> getJsonAsObject(String jsonStr){
         try {
-            Gson gson = new GsonBuilder()
-                    .registerTypeAdapter(AdrComponentDescriptor.class,new AdrComponentJsonAdapter())
-                    .create();
-            JsonParser jsonParser = new JsonParser();
-            return gson.fromJson(
-                    jsonParser.parse(jsonStr),
-                    new TypeToken<List<AdrComponentDescriptor>>(){}.getType());
-        }catch (IllegalStateException | JsonSyntaxException e){
+            return GSON.fromJson(jsonStr, new TypeToken<List<AdrComponentDescriptor>>(){}.getType());
+        }catch (IllegalStateException | JsonParseException e){
             MercuryStoreCore.errorHandlerSubject.onNext(new MercuryError("Error while importing string: " + jsonStr,e));
             return null;
         }
@@ -1,52 +1,265 @@
 package com.mercury.platform.shared.config.json.deserializer;
 
 import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.mercury.platform.shared.config.descriptor.adr.*;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Streaming adapter of the ADR component hierarchy, the concrete class being chosen by the
+ * {@code type} property. Components are written with {@code type} first and their cells last, so
+ * they are read in one pass; the field bindings of every class are resolved once per {@link Gson}.
+ * Objects written by older versions, where {@code type} comes after other properties, are buffered
+ * and reordered first. Cells without a type take the one of their group content.
+ */
+public class AdrComponentJsonAdapter implements TypeAdapterFactory {
+    private static final String TYPE = "type";
+    private static final String CONTENT_TYPE = "contentType";
+    private static final String CELLS = "cells";
 
-public class AdrComponentJsonAdapter implements JsonDeserializer<AdrComponentDescriptor>, JsonSerializer<AdrComponentDescriptor> {
     @Override
-    public AdrComponentDescriptor deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) throws JsonParseException {
-        JsonPrimitive jsonObj = jsonElement.getAsJsonObject().getAsJsonPrimitive("type");
-        Gson gson = new GsonBuilder()
-                .registerTypeAdapter(AdrTrackerGroupDescriptor.class,new AdrTrackerGroupDeserializer())
-                .create();
-        switch (AdrComponentType.valueOf(jsonObj.getAsString())){
-            case TRACKER_GROUP:{
-                return gson.fromJson(jsonElement.getAsJsonObject(), AdrTrackerGroupDescriptor.class);
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+        if (!AdrComponentDescriptor.class.isAssignableFrom(typeToken.getRawType())) {
+            return null;
+        }
+        return (TypeAdapter<T>) new ComponentAdapter(gson);
+    }
+
+    private static Class<? extends AdrComponentDescriptor> classOf(AdrComponentType type) {
+        switch (type) {
+            case TRACKER_GROUP:
+                return AdrTrackerGroupDescriptor.class;
+            case ICON:
+                return AdrIconDescriptor.class;
+            case PROGRESS_BAR:
+                return AdrProgressBarDescriptor.class;
+            default:
+                return AdrCaptureDescriptor.class;
+        }
+    }
+
+    private static AdrComponentType cellTypeOf(AdrTrackerGroupContentType contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        return contentType == AdrTrackerGroupContentType.ICONS ? AdrComponentType.ICON : AdrComponentType.PROGRESS_BAR;
+    }
+
+    private static class ComponentAdapter extends TypeAdapter<AdrComponentDescriptor> {
+        private final Gson gson;
+        private final Map<Class<?>, ClassBinding> bindings = new ConcurrentHashMap<>();
+
+        private ComponentAdapter(Gson gson) {
+            this.gson = gson;
+        }
+
+        @Override
+        public void write(JsonWriter out, AdrComponentDescriptor value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
             }
-            case ICON: {
-                return gson.fromJson(jsonElement.getAsJsonObject(), AdrIconDescriptor.class);
+            out.beginObject();
+            for (FieldBinding field : this.bindingOf(value.getClass()).fields.values()) {
+                field.write(out, value);
             }
-            case PROGRESS_BAR: {
-                return gson.fromJson(jsonElement.getAsJsonObject(), AdrProgressBarDescriptor.class);
+            out.endObject();
+        }
+
+        @Override
+        public AdrComponentDescriptor read(JsonReader in) throws IOException {
+            return this.read(in, null);
+        }
+
+        private AdrComponentDescriptor read(JsonReader in, AdrComponentType fallback) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            in.beginObject();
+            String name = in.hasNext() ? in.nextName() : null;
+            if (!TYPE.equals(name)) {
+                return this.fromJsonTree(this.reorder(in, name, fallback));
+            }
+            AdrComponentType type = fallback;
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+            } else {
+                try {
+                    type = AdrComponentType.valueOf(in.nextString());
+                } catch (IllegalArgumentException e) {
+                    throw new JsonParseException("Unknown ADR component type at " + in.getPath(), e);
+                }
+            }
+            if (type == null) {
+                throw new JsonParseException("ADR component without type at " + in.getPath());
             }
-            case CAPTURE:{
-                return gson.fromJson(jsonElement.getAsJsonObject(), AdrCaptureDescriptor.class);
+            ClassBinding binding = this.bindingOf(classOf(type));
+            AdrComponentDescriptor descriptor = binding.newInstance();
+            descriptor.setType(type);
+            while (in.hasNext()) {
+                name = in.nextName();
+                if (CELLS.equals(name) && descriptor instanceof AdrTrackerGroupDescriptor) {
+                    this.readCells(in, (AdrTrackerGroupDescriptor) descriptor);
+                    continue;
+                }
+                FieldBinding field = binding.fields.get(name);
+                if (field == null) {
+                    in.skipValue();
+                } else {
+                    field.read(in, descriptor);
+                }
             }
+            in.endObject();
+            return descriptor;
+        }
+
+        private void readCells(JsonReader in, AdrTrackerGroupDescriptor group) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                group.setCells(null);
+                return;
+            }
+            AdrComponentType fallback = cellTypeOf(group.getContentType());
+            List<AdrComponentDescriptor> cells = new ArrayList<>();
+            in.beginArray();
+            while (in.hasNext()) {
+                cells.add(this.read(in, fallback));
+            }
+            in.endArray();
+            group.setCells(cells);
+        }
+
+        /**
+         * Buffers the rest of the object, the first property name being already consumed, in the
+         * order the streaming path expects: type, content type, other properties, cells.
+         */
+        private JsonObject reorder(JsonReader in, String firstName, AdrComponentType fallback) throws IOException {
+            TypeAdapter<JsonElement> elementAdapter = this.gson.getAdapter(JsonElement.class);
+            Map<String, JsonElement> properties = new LinkedHashMap<>();
+            if (firstName != null) {
+                properties.put(firstName, elementAdapter.read(in));
+                while (in.hasNext()) {
+                    properties.put(in.nextName(), elementAdapter.read(in));
+                }
+            }
+            in.endObject();
+            JsonObject object = new JsonObject();
+            JsonElement type = properties.remove(TYPE);
+            if ((type == null || type.isJsonNull()) && fallback != null) {
+                type = new JsonPrimitive(fallback.name());
+            }
+            object.add(TYPE, type == null ? JsonNull.INSTANCE : type);
+            JsonElement contentType = properties.remove(CONTENT_TYPE);
+            if (contentType != null) {
+                object.add(CONTENT_TYPE, contentType);
+            }
+            JsonElement cells = properties.remove(CELLS);
+            properties.forEach(object::add);
+            if (cells != null) {
+                object.add(CELLS, cells);
+            }
+            return object;
+        }
+
+        private ClassBinding bindingOf(Class<?> type) {
+            ClassBinding binding = this.bindings.get(type);
+            if (binding == null) {
+                binding = new ClassBinding(this.gson, type);
+                this.bindings.put(type, binding);
+            }
+            return binding;
         }
-        return null;
     }
 
-    @Override
-    public JsonElement serialize(AdrComponentDescriptor descriptor, Type type, JsonSerializationContext jsonSerializationContext) {
-        Gson gson = new Gson();
-        switch (descriptor.getType()){
-            case TRACKER_GROUP:{
-                return gson.toJsonTree(descriptor, AdrTrackerGroupDescriptor.class);
+    /**
+     * Fields of a component class, superclass fields first except type (first) and cells (last).
+     */
+    private static class ClassBinding {
+        private final Constructor<?> constructor;
+        private final Map<String, FieldBinding> fields = new LinkedHashMap<>();
+
+        private ClassBinding(Gson gson, Class<?> type) {
+            try {
+                this.constructor = type.getDeclaredConstructor();
+                this.constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new JsonIOException("No default constructor for " + type.getName(), e);
+            }
+            Deque<Class<?>> hierarchy = new ArrayDeque<>();
+            for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+                hierarchy.push(current);
+            }
+            Map<String, FieldBinding> declared = new LinkedHashMap<>();
+            for (Class<?> current : hierarchy) {
+                for (Field field : current.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    declared.put(field.getName(), new FieldBinding(gson, field));
+                }
+            }
+            FieldBinding typeField = declared.remove(TYPE);
+            if (typeField != null) {
+                this.fields.put(TYPE, typeField);
             }
-            case ICON: {
-                return gson.toJsonTree(descriptor, AdrIconDescriptor.class);
+            FieldBinding cells = declared.remove(CELLS);
+            this.fields.putAll(declared);
+            if (cells != null) {
+                this.fields.put(CELLS, cells);
             }
-            case PROGRESS_BAR: {
-                return gson.toJsonTree(descriptor, AdrProgressBarDescriptor.class);
+        }
+
+        private AdrComponentDescriptor newInstance() {
+            try {
+                return (AdrComponentDescriptor) this.constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new JsonIOException("Unable to create " + this.constructor.getDeclaringClass().getName(), e);
+            }
+        }
+    }
+
+    private static class FieldBinding {
+        private final Field field;
+        private final TypeAdapter<Object> adapter;
+
+        @SuppressWarnings("unchecked")
+        private FieldBinding(Gson gson, Field field) {
+            field.setAccessible(true);
+            this.field = field;
+            this.adapter = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(field.getGenericType()));
+        }
+
+        private void write(JsonWriter out, Object target) throws IOException {
+            try {
+                out.name(this.field.getName());
+                this.adapter.write(out, this.field.get(target));
+            } catch (IllegalAccessException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        private void read(JsonReader in, Object target) throws IOException {
+            Object value = this.adapter.read(in);
+            if (value == null && this.field.getType().isPrimitive()) {
+                return;
             }
-            case CAPTURE:{
-                return gson.toJsonTree(descriptor, AdrCaptureDescriptor.class);
+            try {
+                this.field.set(target, value);
+            } catch (IllegalAccessException e) {
+                throw new AssertionError(e);
             }
         }
-        return null;
     }
 }
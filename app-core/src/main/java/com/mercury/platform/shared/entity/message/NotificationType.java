@@ -7,5 +7,6 @@ public enum NotificationType {
     OUT_ITEM_MESSAGE,
     OUT_CURRENCY_MESSAGE,
     SCANNER_MESSAGE,
+    SCANNER_DIGEST,
     HISTORY
 }
@@ -0,0 +1,41 @@
+package com.mercury.platform.shared.entity.message;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chat scanner matches of one burst window grouped by rule and sender.
+ */
+@Data
+@EqualsAndHashCode(callSuper = false, of = "id")
+public class ScannerDigestDescriptor extends PlainMessageDescriptor {
+    private static long lastId;
+    private final long id = nextId();
+    private List<Entry> entries = new ArrayList<>();
+
+    private static synchronized long nextId() {
+        return ++lastId;
+    }
+
+    public int getTotalCount() {
+        int total = 0;
+        for (Entry entry : this.entries) {
+            total += entry.getCount();
+        }
+        return total;
+    }
+
+    @Data
+    public static class Entry {
+        private final String ruleName;
+        private final String nickName;
+        private int count;
+        /**
+         * The most recent message of the group.
+         */
+        private PlainMessageDescriptor lastMessage;
+    }
+}
@@ -0,0 +1,21 @@
+package com.mercury.platform.shared.history;
+
+/**
+ * Record fields with a secondary index in {@link HistoryStore}.
+ */
+public enum HistoryField {
+    NICKNAME, ITEM, CURRENCY, LEAGUE;
+
+    String of(HistoryRecord record) {
+        switch (this) {
+            case NICKNAME:
+                return record.getNickname();
+            case ITEM:
+                return record.getItemName();
+            case CURRENCY:
+                return record.getCurrency();
+            default:
+                return record.getLeague();
+        }
+    }
+}
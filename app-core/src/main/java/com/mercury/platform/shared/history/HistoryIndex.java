@@ -0,0 +1,56 @@
+package com.mercury.platform.shared.history;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes of {@link HistoryStore}: per field, the sorted keys with the offsets of the
+ * records holding them. Guarded by the store lock.
+ */
+class HistoryIndex {
+    private final Map<HistoryField, TreeMap<String, LongList>> trees = new EnumMap<>(HistoryField.class);
+
+    HistoryIndex() {
+        for (HistoryField field : HistoryField.values()) {
+            this.trees.put(field, new TreeMap<>());
+        }
+    }
+
+    void add(HistoryField field, String value, long offset) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        this.trees.get(field).computeIfAbsent(HistoryQuery.key(value), it -> new LongList(2)).add(offset);
+    }
+
+    void add(HistoryRecord record, long offset) {
+        for (HistoryField field : HistoryField.values()) {
+            this.add(field, field.of(record), offset);
+        }
+    }
+
+    void collect(HistoryQuery.Term term, LongList offsets) {
+        NavigableMap<String, LongList> keys = this.trees.get(term.field);
+        if (term.from != null && term.to != null) {
+            if (term.from.compareTo(term.to) >= 0) {
+                return;
+            }
+            keys = keys.subMap(term.from, true, term.to, false);
+        } else if (term.from != null) {
+            keys = keys.tailMap(term.from, true);
+        } else if (term.to != null) {
+            keys = keys.headMap(term.to, false);
+        }
+        for (LongList postings : keys.values()) {
+            for (int i = 0; i < postings.size(); i++) {
+                offsets.add(postings.get(i));
+            }
+        }
+    }
+
+    int keyCount(HistoryField field) {
+        return this.trees.get(field).size();
+    }
+}
@@ -0,0 +1,15 @@
+package com.mercury.platform.shared.history;
+
+/**
+ * What was last done with a trade whisper, kept in its {@link HistoryRecord}.
+ */
+public enum HistoryOutcome {
+    NONE, INVITED, TRADED, KICKED, DISMISSED, EXPIRED;
+
+    /**
+     * Closing or expiring a notification only counts when nothing else was done with it.
+     */
+    public boolean isPassive() {
+        return this == DISMISSED || this == EXPIRED;
+    }
+}
@@ -0,0 +1,78 @@
+package com.mercury.platform.shared.history;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Selection of history records by their indexed fields, case-insensitive. A query is a union of
+ * key ranges; {@link #all()} selects every record without touching the indexes.
+ */
+public class HistoryQuery {
+    private static final HistoryQuery ALL = new HistoryQuery(null);
+    private final List<Term> terms;
+
+    private HistoryQuery(List<Term> terms) {
+        this.terms = terms;
+    }
+
+    public static HistoryQuery all() {
+        return ALL;
+    }
+
+    public static HistoryQuery exact(HistoryField field, String value) {
+        String key = key(value);
+        return new HistoryQuery(Collections.singletonList(new Term(field, key, key + '\0')));
+    }
+
+    public static HistoryQuery prefix(HistoryField field, String prefix) {
+        String key = key(prefix);
+        return new HistoryQuery(Collections.singletonList(new Term(field, key, key + Character.MAX_VALUE)));
+    }
+
+    /**
+     * Keys from {@code from} inclusive to {@code to} exclusive, null for an open bound.
+     */
+    public static HistoryQuery range(HistoryField field, String from, String to) {
+        return new HistoryQuery(Collections.singletonList(new Term(field,
+                from == null ? null : key(from),
+                to == null ? null : key(to))));
+    }
+
+    public static HistoryQuery anyOf(HistoryQuery... queries) {
+        List<Term> terms = new ArrayList<>();
+        for (HistoryQuery query : Arrays.asList(queries)) {
+            if (query.isAll()) {
+                return ALL;
+            }
+            terms.addAll(query.terms);
+        }
+        return new HistoryQuery(terms);
+    }
+
+    public boolean isAll() {
+        return this.terms == null;
+    }
+
+    List<Term> getTerms() {
+        return this.terms;
+    }
+
+    static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static class Term {
+        final HistoryField field;
+        final String from;
+        final String to;
+
+        private Term(HistoryField field, String from, String to) {
+            this.field = field;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
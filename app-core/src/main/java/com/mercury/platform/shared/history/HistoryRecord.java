@@ -0,0 +1,109 @@
+package com.mercury.platform.shared.history;
+
+import com.mercury.platform.shared.entity.message.CurrencyTradeNotificationDescriptor;
+import com.mercury.platform.shared.entity.message.ItemTradeNotificationDescriptor;
+import com.mercury.platform.shared.entity.message.NotificationDescriptor;
+import com.mercury.platform.shared.entity.message.NotificationType;
+import com.mercury.platform.shared.entity.message.TradeNotificationDescriptor;
+import lombok.Data;
+
+/**
+ * One history entry as stored by {@link HistoryStore}: the parsed fields of a trade whisper,
+ * so that it can be shown or turned back into a descriptor without parsing the source string.
+ * For a currency trade the item name is the title of the currency for sale.
+ */
+@Data
+public class HistoryRecord {
+    private long timestamp;
+    /**
+     * Imported from the game log, see {@link HistoryStore#appendAll(java.util.List)}.
+     */
+    private boolean imported;
+    /**
+     * Null when the source string is not a trade whisper.
+     */
+    private NotificationType type;
+    private HistoryOutcome outcome = HistoryOutcome.NONE;
+    private String nickname;
+    private String itemName;
+    private Double price;
+    private String currency;
+    private String league;
+    private String tabName;
+    private int left;
+    private int top;
+    private Double count;
+    private String offer;
+    private String sourceString;
+
+    public boolean isOutgoing() {
+        return this.type == NotificationType.OUT_ITEM_MESSAGE || this.type == NotificationType.OUT_CURRENCY_MESSAGE;
+    }
+
+    public static HistoryRecord of(NotificationDescriptor descriptor, long timestamp) {
+        HistoryRecord record = new HistoryRecord();
+        record.setTimestamp(timestamp);
+        record.setType(descriptor.getType());
+        record.setNickname(descriptor.getWhisperNickname());
+        record.setSourceString(descriptor.getSourceString());
+        if (descriptor instanceof TradeNotificationDescriptor) {
+            TradeNotificationDescriptor trade = (TradeNotificationDescriptor) descriptor;
+            record.setPrice(trade.getCurCount());
+            record.setCurrency(trade.getCurrency());
+            record.setLeague(trade.getLeague());
+            record.setOffer(trade.getOffer());
+        }
+        if (descriptor instanceof ItemTradeNotificationDescriptor) {
+            ItemTradeNotificationDescriptor item = (ItemTradeNotificationDescriptor) descriptor;
+            record.setItemName(item.getItemName());
+            record.setTabName(item.getTabName());
+            record.setLeft(item.getLeft());
+            record.setTop(item.getTop());
+        } else if (descriptor instanceof CurrencyTradeNotificationDescriptor) {
+            CurrencyTradeNotificationDescriptor currency = (CurrencyTradeNotificationDescriptor) descriptor;
+            record.setItemName(currency.getCurrForSaleTitle());
+            record.setCount(currency.getCurrForSaleCount());
+        }
+        return record;
+    }
+
+    /**
+     * @return the descriptor the record was made of, or null when it is not a trade whisper
+     */
+    public NotificationDescriptor toDescriptor() {
+        if (this.type == null) {
+            return null;
+        }
+        TradeNotificationDescriptor descriptor;
+        switch (this.type) {
+            case INC_ITEM_MESSAGE:
+            case OUT_ITEM_MESSAGE: {
+                ItemTradeNotificationDescriptor item = new ItemTradeNotificationDescriptor();
+                item.setItemName(this.itemName);
+                item.setTabName(this.tabName);
+                item.setLeft(this.left);
+                item.setTop(this.top);
+                descriptor = item;
+                break;
+            }
+            case INC_CURRENCY_MESSAGE:
+            case OUT_CURRENCY_MESSAGE: {
+                CurrencyTradeNotificationDescriptor currency = new CurrencyTradeNotificationDescriptor();
+                currency.setCurrForSaleTitle(this.itemName);
+                currency.setCurrForSaleCount(this.count);
+                descriptor = currency;
+                break;
+            }
+            default:
+                return null;
+        }
+        descriptor.setType(this.type);
+        descriptor.setWhisperNickname(this.nickname);
+        descriptor.setSourceString(this.sourceString);
+        descriptor.setCurCount(this.price);
+        descriptor.setCurrency(this.currency);
+        descriptor.setLeague(this.league);
+        descriptor.setOffer(this.offer);
+        return descriptor;
+    }
+}
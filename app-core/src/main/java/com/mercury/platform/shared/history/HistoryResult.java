@@ -0,0 +1,71 @@
+package com.mercury.platform.shared.history;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records selected by a {@link HistoryQuery}, newest first, read from the store on demand.
+ * The selection is fixed when the query runs: records added later are not part of it, and it
+ * goes stale once the history is cleared, imported into or compacted.
+ */
+public class HistoryResult {
+    private final HistoryStore store;
+    private final long generation;
+    private final int size;
+    // store positions, descending; null selects the positions below size
+    private final int[] positions;
+
+    HistoryResult(HistoryStore store, long generation, int size, int[] positions) {
+        this.store = store;
+        this.generation = generation;
+        this.size = size;
+        this.positions = positions;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @param row 0 for the newest record
+     * @return the record or null when the result is stale
+     */
+    public HistoryRecord get(int row) {
+        if (row < 0 || row >= this.size) {
+            throw new IndexOutOfBoundsException(row + " of " + this.size);
+        }
+        int position = this.positions == null ? this.size - 1 - row : this.positions[row];
+        return this.store.get(this.generation, position);
+    }
+
+    /**
+     * @param cursor first row, 0 or the {@link HistoryPage#getNextCursor()} of the previous page
+     */
+    public HistoryPage page(int cursor, int limit) {
+        List<HistoryRecord> records = new ArrayList<>(Math.max(0, Math.min(limit, this.size - cursor)));
+        int row = cursor;
+        while (row < this.size && records.size() < limit) {
+            HistoryRecord record = this.get(row++);
+            if (record == null) {
+                break;
+            }
+            records.add(record);
+        }
+        return new HistoryPage(records, row < this.size ? row : -1);
+    }
+
+    public boolean isStale() {
+        return this.generation != this.store.getGeneration();
+    }
+
+    @Data
+    public static class HistoryPage {
+        private final List<HistoryRecord> records;
+        /**
+         * -1 after the last page.
+         */
+        private final int nextCursor;
+    }
+}
@@ -0,0 +1,870 @@
+package com.mercury.platform.shared.history;
+
+import com.mercury.platform.shared.CloneHelper;
+import com.mercury.platform.shared.MessageParser;
+import com.mercury.platform.shared.entity.message.NotificationDescriptor;
+import com.mercury.platform.shared.entity.message.NotificationType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Trade history in an append-only record file ({@code history.<generation>.dat}) that is
+ * memory-mapped for reading, with in-memory secondary indexes on {@link HistoryField}s.
+ * <p>
+ * Opening only walks the record headers to collect offsets, so the newest page is available
+ * at once; the indexes are built by a background thread and queries wait for it. Appends are
+ * encoded and indexed by the caller and written by a writer thread that drains whatever is
+ * queued and forces it to disk in one go (group commit). Records are decoded outside the lock.
+ * Clearing appends a marker; once dead records outnumber live ones the file is compacted into the
+ * next generation, copying without the lock. Imported records are ordered before the others
+ * whatever their position in the file.
+ * <p>
+ * File layout: magic, version, then records of {@code int length, byte type, long timestamp}
+ * followed by the fixed-size fields ({@code byte notificationType, byte outcome, double price,
+ * double count, int left, int top}, null numbers as NaN) and the strings as {@code int byteCount}
+ * (-1 for null) and UTF-8 bytes. The outcome is updated in place.
+ */
+public class HistoryStore implements Closeable {
+    static final int MAGIC = 0x4D544831;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int COMPACTION_THRESHOLD = 1024;
+    static final int MAX_BATCH = 1024;
+    /** Offsets are mapped as ints, records that would end past this are dropped. */
+    static final long MAX_FILE_SIZE = Integer.MAX_VALUE;
+    private static final int MIN_REMAP = 1024 * 1024;
+    private static final byte ADD = 1;
+    private static final byte IMPORT = 2;
+    private static final byte CLEAR = 3;
+    private static final int RECORD_HEADER = 4 + 1 + 8;
+    private static final int OUTCOME_OFFSET = RECORD_HEADER + 1;
+    private static final int FIXED_FIELDS = 1 + 1 + 8 + 8 + 4 + 4;
+    private static final int INDEX_CHUNK = 4096;
+    private static final int COMPACTION_ATTEMPTS = 3;
+    private static final Pattern GENERATION_FILE = Pattern.compile("history\\.(\\d+)\\.dat");
+    private final Logger logger = LogManager.getLogger(HistoryStore.class.getSimpleName());
+    private final Path folder;
+
+    private Path file;
+    private long fileGeneration;
+    private FileChannel readChannel;
+    private MappedByteBuffer mapped;
+    private volatile FileChannel writeChannel;
+    private long end;
+    private final Map<Long, HistoryRecord> pending = new ConcurrentHashMap<>();
+    private final LongList importedOffsets = new LongList();
+    private final LongList regularOffsets = new LongList();
+    private int deadRecords;
+    // appends, clears and outcome updates, a compaction started before one of them is redone
+    private long modifications;
+    private final Object compactionLock = new Object();
+    private HistoryIndex index = new HistoryIndex();
+    private CountDownLatch indexReady = new CountDownLatch(0);
+    private volatile long generation;
+
+    private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+    private Thread writerThread;
+    private volatile boolean closed;
+
+    public HistoryStore(Path folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Migrates {@code history.json} when there is no record file yet,
+     * maps the newest generation and starts the writer and index threads.
+     */
+    public synchronized void open() throws IOException {
+        if (this.writerThread != null) {
+            throw new IllegalStateException("History store is already open");
+        }
+        Files.createDirectories(this.folder);
+        List<Path> generations = this.generations();
+        if (generations.isEmpty()) {
+            this.fileGeneration = 1;
+            this.file = this.generationFile(1);
+            this.migrate();
+        } else {
+            this.file = generations.get(generations.size() - 1);
+            this.fileGeneration = generationOf(this.file);
+            for (Path stale : generations.subList(0, generations.size() - 1)) {
+                this.deleteQuietly(stale);
+            }
+        }
+        this.openFile();
+        this.writerThread = new Thread(this::runWriter, "HistoryStoreWriter");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public synchronized void append(HistoryRecord record) {
+        this.enqueue(record, record.isImported() ? IMPORT : ADD);
+    }
+
+    /**
+     * Appends records imported from the game log (oldest first); they are placed behind the
+     * previously imported ones and before everything added live. The records are encoded
+     * outside the lock and added a chunk at a time, so that reads are not held up.
+     */
+    public void appendAll(List<HistoryRecord> records) {
+        for (int from = 0; from < records.size(); from += INDEX_CHUNK) {
+            List<HistoryRecord> chunk = records.subList(from, Math.min(records.size(), from + INDEX_CHUNK));
+            List<ByteBuffer> encoded = new ArrayList<>(chunk.size());
+            for (HistoryRecord record : chunk) {
+                record.setImported(true);
+                encoded.add(encode(record, IMPORT));
+            }
+            synchronized (this) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    this.enqueue(chunk.get(i), IMPORT, encoded.get(i));
+                }
+                this.generation++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        this.enqueue(null, CLEAR);
+        this.generation++;
+        if (this.deadRecords >= COMPACTION_THRESHOLD) {
+            Thread compaction = new Thread(this::compactQuietly, "HistoryStoreCompaction");
+            compaction.setDaemon(true);
+            compaction.start();
+        }
+    }
+
+    public synchronized int size() {
+        return this.importedOffsets.size() + this.regularOffsets.size();
+    }
+
+    /**
+     * Sets the outcome of the newest record from the nickname, or of the newest one with the
+     * source string when it is not null. A {@link HistoryOutcome#isPassive() passive} outcome
+     * does not replace another one.
+     *
+     * @return false when there is no such record or it already has an outcome
+     */
+    public boolean setOutcome(String nickname, String sourceString, HistoryOutcome outcome) throws InterruptedException {
+        if (nickname == null) {
+            return false;
+        }
+        this.awaitIndex();
+        synchronized (this) {
+            LongList offsets = new LongList();
+            for (HistoryQuery.Term term : HistoryQuery.exact(HistoryField.NICKNAME, nickname).getTerms()) {
+                this.index.collect(term, offsets);
+            }
+            int[] positions = new int[offsets.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = this.positionOf(offsets.get(i));
+            }
+            Arrays.sort(positions);
+            for (int i = positions.length - 1; i >= 0 && positions[i] >= 0; i--) {
+                long offset = this.offsetAt(positions[i]);
+                HistoryRecord record = this.read(offset);
+                if (record == null || (sourceString != null && !sourceString.equals(record.getSourceString()))) {
+                    continue;
+                }
+                if (outcome.isPassive() && record.getOutcome() != HistoryOutcome.NONE) {
+                    return false;
+                }
+                if (this.pending.get(offset) == record) {
+                    // the pending record is the caller's object, leave it as it was appended
+                    record = CloneHelper.cloneObject(record);
+                    record.setOutcome(outcome);
+                    this.pending.replace(offset, record);
+                }
+                ByteBuffer bytes = ByteBuffer.allocate(1);
+                bytes.put(0, (byte) outcome.ordinal());
+                this.queue.add(new Append(offset + OUTCOME_OFFSET, bytes));
+                this.modifications++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Runs the query against the indexes, waiting for them to be built if needed.
+     */
+    public HistoryResult find(HistoryQuery query) throws InterruptedException {
+        if (query.isAll()) {
+            synchronized (this) {
+                return new HistoryResult(this, this.generation, this.size(), null);
+            }
+        }
+        this.awaitIndex();
+        synchronized (this) {
+            LongList offsets = new LongList();
+            for (HistoryQuery.Term term : query.getTerms()) {
+                this.index.collect(term, offsets);
+            }
+            int[] positions = new int[offsets.size()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = this.positionOf(offsets.get(i));
+            }
+            Arrays.sort(positions);
+            int[] newestFirst = new int[positions.length];
+            int distinct = 0;
+            for (int i = positions.length - 1; i >= 0 && positions[i] >= 0; i--) {
+                if (distinct == 0 || positions[i] != newestFirst[distinct - 1]) {
+                    newestFirst[distinct++] = positions[i];
+                }
+            }
+            return new HistoryResult(this, this.generation, distinct, Arrays.copyOf(newestFirst, distinct));
+        }
+    }
+
+    /**
+     * Looks the record up under the lock and decodes it outside, from the mapping or channel of
+     * that moment.
+     */
+    HistoryRecord get(long generation, int position) {
+        long offset;
+        FileChannel channel;
+        MappedByteBuffer mapped;
+        synchronized (this) {
+            if (generation != this.generation || position >= this.size()) {
+                return null;
+            }
+            offset = this.offsetAt(position);
+            HistoryRecord record = this.pending.get(offset);
+            if (record != null) {
+                return record;
+            }
+            try {
+                this.remapIfGrown(offset);
+            } catch (IOException e) {
+                logger.error("Error while mapping history file {}: ", this.file, e);
+                return null;
+            }
+            channel = this.readChannel;
+            mapped = this.mapped;
+        }
+        try {
+            return decode(recordBuffer(channel, mapped, offset));
+        } catch (ClosedChannelException e) {
+            // the file was compacted or closed meanwhile, the result is stale
+            return null;
+        } catch (IOException e) {
+            logger.error("Error while reading history record at {}: ", offset, e);
+            return null;
+        }
+    }
+
+    private long offsetAt(int position) {
+        int imported = this.importedOffsets.size();
+        return position < imported ? this.importedOffsets.get(position) : this.regularOffsets.get(position - imported);
+    }
+
+    private void awaitIndex() throws InterruptedException {
+        CountDownLatch ready;
+        synchronized (this) {
+            ready = this.indexReady;
+        }
+        ready.await();
+    }
+
+    public long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Rewrites the live records into the next generation file. The records are copied without
+     * the lock, from a snapshot of their offsets; when the history changed meanwhile the copy is
+     * dropped and done again, a few times at most.
+     */
+    public void compact() throws IOException, InterruptedException {
+        synchronized (this.compactionLock) {
+            for (int attempt = 0; attempt < COMPACTION_ATTEMPTS; attempt++) {
+                LongList imported;
+                LongList regular;
+                long modifications;
+                long nextGeneration;
+                FileChannel channel;
+                MappedByteBuffer mapped;
+                synchronized (this) {
+                    if (this.closed) {
+                        return;
+                    }
+                    imported = this.importedOffsets.copy();
+                    regular = this.regularOffsets.copy();
+                    modifications = this.modifications;
+                    nextGeneration = this.fileGeneration + 1;
+                    channel = this.readChannel;
+                    mapped = this.mapped;
+                }
+                this.flush();
+                Path next = this.generationFile(nextGeneration);
+                Path temp = next.resolveSibling(next.getFileName() + ".tmp");
+                LongList copiedImported = new LongList(imported.size());
+                LongList copiedRegular = new LongList(regular.size());
+                long end;
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    writeFully(out, header());
+                    end = copyRecords(channel, mapped, imported, out, HEADER_SIZE, copiedImported);
+                    end = copyRecords(channel, mapped, regular, out, end, copiedRegular);
+                    out.force(true);
+                }
+                Path previous;
+                boolean compacted = false;
+                synchronized (this) {
+                    if (this.closed) {
+                        Files.deleteIfExists(temp);
+                        return;
+                    }
+                    previous = this.file;
+                    if (this.modifications == modifications) {
+                        Files.move(temp, next, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        this.closeFile();
+                        this.file = next;
+                        this.fileGeneration = nextGeneration;
+                        this.openChannels();
+                        this.importedOffsets.clear();
+                        this.importedOffsets.addAll(copiedImported);
+                        this.regularOffsets.clear();
+                        this.regularOffsets.addAll(copiedRegular);
+                        this.end = end;
+                        this.deadRecords = 0;
+                        this.index = new HistoryIndex();
+                        this.generation++;
+                        this.buildIndex();
+                        compacted = true;
+                    }
+                }
+                if (compacted) {
+                    // a mapped file cannot be deleted on Windows until it is unmapped, open() retries
+                    this.deleteQuietly(previous);
+                    logger.info("History compacted to {} records", copiedImported.size() + copiedRegular.size());
+                    return;
+                }
+                Files.deleteIfExists(temp);
+            }
+            logger.info("History compaction postponed, the history kept changing");
+        }
+    }
+
+    /**
+     * Blocks until everything appended so far is on disk.
+     */
+    public void flush() throws InterruptedException {
+        if (this.closed || this.writerThread == null) {
+            return;
+        }
+        Barrier barrier = new Barrier();
+        this.queue.add(barrier);
+        barrier.written.await();
+    }
+
+    @Override
+    public void close() {
+        if (this.closed || this.writerThread == null) {
+            return;
+        }
+        try {
+            this.flush();
+            this.closed = true;
+            this.writerThread.interrupt();
+            this.writerThread.join();
+            synchronized (this) {
+                this.closeFile();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.error("Error while closing history store: ", e);
+        }
+    }
+
+    private void enqueue(HistoryRecord record, byte type) {
+        this.enqueue(record, type, encode(record, type));
+    }
+
+    private void enqueue(HistoryRecord record, byte type, ByteBuffer bytes) {
+        if (this.closed) {
+            logger.warn("History store is closed, record is dropped");
+            return;
+        }
+        if (this.end + bytes.remaining() > MAX_FILE_SIZE) {
+            logger.error("History file {} is full, record is dropped", this.file);
+            return;
+        }
+        long offset = this.end;
+        this.end += bytes.remaining();
+        if (record != null) {
+            this.pending.put(offset, record);
+        }
+        this.apply(offset, type, record);
+        this.queue.add(new Append(offset, bytes));
+        this.modifications++;
+    }
+
+    // updates offsets and indexes for a record at offset; the record is null while scanning the file
+    private void apply(long offset, byte type, HistoryRecord record) {
+        switch (type) {
+            case ADD:
+                this.regularOffsets.add(offset);
+                break;
+            case IMPORT:
+                this.importedOffsets.add(offset);
+                break;
+            default:
+                this.deadRecords += this.size() + 1;
+                this.importedOffsets.clear();
+                this.regularOffsets.clear();
+                this.index = new HistoryIndex();
+                return;
+        }
+        if (record != null) {
+            this.index.add(record, offset);
+        }
+    }
+
+    private int positionOf(long offset) {
+        int position = this.importedOffsets.binarySearch(offset);
+        if (position >= 0) {
+            return position;
+        }
+        position = this.regularOffsets.binarySearch(offset);
+        return position >= 0 ? this.importedOffsets.size() + position : -1;
+    }
+
+    private void openFile() throws IOException {
+        this.openChannels();
+        this.importedOffsets.clear();
+        this.regularOffsets.clear();
+        this.deadRecords = 0;
+        this.index = new HistoryIndex();
+        long position = HEADER_SIZE;
+        long limit = this.mapped.limit();
+        while (position + RECORD_HEADER <= limit) {
+            int length = this.mapped.getInt((int) position);
+            byte type = this.mapped.get((int) position + 4);
+            if (length < RECORD_HEADER - 4 || position + 4 + length > limit || type < ADD || type > CLEAR) {
+                logger.warn("History file {} is truncated at {}, the rest is dropped", this.file, position);
+                break;
+            }
+            this.apply(position, type, null);
+            position += 4 + length;
+        }
+        // appends overwrite a truncated tail
+        this.end = position;
+        this.generation++;
+        this.buildIndex();
+    }
+
+    private void openChannels() throws IOException {
+        this.writeChannel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (this.writeChannel.size() < HEADER_SIZE) {
+            writeFully(this.writeChannel, header(), 0);
+        }
+        this.readChannel = FileChannel.open(this.file, StandardOpenOption.READ);
+        if (this.readChannel.size() > MAX_FILE_SIZE) {
+            throw new IOException("History file is too large: " + this.file);
+        }
+        this.map();
+        if (this.mapped.getInt(0) != MAGIC || this.mapped.getInt(4) != VERSION) {
+            throw new IOException("Not a history file: " + this.file);
+        }
+    }
+
+    private void closeFile() throws IOException {
+        this.writeChannel.close();
+        this.readChannel.close();
+        this.mapped = null;
+    }
+
+    private void map() throws IOException {
+        this.mapped = this.readChannel.map(FileChannel.MapMode.READ_ONLY, 0, this.readChannel.size());
+    }
+
+    /**
+     * Indexes the records found when opening, a chunk at a time: the keys of a chunk are read
+     * from the mapping without the lock, which is only taken to add them to the index.
+     */
+    private void buildIndex() {
+        CountDownLatch ready = new CountDownLatch(1);
+        this.indexReady = ready;
+        LongList offsets = new LongList(this.size());
+        offsets.addAll(this.importedOffsets);
+        offsets.addAll(this.regularOffsets);
+        HistoryIndex index = this.index;
+        FileChannel channel = this.readChannel;
+        MappedByteBuffer mapped = this.mapped;
+        HistoryField[] fields = HistoryField.values();
+        Thread builder = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            for (int from = 0; from < offsets.size(); from += INDEX_CHUNK) {
+                int to = Math.min(offsets.size(), from + INDEX_CHUNK);
+                String[] keys = new String[(to - from) * fields.length];
+                for (int i = from; i < to; i++) {
+                    this.readKeys(channel, mapped, offsets.get(i), keys, (i - from) * fields.length);
+                }
+                synchronized (this) {
+                    if (this.index != index) {
+                        break;
+                    }
+                    for (int i = from; i < to; i++) {
+                        for (int field = 0; field < fields.length; field++) {
+                            index.add(fields[field], keys[(i - from) * fields.length + field], offsets.get(i));
+                        }
+                    }
+                }
+            }
+            ready.countDown();
+            logger.info("History index of {} records built in {} ms", offsets.size(), System.currentTimeMillis() - start);
+        }, "HistoryStoreIndex");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    private HistoryRecord read(long offset) {
+        HistoryRecord record = this.pending.get(offset);
+        if (record != null) {
+            return record;
+        }
+        try {
+            this.remapIfGrown(offset);
+            return decode(recordBuffer(this.readChannel, this.mapped, offset));
+        } catch (IOException e) {
+            logger.error("Error while reading history record at {}: ", offset, e);
+            return null;
+        }
+    }
+
+    private static HistoryRecord decode(ByteBuffer buffer) {
+        HistoryRecord record = new HistoryRecord();
+        record.setImported(buffer.get() == IMPORT);
+        record.setTimestamp(buffer.getLong());
+        int type = buffer.get();
+        record.setType(type == 0 ? null : NotificationType.values()[type - 1]);
+        record.setOutcome(HistoryOutcome.values()[buffer.get()]);
+        record.setPrice(readNumber(buffer));
+        record.setCount(readNumber(buffer));
+        record.setLeft(buffer.getInt());
+        record.setTop(buffer.getInt());
+        record.setNickname(readString(buffer));
+        record.setItemName(readString(buffer));
+        record.setCurrency(readString(buffer));
+        record.setLeague(readString(buffer));
+        record.setTabName(readString(buffer));
+        record.setOffer(readString(buffer));
+        record.setSourceString(readString(buffer));
+        return record;
+    }
+
+    private void readKeys(FileChannel channel, MappedByteBuffer mapped, long offset, String[] keys, int from) {
+        try {
+            ByteBuffer buffer = recordBuffer(channel, mapped, offset);
+            buffer.position(buffer.position() + 1 + 8 + FIXED_FIELDS);
+            for (int i = 0; i < HistoryField.values().length; i++) {
+                keys[from + i] = readString(buffer);
+            }
+        } catch (IOException e) {
+            logger.error("Error while indexing history record at {}: ", offset, e);
+        }
+    }
+
+    // records written after the last map are read from the channel until the unmapped tail is
+    // as large as the mapping, so the file is remapped rarely
+    private void remapIfGrown(long offset) throws IOException {
+        long mappedSize = this.mapped.limit();
+        if (offset + 4 > mappedSize && this.readChannel.size() - mappedSize >= Math.max(mappedSize, MIN_REMAP)) {
+            this.map();
+        }
+    }
+
+    // the record body after its length
+    private static ByteBuffer recordBuffer(FileChannel channel, MappedByteBuffer mapped, long offset) throws IOException {
+        if (offset + 4 <= mapped.limit()) {
+            int length = mapped.getInt((int) offset);
+            if (offset + 4 + length <= mapped.limit()) {
+                ByteBuffer buffer = mapped.duplicate();
+                buffer.limit((int) offset + 4 + length);
+                buffer.position((int) offset + 4);
+                return buffer;
+            }
+        }
+        ByteBuffer length = ByteBuffer.allocate(4);
+        readFully(channel, length, offset);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + length.getInt(0));
+        readFully(channel, buffer, offset);
+        buffer.position(4);
+        return buffer;
+    }
+
+    /**
+     * @return the position after the copied records
+     */
+    private static long copyRecords(FileChannel channel, MappedByteBuffer mapped, LongList offsets,
+                                    FileChannel out, long position, LongList copied) throws IOException {
+        for (int i = 0; i < offsets.size(); i++) {
+            ByteBuffer record = recordBuffer(channel, mapped, offsets.get(i));
+            record.position(record.position() - 4);
+            copied.add(position);
+            position += record.remaining();
+            writeFully(out, record);
+        }
+        return position;
+    }
+
+    private void runWriter() {
+        List<Command> batch = new ArrayList<>();
+        while (!this.closed) {
+            try {
+                batch.add(this.queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            this.queue.drainTo(batch, MAX_BATCH - 1);
+            try {
+                FileChannel channel = this.writeChannel;
+                boolean written = false;
+                for (Command command : batch) {
+                    if (command instanceof Append) {
+                        writeFully(channel, ((Append) command).bytes, ((Append) command).offset);
+                        written = true;
+                    }
+                }
+                if (written) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                logger.error("Error while writing history: ", e);
+            }
+            for (Command command : batch) {
+                if (command instanceof Append) {
+                    this.pending.remove(((Append) command).offset);
+                } else {
+                    ((Barrier) command).written.countDown();
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            this.compact();
+        } catch (IOException | InterruptedException e) {
+            if (!this.closed) {
+                logger.error("Error while compacting history: ", e);
+            }
+        }
+    }
+
+    private List<Path> generations() throws IOException {
+        List<Path> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.folder, "history.*.dat")) {
+            for (Path file : files) {
+                if (GENERATION_FILE.matcher(file.getFileName().toString()).matches()) {
+                    generations.add(file);
+                }
+            }
+        }
+        generations.sort((a, b) -> Long.compare(generationOf(a), generationOf(b)));
+        return generations;
+    }
+
+    private Path generationFile(long generation) {
+        return this.folder.resolve("history." + generation + ".dat");
+    }
+
+    private static long generationOf(Path file) {
+        Matcher matcher = GENERATION_FILE.matcher(file.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("History file {} is still in use, it will be deleted on next start", file);
+        }
+    }
+
+    /**
+     * Converts {@code history.json} ({@code {"messages":[newest, .., oldest]}}) into the first
+     * generation, parsing every message once to extract its indexed fields. The old file is kept as .bak.
+     */
+    private void migrate() throws IOException {
+        Path legacy = this.folder.resolve("history.json");
+        if (!Files.exists(legacy)) {
+            return;
+        }
+        List<HistoryRecord> records = this.readLegacy(legacy);
+        writeFile(this.file, records);
+        Files.move(legacy, legacy.resolveSibling(legacy.getFileName() + ".bak"), StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Migrated {} history messages from {}", records.size(), legacy);
+    }
+
+    private static void writeFile(Path file, List<HistoryRecord> records) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(out, header());
+            for (HistoryRecord record : records) {
+                writeFully(out, encode(record, record.isImported() ? IMPORT : ADD));
+            }
+            out.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<HistoryRecord> readLegacy(Path legacy) {
+        List<HistoryRecord> records = new ArrayList<>();
+        MessageParser parser = new MessageParser();
+        try (Reader reader = Files.newBufferedReader(legacy, StandardCharsets.UTF_8)) {
+            JSONArray messages = (JSONArray) ((JSONObject) new JSONParser().parse(reader)).get("messages");
+            if (messages != null) {
+                for (Object message : messages) {
+                    records.add(parse(parser, (String) message, 0));
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error while migrating history file {}: ", legacy, e);
+        }
+        Collections.reverse(records);
+        return records;
+    }
+
+    private static HistoryRecord parse(MessageParser parser, String sourceString, long timestamp) {
+        NotificationDescriptor descriptor = parser.parse(sourceString);
+        if (descriptor == null) {
+            HistoryRecord record = new HistoryRecord();
+            record.setTimestamp(timestamp);
+            record.setSourceString(sourceString);
+            return record;
+        }
+        descriptor.setSourceString(sourceString);
+        return HistoryRecord.of(descriptor, timestamp);
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        return header;
+    }
+
+    private static ByteBuffer encode(HistoryRecord record, byte type) {
+        byte[][] fields = record == null ? new byte[0][] : new byte[][]{
+                bytes(record.getNickname()),
+                bytes(record.getItemName()),
+                bytes(record.getCurrency()),
+                bytes(record.getLeague()),
+                bytes(record.getTabName()),
+                bytes(record.getOffer()),
+                bytes(record.getSourceString())};
+        int length = RECORD_HEADER + (record == null ? 0 : FIXED_FIELDS);
+        for (byte[] field : fields) {
+            length += 4 + (field == null ? 0 : field.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(length - 4);
+        buffer.put(type);
+        buffer.putLong(record == null ? System.currentTimeMillis() : record.getTimestamp());
+        if (record != null) {
+            buffer.put((byte) (record.getType() == null ? 0 : record.getType().ordinal() + 1));
+            buffer.put((byte) record.getOutcome().ordinal());
+            buffer.putDouble(record.getPrice() == null ? Double.NaN : record.getPrice());
+            buffer.putDouble(record.getCount() == null ? Double.NaN : record.getCount());
+            buffer.putInt(record.getLeft());
+            buffer.putInt(record.getTop());
+        }
+        for (byte[] field : fields) {
+            if (field == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(field.length).put(field);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Double readNumber(ByteBuffer buffer) {
+        double value = buffer.getDouble();
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            int read = channel.read(bytes, position);
+            if (read < 0) {
+                throw new EOFException("History record at " + position + " is incomplete");
+            }
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+    private interface Command {
+    }
+
+    private static class Append implements Command {
+        private final long offset;
+        private final ByteBuffer bytes;
+
+        private Append(long offset, ByteBuffer bytes) {
+            this.offset = offset;
+            this.bytes = bytes;
+        }
+    }
+
+    private static class Barrier implements Command {
+        private final CountDownLatch written = new CountDownLatch(1);
+    }
+}
@@ -0,0 +1,60 @@
+package com.mercury.platform.shared.history;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive longs, record offsets mostly.
+ */
+class LongList {
+    private long[] values;
+    private int size;
+
+    LongList() {
+        this(16);
+    }
+
+    LongList(int capacity) {
+        this.values = new long[Math.max(capacity, 1)];
+    }
+
+    void add(long value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.size * 2);
+        }
+        this.values[this.size++] = value;
+    }
+
+    void addAll(LongList other) {
+        for (int i = 0; i < other.size; i++) {
+            this.add(other.values[i]);
+        }
+    }
+
+    LongList copy() {
+        LongList copy = new LongList(this.size);
+        copy.addAll(this);
+        return copy;
+    }
+
+    long get(int index) {
+        if (index >= this.size) {
+            throw new IndexOutOfBoundsException(index + " of " + this.size);
+        }
+        return this.values[index];
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * @see Arrays#binarySearch(long[], int, int, long)
+     */
+    int binarySearch(long value) {
+        return Arrays.binarySearch(this.values, 0, this.size, value);
+    }
+}
@@ -2,7 +2,9 @@ package com.mercury.platform.shared.store;
 
 import com.mercury.platform.core.misc.SoundType;
 import com.mercury.platform.core.utils.interceptor.MessageInterceptor;
+import com.mercury.platform.core.utils.tail.LogRotation;
 import com.mercury.platform.shared.FrameVisibleState;
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.descriptor.HotKeyDescriptor;
 import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
 import com.mercury.platform.shared.config.descriptor.adr.AdrVisibleState;
@@ -45,6 +47,7 @@ public class MercuryStoreCore {
     public static final PublishSubject<Integer> updateInfoSubject = PublishSubject.create();
     public static final PublishSubject<Boolean> updateReadySubject = PublishSubject.create();
     public static final PublishSubject<Boolean> saveConfigSubject = PublishSubject.create();
+    public static final PublishSubject<ConfigSection> saveConfigSectionSubject = PublishSubject.create();
     public static final PublishSubject<Boolean> toDefaultSubject = PublishSubject.create();
     public static final PublishSubject<ProfileDescriptor> changeProfileSubject = PublishSubject.create();
     public static final PublishSubject<HotKeyDescriptor> hotKeySubject = PublishSubject.create();
@@ -52,6 +55,10 @@ public class MercuryStoreCore {
     public static final PublishSubject<Boolean> blockHotkeySubject = PublishSubject.create();
     public static final PublishSubject<MercuryError> errorHandlerSubject = PublishSubject.create();
     public static final PublishSubject<AdrVisibleState> adrVisibleSubject = PublishSubject.create();
+    public static final PublishSubject<Boolean> importHistorySubject = PublishSubject.create();
+    public static final PublishSubject<Integer> historyImportProgressSubject = PublishSubject.create();
+    public static final PublishSubject<Integer> historyImportedSubject = PublishSubject.create();
+    public static final PublishSubject<LogRotation> clientLogRotatedSubject = PublishSubject.create();
 
     public static final PublishSubject<NotificationDescriptor> newNotificationSubject = PublishSubject.create();
     public static final PublishSubject<NotificationDescriptor> removeNotificationSubject = PublishSubject.create();
@@ -0,0 +1,48 @@
+package com.mercury.platform.core.utils.backfill;
+
+import com.mercury.platform.core.utils.tail.LogTimestampParser;
+import com.mercury.platform.shared.history.HistoryRecord;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ClientLogBackfillTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void findsIncomingWhispersAcrossChunks() throws Exception {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            log.append("2017/05/01 10:00:00 123 [INFO Client 1] : You have entered Hideout.\r\n");
+            log.append("2017/05/01 10:00:01 123 [INFO Client 1] @From Buyer").append(i)
+                    .append(": Hi, I would like to buy your Item").append(i)
+                    .append(" listed for 1 chaos in Standard (stash tab \"a\"; position: left 1, top 2)\r\n");
+            log.append("2017/05/01 10:00:02 123 [INFO Client 1] @To Seller: Hi, I would like to buy your Other listed for 1 chaos in Standard\r\n");
+        }
+        File file = folder.newFile("Client.txt");
+        Files.write(file.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+
+        ClientLogBackfill backfill = new ClientLogBackfill(file.getPath(), new ForkJoinPool(4), 1000);
+        AtomicLong progress = new AtomicLong();
+        backfill.setProgressListener((processed, total) -> progress.accumulateAndGet(processed, Math::max));
+        List<HistoryRecord> result = backfill.run();
+
+        assertEquals(200, result.size());
+        long timestamp = new LogTimestampParser().parse("2017/05/01 10:00:01");
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals("Buyer" + i, result.get(i).getNickname());
+            assertEquals(timestamp, result.get(i).getTimestamp());
+        }
+        assertEquals(file.length(), progress.get());
+    }
+}
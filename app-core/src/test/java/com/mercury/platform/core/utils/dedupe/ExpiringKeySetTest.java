@@ -0,0 +1,61 @@
+package com.mercury.platform.core.utils.dedupe;
+
+import com.mercury.platform.shared.MessageParser;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ExpiringKeySetTest {
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private final AtomicLong clock = new AtomicLong(1_000_000 * MINUTE + 123);
+    private final ExpiringKeySet keys = new ExpiringKeySet(60 * MINUTE, 60, 100, this.clock::get);
+
+    @Test
+    public void expiresAfterTimeToLive() throws Exception {
+        this.keys.add("offer");
+        this.clock.addAndGet(60 * MINUTE - 1);
+        assertTrue(this.keys.contains("offer"));
+        this.clock.addAndGet(1);
+        assertFalse(this.keys.contains("offer"));
+        this.clock.addAndGet(MINUTE);
+        assertEquals(0, this.keys.size());
+    }
+
+    @Test
+    public void addingAgainRestartsTimeToLive() throws Exception {
+        this.keys.add("offer");
+        this.clock.addAndGet(50 * MINUTE);
+        this.keys.add("offer");
+        this.clock.addAndGet(50 * MINUTE);
+        assertTrue(this.keys.contains("offer"));
+        this.clock.addAndGet(10 * MINUTE);
+        assertFalse(this.keys.contains("offer"));
+        this.clock.addAndGet(5 * 60 * MINUTE);
+        assertEquals(0, this.keys.size());
+    }
+
+    @Test
+    public void staysBoundedAndDropsOldestFirst() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            this.keys.add("offer" + i);
+            this.clock.addAndGet(MINUTE / 10);
+        }
+        assertEquals(100, this.keys.size());
+        assertTrue(this.keys.contains("offer999"));
+        assertTrue(this.keys.contains("offer900"));
+        assertFalse(this.keys.contains("offer0"));
+    }
+
+    @Test
+    public void fingerprintIgnoresBuyerAndNote() throws Exception {
+        MessageParser parser = new MessageParser();
+        String first = OfferFingerprint.of(parser.parse("@From buyer1: Hi, I would like to buy your Rain of Arrows listed for 1 chaos in Legacy (stash tab \"1\"; position: left 1, top 2) hi"));
+        String second = OfferFingerprint.of(parser.parse("@From <GUILD> Buyer2: Hi, I would like to buy your rain of  arrows listed for 1 chaos in Legacy (stash tab \"1\"; position: left 1, top 2)"));
+        String other = OfferFingerprint.of(parser.parse("@From buyer1: Hi, I would like to buy your Rain of Arrows listed for 1 chaos in Legacy (stash tab \"1\"; position: left 1, top 3) hi"));
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+    }
+}
@@ -0,0 +1,99 @@
+package com.mercury.platform.core.utils.digest;
+
+import com.mercury.platform.shared.entity.message.PlainMessageDescriptor;
+import com.mercury.platform.shared.entity.message.ScannerDigestDescriptor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ScannerBurstCoalescerTest {
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final List<Object> delivered = new ArrayList<>();
+    private int sounds;
+    private long window = 1000;
+
+    private final ScannerBurstCoalescer coalescer = new ScannerBurstCoalescer(
+            () -> this.window,
+            (task, delayMillis) -> this.scheduled.add(task),
+            new ScannerBurstCoalescer.Sink() {
+                @Override
+                public void onMessage(PlainMessageDescriptor message) {
+                    delivered.add(message);
+                }
+
+                @Override
+                public void onDigest(ScannerDigestDescriptor digest) {
+                    delivered.add(digest);
+                }
+
+                @Override
+                public void onSound() {
+                    sounds++;
+                }
+            });
+
+    @Test
+    public void burstBecomesOneDigestPerWindow() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            this.coalescer.offer(i % 2 == 0 ? "even" : "odd", message(i % 4 < 2 ? "Alice" : "Bob", "wtb " + i));
+        }
+        assertEquals(1, this.delivered.size());
+        assertEquals(1, this.sounds);
+        assertEquals(1, this.scheduled.size());
+
+        this.runScheduled();
+        assertEquals(2, this.delivered.size());
+        assertEquals(2, this.sounds);
+        ScannerDigestDescriptor digest = (ScannerDigestDescriptor) this.delivered.get(1);
+        assertEquals(99, digest.getTotalCount());
+        assertEquals(4, digest.getEntries().size());
+        assertEquals("odd", digest.getEntries().get(0).getRuleName());
+        assertEquals("Alice", digest.getEntries().get(0).getNickName());
+        assertEquals(25, digest.getEntries().get(0).getCount());
+        assertEquals("wtb 97", digest.getEntries().get(0).getLastMessage().getMessage());
+
+        // the quiet window after the digest closes without notifying
+        this.runScheduled();
+        assertEquals(2, this.delivered.size());
+        assertTrue(this.scheduled.isEmpty());
+        this.coalescer.offer("odd", message("Bob", "wtb again"));
+        assertEquals(3, this.delivered.size());
+        assertEquals(3, this.sounds);
+    }
+
+    @Test
+    public void singleFollowUpIsDeliveredAsIs() throws Exception {
+        this.coalescer.offer("rule", message("Alice", "first"));
+        this.coalescer.offer("rule", message("Bob", "second"));
+        this.runScheduled();
+        assertEquals("second", ((PlainMessageDescriptor) this.delivered.get(1)).getMessage());
+        assertFalse(this.delivered.get(1) instanceof ScannerDigestDescriptor);
+    }
+
+    @Test
+    public void zeroWindowDisablesCoalescing() throws Exception {
+        this.window = 0;
+        for (int i = 0; i < 3; i++) {
+            this.coalescer.offer("rule", message("Alice", "wtb " + i));
+        }
+        assertEquals(3, this.delivered.size());
+        assertEquals(3, this.sounds);
+        assertTrue(this.scheduled.isEmpty());
+    }
+
+    private void runScheduled() {
+        List<Runnable> tasks = new ArrayList<>(this.scheduled);
+        this.scheduled.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static PlainMessageDescriptor message(String nickName, String text) {
+        PlainMessageDescriptor descriptor = new PlainMessageDescriptor();
+        descriptor.setNickName(nickName);
+        descriptor.setMessage(text);
+        return descriptor;
+    }
+}
@@ -0,0 +1,37 @@
+package com.mercury.platform.core.utils.interceptor.dispatch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LineClassifierTest {
+    private LineClassifier classifier = new LineClassifier();
+
+    @Test
+    public void incomingTradeWhisper() throws Exception {
+        ClassifiedLine line = classifier.classify("2017/05/01 10:00:00 1234 abc [INFO Client 1] @From <TEST> Pubesmannen: Hi, I would like to buy your Rain of Arrows listed for 1 chaos in Legacy (stash tab \"1\"; position: left 1, top 2)");
+        assertTrue(line.isWhisper());
+        assertTrue(line.isIncoming());
+        assertTrue(line.isTradeRequest());
+        assertTrue(line.getWhisperBody().startsWith(" <TEST> Pubesmannen: Hi"));
+    }
+
+    @Test
+    public void leftmostMarkerDecidesDirection() throws Exception {
+        ClassifiedLine line = classifier.classify("2017/05/01 10:00:00 [INFO Client 1] @Кому nick: wtb ring @From me (stash \"x\"; left 1, top 1)");
+        assertTrue(line.isWhisper());
+        assertFalse(line.isIncoming());
+        assertTrue(line.isTradeRequest());
+        assertEquals(" nick: wtb ring @From me (stash \"x\"; left 1, top 1)", line.getWhisperBody());
+    }
+
+    @Test
+    public void channelsAndArea() throws Exception {
+        assertTrue(classifier.classify("[INFO Client 1] $nick: wts exalted").has(LineFeature.TRADE_CHANNEL));
+        assertTrue(classifier.classify("[INFO Client 1] #nick: hello").has(LineFeature.GLOBAL_CHANNEL));
+        ClassifiedLine joined = classifier.classify("[INFO Client 1] : nick has joined the area.");
+        assertTrue(joined.has(LineFeature.PLAYER_JOINED));
+        assertFalse(joined.isWhisper());
+        assertEquals(0, classifier.classify("[INFO Client 1] Connecting to instance server").getFeatures());
+    }
+}
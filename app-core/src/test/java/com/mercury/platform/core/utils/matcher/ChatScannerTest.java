@@ -0,0 +1,34 @@
+package com.mercury.platform.core.utils.matcher;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ChatScannerTest {
+    @Test
+    public void matchesIncludeWordsIgnoringCase() throws Exception {
+        ChatScanner scanner = ChatScanner.compile("Kaom's heart, exalted ,,");
+        assertEquals(Collections.singletonList(new ChatScanner.Span(4, 16)), scanner.scan("WTB KAOM'S HEART 1 ex"));
+        assertEquals(Arrays.asList(new ChatScanner.Span(0, 7), new ChatScanner.Span(12, 19)),
+                scanner.scan("Exalted for exalted"));
+        assertNull(scanner.scan("wts tabula"));
+    }
+
+    @Test
+    public void excludeWordRejectsLine() throws Exception {
+        ChatScanner scanner = ChatScanner.compile("tabula, !wts");
+        assertNotNull(scanner.scan("wtb tabula"));
+        assertNull(scanner.scan("WTS tabula"));
+        assertNull(ChatScanner.compile("!wts").scan("wtb tabula"));
+    }
+
+    @Test
+    public void prefersLeftmostLongestSpans() throws Exception {
+        ChatScanner scanner = ChatScanner.compile("ex,exalted,alt");
+        assertEquals(Collections.singletonList(new ChatScanner.Span(2, 9)), scanner.scan("1 exalted", 0, 9));
+        assertEquals(Arrays.asList(new ChatScanner.Span(4, 7), new ChatScanner.Span(10, 12)), scanner.scan("1 exalted ex", 3, 12));
+    }
+}
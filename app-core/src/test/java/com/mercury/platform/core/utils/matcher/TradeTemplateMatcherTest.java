@@ -0,0 +1,86 @@
+package com.mercury.platform.core.utils.matcher;
+
+import com.mercury.platform.core.utils.interceptor.dispatch.LineClassifier;
+import com.mercury.platform.shared.MessageParser;
+import com.mercury.platform.shared.entity.message.CurrencyTradeNotificationDescriptor;
+import com.mercury.platform.shared.entity.message.ItemTradeNotificationDescriptor;
+import com.mercury.platform.shared.entity.message.NotificationType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TradeTemplateMatcherTest {
+    private final TradeTemplateMatcher matcher = TradeTemplateMatcher.INSTANCE;
+
+    @Test
+    public void parsesLocalizedItemWhisper() throws Exception {
+        ItemTradeNotificationDescriptor descriptor = (ItemTradeNotificationDescriptor) matcher.match(
+                "<ГИЛЬДИЯ> Игрок: Здравствуйте, хочу купить у вас Кольцо Гибели за 2.5 chaos в лиге Стандарт (секция \"Продажа 1\"; позиция: 3 столбец, 7 ряд) 1 exa?");
+        assertEquals("Игрок", descriptor.getWhisperNickname());
+        assertEquals("Кольцо Гибели", descriptor.getItemName());
+        assertEquals(2.5, descriptor.getCurCount(), 0);
+        assertEquals("chaos", descriptor.getCurrency());
+        assertEquals("Стандарт", descriptor.getLeague());
+        assertEquals("Продажа 1", descriptor.getTabName());
+        assertEquals(3, descriptor.getLeft());
+        assertEquals(7, descriptor.getTop());
+        assertEquals("1 exa?", descriptor.getOffer());
+        assertEquals(NotificationType.INC_ITEM_MESSAGE, descriptor.getType());
+
+        descriptor = (ItemTradeNotificationDescriptor) matcher.match("jogador: Olá, eu gostaria de comprar o seu item Arco Longo na Padrão");
+        assertEquals("Arco Longo", descriptor.getItemName());
+        assertEquals("???", descriptor.getCurrency());
+        assertEquals("Padrão", descriptor.getLeague());
+    }
+
+    @Test
+    public void parsesLocalizedCurrencyWhisper() throws Exception {
+        CurrencyTradeNotificationDescriptor descriptor = (CurrencyTradeNotificationDescriptor) new MessageParser().parse(
+                " jogador: Olá, eu gostaria de comprar seu(s) 10 exalted pelo(s) meu(s) 750 chaos na Legacy.");
+        assertEquals("jogador", descriptor.getWhisperNickname());
+        assertEquals(10, descriptor.getCurrForSaleCount(), 0);
+        assertEquals("exalted", descriptor.getCurrForSaleTitle());
+        assertEquals(750, descriptor.getCurCount(), 0);
+        assertEquals("chaos", descriptor.getCurrency());
+        assertEquals("Legacy", descriptor.getLeague());
+        assertEquals("", descriptor.getOffer());
+    }
+
+    @Test
+    public void ignoresEnglishAndBrokenWhispers() throws Exception {
+        assertNull(matcher.match("Pubesmannen: Hi, I would like to buy your Rain of Arrows in Legacy"));
+        assertNull(matcher.match("Игрок: Здравствуйте, хочу купить у вас Кольцо за много chaos"));
+        assertNull(matcher.match(": Здравствуйте, хочу купить у вас Кольцо в лиге Стандарт"));
+    }
+
+    @Test
+    public void localizedWhispersAreTradeRequests() throws Exception {
+        assertTrue(new LineClassifier().classify("2017/05/01 10:00:00 [INFO Client 1] @От кого Игрок: Здравствуйте, хочу купить у вас Кольцо в лиге Стандарт").isTradeRequest());
+    }
+
+    @Test
+    public void triesTemplatesInOrder() throws Exception {
+        Map<String, List<String>> templates = new LinkedHashMap<>();
+        templates.put("a", Arrays.asList("buy {item} for {price} {currency} in {league}", "buy {item} in {league}"));
+        templates.put("b", Collections.singletonList("kaufe {item} in {league}"));
+        TradeTemplateMatcher matcher = new TradeTemplateMatcher(TradeTemplateMatcher.compile(templates));
+        assertEquals(2, matcher.getAnchors().size());
+        ItemTradeNotificationDescriptor descriptor = (ItemTradeNotificationDescriptor) matcher.match("nick: buy a for b in c for 3 chaos in Standard");
+        assertEquals("a for b in c", descriptor.getItemName());
+        assertEquals("chaos", descriptor.getCurrency());
+        assertEquals("Standard", descriptor.getLeague());
+        descriptor = (ItemTradeNotificationDescriptor) matcher.match("nick: kaufe Ring in Standard");
+        assertEquals("Ring", descriptor.getItemName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAdjacentPlaceholders() throws Exception {
+        TradeTemplate.compile("a", "buy {item}{league}");
+    }
+}
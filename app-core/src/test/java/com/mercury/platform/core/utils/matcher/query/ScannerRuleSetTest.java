@@ -0,0 +1,76 @@
+package com.mercury.platform.core.utils.matcher.query;
+
+import com.mercury.platform.core.utils.matcher.ChatScanner;
+import com.mercury.platform.shared.config.descriptor.ScannerDescriptor;
+import com.mercury.platform.shared.config.descriptor.ScannerRuleDescriptor;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ScannerRuleSetTest {
+    @Test
+    public void parsesOperatorsWithPrecedence() throws Exception {
+        assertEquals("(\"a\" OR (\"b\" AND \"c\"))", QueryParser.parse("a OR b c").toString());
+        assertEquals("(\"c\" AND (\"a\" OR \"b\"))", QueryParser.parse("(a | b) & c").toString());
+        assertEquals("(\"wtb\" AND NOT \"wts\")", QueryParser.parse("wtb -wts").toString());
+        assertEquals("\"or\"", QueryParser.parse("or").toString());
+        assertEquals("\"kaom's heart\"", QueryParser.parse("\"kaom's heart\"").toString());
+    }
+
+    @Test
+    public void ordersCheapTermsBeforeRegex() throws Exception {
+        assertEquals("($ AND \"shaper\" AND /^wtb/)", QueryParser.parse("/^wtb/ shaper channel:trade").toString());
+    }
+
+    @Test
+    public void reportsMalformedQueries() throws Exception {
+        for (String query : Arrays.asList("(a", "a OR", "\"a", "/[/", "channel:party", "a )", "| a")) {
+            try {
+                QueryParser.parse(query);
+                fail(query);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains(query));
+            }
+        }
+    }
+
+    @Test
+    public void matchesRulesAndCountsEvaluations() throws Exception {
+        ScannerRule shaper = ScannerRuleSet.compile("shaper", "shaper AND NOT wts");
+        ScannerRule regex = ScannerRuleSet.compile("regex", "/^wtb .*\\d+ ?c$/ #");
+        ScannerRuleSet ruleSet = new ScannerRuleSet(Arrays.asList(shaper, regex));
+
+        String line = "] #Trader: wtb Shaper orb 10c";
+        ScannerRuleSet.Match match = ruleSet.match(line, 11, line.length(), '#');
+        assertEquals(Arrays.asList(shaper, regex), match.getRules());
+        assertEquals(Collections.singletonList(new ChatScanner.Span(15, 21)), match.getSpans());
+
+        assertNull(ruleSet.match("wts shaper orb", 0, 14, '$'));
+        assertNull(ruleSet.match("nothing here", 0, 12, '$'));
+        assertEquals(3, shaper.getEvaluations());
+        assertEquals(1, shaper.getHits());
+        assertEquals(1, shaper.getSkipped());
+        assertEquals(3, regex.getEvaluations());
+        assertEquals(1, regex.getHits());
+    }
+
+    @Test
+    public void legacyWordsBecomeRule() throws Exception {
+        ScannerDescriptor descriptor = new ScannerDescriptor();
+        descriptor.setWords("!wtb, uber, boss");
+        descriptor.setRules(Arrays.asList(
+                new ScannerRuleDescriptor("off", "tabula", false),
+                new ScannerRuleDescriptor("on", "\"six link\"", true)));
+        ScannerRuleSet ruleSet = ScannerRuleSet.compile(descriptor);
+        assertEquals(2, ruleSet.getRules().size());
+        assertEquals(ScannerRuleSet.WORDS_RULE, ruleSet.getRules().get(0).getName());
+
+        assertNotNull(ruleSet.match("WTS uber lab carry", 0, 18, '$'));
+        assertNull(ruleSet.match("wtb uber lab carry", 0, 18, '$'));
+        assertNull(ruleSet.match("wts tabula", 0, 10, '$'));
+        assertEquals("on", ruleSet.match("Six Link bow", 0, 12, '#').getRules().get(0).getName());
+    }
+}
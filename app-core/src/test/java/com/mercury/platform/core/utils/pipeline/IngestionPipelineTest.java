@@ -0,0 +1,74 @@
+package com.mercury.platform.core.utils.pipeline;
+
+import com.mercury.platform.core.utils.interceptor.MessageInterceptor;
+import com.mercury.platform.core.utils.interceptor.dispatch.ClassifiedLine;
+import com.mercury.platform.core.utils.interceptor.dispatch.InterceptorDispatcher;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineClassifier;
+import com.mercury.platform.core.utils.interceptor.filter.MessageFilter;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class IngestionPipelineTest {
+    @Test
+    public void dropsChannelLinesWhenFull() {
+        IngestionPipeline pipeline = new IngestionPipeline(new InterceptorDispatcher(), 2, 2);
+        ClassifiedLine line = LineClassifier.INSTANCE.classify("2017/05/01 10:00:00 123 [INFO Client 1] $Trader: WTB exalted");
+        assertTrue(pipeline.submit(line));
+        assertTrue(pipeline.submit(line));
+        assertFalse(pipeline.submit(line));
+        assertEquals(2, pipeline.getLineQueueDepth());
+        assertEquals(1, pipeline.getDroppedCount());
+    }
+
+    @Test
+    public void coalescesQueuedEventsWithSameKey() throws Exception {
+        IngestionPipeline pipeline = new IngestionPipeline(new InterceptorDispatcher());
+        CountDownLatch delivered = new CountDownLatch(2);
+        pipeline.publish("sound", delivered::countDown);
+        pipeline.publish("sound", delivered::countDown);
+        pipeline.publish(delivered::countDown);
+        assertEquals(1, pipeline.getCoalescedCount());
+        assertEquals(2, pipeline.getEventQueueDepth());
+
+        pipeline.start();
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        pipeline.publish("sound", () -> {});
+        assertEquals(1, pipeline.getCoalescedCount());
+        pipeline.close();
+    }
+
+    @Test
+    public void closeDrainsQueuedLinesAndEvents() {
+        InterceptorDispatcher dispatcher = new InterceptorDispatcher();
+        IngestionPipeline pipeline = new IngestionPipeline(dispatcher, 64, 4);
+        AtomicInteger published = new AtomicInteger();
+        MessageInterceptor interceptor = new MessageInterceptor() {
+            @Override
+            protected void process(String message) {
+                this.publish(published::incrementAndGet);
+            }
+
+            @Override
+            protected MessageFilter getFilter() {
+                return message -> message.contains("@From");
+            }
+        };
+        interceptor.setPublisher(pipeline);
+        dispatcher.add(interceptor);
+        ClassifiedLine line = LineClassifier.INSTANCE.classify("2017/05/01 10:00:00 123 [INFO Client 1] @From Buyer: Hi, I would like to buy your Item");
+        for (int i = 0; i < 50; i++) {
+            assertTrue(pipeline.submit(line));
+        }
+
+        pipeline.start();
+        pipeline.close();
+        assertEquals(0, pipeline.getLineQueueDepth());
+        assertEquals(0, pipeline.getEventQueueDepth());
+        assertEquals(50, published.get());
+    }
+}
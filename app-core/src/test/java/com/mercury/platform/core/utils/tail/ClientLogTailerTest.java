@@ -0,0 +1,129 @@
+package com.mercury.platform.core.utils.tail;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ClientLogTailerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readsOnlyAppendedCompleteLines() throws Exception {
+        File log = folder.newFile("Client.txt");
+        append(log, "2017/05/01 10:00:00 old line\r\n");
+        TailCheckpoint checkpoint = new TailCheckpoint(new File(folder.getRoot(), "checkpoint.json").getPath());
+        ClientLogTailer tailer = new ClientLogTailer(log.getPath(), checkpoint);
+        tailer.open();
+        assertTrue(tailer.poll().isEmpty());
+
+        append(log, "2017/05/01 10:00:01 @From Кто-то: привет\r\n2017/05/01 10:00:02 partial");
+        assertEquals(Collections.singletonList("2017/05/01 10:00:01 @From Кто-то: привет"), tailer.poll());
+
+        append(log, " line\r\n");
+        assertEquals(Collections.singletonList("2017/05/01 10:00:02 partial line"), tailer.poll());
+        assertEquals(log.length(), tailer.getOffset());
+        tailer.close();
+    }
+
+    @Test
+    public void resumesFromCheckpoint() throws Exception {
+        File log = folder.newFile("Client.txt");
+        TailCheckpoint checkpoint = new TailCheckpoint(new File(folder.getRoot(), "checkpoint.json").getPath());
+        ClientLogTailer tailer = new ClientLogTailer(log.getPath(), checkpoint);
+        tailer.open();
+        append(log, "first\nsecond\nthird");
+        assertEquals(Arrays.asList("first", "second"), tailer.poll());
+        tailer.close();
+
+        append(log, "\nfourth\n");
+        ClientLogTailer restarted = new ClientLogTailer(log.getPath(), checkpoint);
+        restarted.open();
+        assertEquals(Arrays.asList("third", "fourth"), restarted.poll());
+        restarted.close();
+    }
+
+    @Test
+    public void persistsTimestampOfLastLine() throws Exception {
+        File log = folder.newFile("Client.txt");
+        TailCheckpoint checkpoint = new TailCheckpoint(new File(folder.getRoot(), "checkpoint.json").getPath());
+        ClientLogTailer tailer = new ClientLogTailer(log.getPath(), checkpoint);
+        tailer.open();
+        assertFalse(tailer.isResumed());
+        append(log, "first\n");
+        tailer.poll((line, lineOffset) -> tailer.setTimestamp(42));
+        tailer.close();
+
+        ClientLogTailer restarted = new ClientLogTailer(log.getPath(), checkpoint);
+        restarted.open();
+        assertTrue(restarted.isResumed());
+        assertEquals(42, restarted.getTimestamp());
+        restarted.close();
+    }
+
+    @Test
+    public void decodesLinesLongerThanReadBuffer() throws Exception {
+        File log = folder.newFile("Client.txt");
+        ClientLogTailer tailer = new ClientLogTailer(log.getPath(), null);
+        tailer.open();
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            longLine.append("ж");
+        }
+        append(log, longLine + "\r\nshort\r\n");
+        assertEquals(Arrays.asList(longLine.toString(), "short"), tailer.poll());
+        tailer.close();
+    }
+
+    @Test
+    public void restartsAfterTruncation() throws Exception {
+        File log = folder.newFile("Client.txt");
+        ClientLogTailer tailer = new ClientLogTailer(log.getPath(), null);
+        List<LogRotation> rotations = new ArrayList<>();
+        tailer.setRotationHandler(rotations::add);
+        tailer.open();
+        append(log, "first line\nsecond line\n");
+        assertEquals(Arrays.asList("first line", "second line"), tailer.poll());
+
+        Files.write(log.toPath(), "new\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(Collections.singletonList("new"), tailer.poll());
+        Files.write(log.toPath(), "longer than before\n".getBytes(StandardCharsets.UTF_8));
+        append(log, "still new\n");
+        assertEquals(Arrays.asList("longer than before", "still new"), tailer.poll());
+        assertEquals(Arrays.asList(LogRotation.TRUNCATED, LogRotation.TRUNCATED), rotations);
+        tailer.close();
+    }
+
+    @Test
+    public void switchesToReplacingFile() throws Exception {
+        File log = folder.newFile("Client.txt");
+        ClientLogTailer tailer = new ClientLogTailer(log.getPath(), null);
+        List<LogRotation> rotations = new ArrayList<>();
+        tailer.setRotationHandler(rotations::add);
+        tailer.open();
+        append(log, "old\nold tail");
+
+        File replacement = folder.newFile("Client.new");
+        append(replacement, "replacement\n");
+        Files.move(replacement.toPath(), log.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        assertEquals(Arrays.asList("old", "old tail", "replacement"), tailer.poll());
+        assertEquals(Collections.singletonList(LogRotation.REPLACED), rotations);
+        tailer.close();
+    }
+
+    private void append(File file, String text) throws Exception {
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+}
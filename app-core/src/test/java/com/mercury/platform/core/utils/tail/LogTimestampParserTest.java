@@ -0,0 +1,39 @@
+package com.mercury.platform.core.utils.tail;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.Assert.*;
+
+public class LogTimestampParserTest {
+    @Test
+    public void parsesPrefixInZone() throws Exception {
+        ZoneId zone = ZoneId.of("Europe/Moscow");
+        LogTimestampParser parser = new LogTimestampParser(zone);
+        String[] lines = {
+                "2017/05/01 10:00:00 1234 abc [INFO Client 1] @From nick: hi",
+                "2018/12/31 23:59:59 end of year",
+                "2019/02/28 00:00:01 other year",
+                "2020/02/29 12:30:45 leap day"
+        };
+        for (String line : lines) {
+            LocalDateTime expected = LocalDateTime.of(
+                    Integer.parseInt(line.substring(0, 4)), Integer.parseInt(line.substring(5, 7)),
+                    Integer.parseInt(line.substring(8, 10)), Integer.parseInt(line.substring(11, 13)),
+                    Integer.parseInt(line.substring(14, 16)), Integer.parseInt(line.substring(17, 19)));
+            assertEquals(line, expected.atZone(zone).toInstant().toEpochMilli(), parser.parse(line));
+        }
+    }
+
+    @Test
+    public void rejectsLinesWithoutTimestamp() throws Exception {
+        LogTimestampParser parser = new LogTimestampParser(ZoneId.of("UTC"));
+        assertEquals(-1, parser.parse(""));
+        assertEquals(-1, parser.parse("Connecting to instance server"));
+        assertEquals(-1, parser.parse("2017/13/01 10:00:00 bad month"));
+        assertEquals(-1, parser.parse("2017/02/30 10:00:00 bad day"));
+        assertEquals(-1, parser.parse("2017-05-01 10:00:00 wrong separators"));
+    }
+}
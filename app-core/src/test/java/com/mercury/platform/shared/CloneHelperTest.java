@@ -1,9 +1,16 @@
 package com.mercury.platform.shared;
 
 import com.mercury.platform.shared.config.configration.impl.adr.AdrConfigurationServiceMock;
+import com.mercury.platform.shared.config.descriptor.SoundDescriptor;
+import com.mercury.platform.shared.config.descriptor.adr.AdrComponentDescriptor;
 import com.mercury.platform.shared.config.descriptor.adr.AdrIconDescriptor;
+import com.mercury.platform.shared.config.descriptor.adr.AdrProgressBarDescriptor;
+import com.mercury.platform.shared.config.descriptor.adr.AdrTrackerGroupDescriptor;
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 
 public class CloneHelperTest {
@@ -15,4 +22,42 @@ public class CloneHelperTest {
         cloned.setComponentId(cloned.getComponentId() + 10341);
         assertNotEquals(sourceIcon,cloned);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void deepCopiesPolymorphicGroup() throws Exception {
+        AdrConfigurationServiceMock config = new AdrConfigurationServiceMock(null);
+        AdrTrackerGroupDescriptor group = config.getDefaultPBGroup();
+        AdrProgressBarDescriptor progressBar = config.getDefaultProgressBar();
+        group.getCells().add(progressBar);
+        group.getCells().add(config.getDefaultIcon());
+        group.getCells().add(progressBar);
+
+        AdrTrackerGroupDescriptor cloned = CloneHelper.cloneObject(group);
+        assertEquals(group, cloned);
+        assertNotSame(group.getCells(), cloned.getCells());
+        AdrComponentDescriptor cell = cloned.getCells().get(0);
+        assertTrue(cell instanceof AdrProgressBarDescriptor);
+        assertTrue(cloned.getCells().get(1) instanceof AdrIconDescriptor);
+        assertNotSame(progressBar, cell);
+        assertSame(cell, cloned.getCells().get(2));
+        assertNotSame(progressBar.getLocation(), cell.getLocation());
+        assertNotSame(progressBar.getHotKeyDescriptor(), ((AdrProgressBarDescriptor) cell).getHotKeyDescriptor());
+        assertSame(progressBar.getForegroundColor(), ((AdrProgressBarDescriptor) cell).getForegroundColor());
+
+        cell.getLocation().translate(5, 5);
+        assertNotEquals(group, cloned);
+    }
+
+    @Test
+    public void copiesMaps() throws Exception {
+        Map<String, SoundDescriptor> sounds = new HashMap<>();
+        SoundDescriptor sound = new SoundDescriptor();
+        sound.setWavPath("app/notification.wav");
+        sound.setDb(-10f);
+        sounds.put("notification", sound);
+
+        Map<String, SoundDescriptor> cloned = CloneHelper.cloneObject(sounds);
+        assertEquals(sounds, cloned);
+        assertNotSame(sound, cloned.get("notification"));
+    }
+}
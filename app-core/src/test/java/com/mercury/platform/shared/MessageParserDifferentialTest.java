@@ -0,0 +1,130 @@
+package com.mercury.platform.shared;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares {@link MessageParser} with the regular expressions it replaced, over messages built
+ * from the TestEngine templates and over random mixes of the template keywords. The seeds are
+ * fixed; {@code -Ddifferential.scale=<n>} runs n times as many cases.
+ */
+public class MessageParserDifferentialTest {
+    private static final List<String> ITEMS = Arrays.asList("Wondertrap Velvet Slippers", "Rain of Arrows",
+            "Dreadarc Cleaver", "Three-step Assault Shagreen Boots", "Thunderous Skies", "level 1 4% Reduced Mana Support",
+            "Pain Breaker Blood Sceptre", "Freeze Mine", "The Lunaris Priestess", "Bronn's Lithe Cutthroat's Garb");
+    private static final List<String> CURRENCY = Arrays.asList("alteration", "apprentice  sextant", "exalted",
+            "esh's breachstone", "blessing of uul-netol", "chaos", "gcp", "journeyman sextant", "mirror", "splinter of xoph");
+    private static final List<String> NICKNAMES = Arrays.asList("Example1", "@From Example2", "@From <GUILD> Example3",
+            "@To Example4", "2017/05/01 10:00:00 12 [INFO Client 1] @From <TEST> Pubesmannen");
+    private static final List<String> OFFERS = Arrays.asList("offer", " ", "", "  ", "offer offer offer offer offer", "offer 32");
+    private static final List<String> LEAGUES = Arrays.asList("Standard", "Hardcore Legacy", "Legacy", "Beta Standard",
+            "1 Week Legacy (JRE055)", "1 Week Legacy HC (JRE055)");
+    private static final List<String> TEMPLATES = Arrays.asList(
+            "%s: Hi, I would like to buy your %s listed for %d %s in %s (stash tab \"%d\"; position: left %d, top %d) %s",
+            "%s: Hi, I would like to buy your %s in %s (stash tab \"%d\"; position: left %d, top %d)%s",
+            "%s: Hi, I would like to buy your %s listed for %d %s in %s",
+            "%s: Hi, I would like to buy your %s in %s",
+            "%s: wtb %s listed for %d %s in %s (stash \"%d\"; left %d, top %d) %s",
+            "%s:wtb %s in %s (stash \"%d\"; left %d, top %d)%s",
+            "%s: Hi, I'd like to buy your %d %s for my %d %s in %s. %s",
+            "%s: Hi, I'd like to buy your %d %s for my %d %s in %s.");
+    private static final List<String> KEYWORDS = Arrays.asList(" ", " ", "  ", "\t", ":", ": ", "@From ", "wtb", "wtb ",
+            " to buy your", " to buy your ", "listed for", " listed for ", " in ", "in", " in", "(stash", "(stash ",
+            "(stash tab \"", "\"; position: left ", ", top ", "\";", " left ", "left", "top", " top ", ",", ")", "\"",
+            " for my ", "for my", ".", ". ", "1", "12", "3.5", "1.2.3", "0", "chaos", "Standard", "x", "Hi, I would like",
+            "99999999999");
+
+    private static final int SCALE = Integer.getInteger("differential.scale", 1);
+
+    private final MessageParser parser = new MessageParser();
+    private final RegexMessageParser reference = new RegexMessageParser();
+
+    @Test
+    public void matchesRegexOnTemplateMessages() {
+        Random random = new Random(1);
+        for (int i = 0; i < 2000 * SCALE; i++) {
+            String template = TEMPLATES.get(random.nextInt(TEMPLATES.size()));
+            String message;
+            if (template.contains("for my")) {
+                message = String.format(template, pick(random, NICKNAMES), random.nextInt(200) + 1, pick(random, CURRENCY),
+                        random.nextInt(200) + 1, pick(random, CURRENCY), pick(random, LEAGUES), pick(random, OFFERS));
+            } else if (template.contains("listed for") && template.contains("stash")) {
+                message = String.format(template, pick(random, NICKNAMES), pick(random, ITEMS), random.nextInt(200),
+                        pick(random, CURRENCY), pick(random, LEAGUES), random.nextInt(30), random.nextInt(12) + 1,
+                        random.nextInt(12) + 1, pick(random, OFFERS));
+            } else if (template.contains("stash")) {
+                message = String.format(template, pick(random, NICKNAMES), pick(random, ITEMS), pick(random, LEAGUES),
+                        random.nextInt(30), random.nextInt(12) + 1, random.nextInt(12) + 1, pick(random, OFFERS));
+            } else if (template.contains("listed for")) {
+                message = String.format(template, pick(random, NICKNAMES), pick(random, ITEMS), random.nextInt(200),
+                        pick(random, CURRENCY), pick(random, LEAGUES));
+            } else {
+                message = String.format(template, pick(random, NICKNAMES), pick(random, ITEMS), pick(random, LEAGUES));
+            }
+            assertNotNull(message, this.parser.parse(message));
+            assertSameResult(message);
+        }
+    }
+
+    @Test
+    public void matchesRegexOnKeywordSoup() {
+        Random random = new Random(2);
+        for (int i = 0; i < 5000 * SCALE; i++) {
+            StringBuilder message = new StringBuilder();
+            int parts = 1 + random.nextInt(24);
+            for (int j = 0; j < parts; j++) {
+                message.append(pick(random, KEYWORDS));
+            }
+            assertSameResult(message.toString());
+        }
+    }
+
+    @Test
+    public void matchesRegexOnMutatedMessages() {
+        Random random = new Random(3);
+        String[] seeds = {
+                "@From <TEST> Pubesmannen: Hi, I would like to buy your Bronn's Lithe Cutthroat's Garb listed for 15 exalt in Legacy (stash tab \"Maps\"; position: left 5, top 6) offer 32",
+                "@From Pubesmannen: Hi, I would like to buy your level 1 4% Reduced Mana Support in Hardcore (stash tab \"qgems\"; position: left 12, top 4)",
+                "@From <qwe> tradeeer: Hi, I'd like to buy your 366 chaos for my 5 exalted in Legacy. 123",
+                "@From buyer: wtb Rain of Arrows listed for 2.5 chaos in Standard (stash \"1\"; left 3, top 4) hi"
+        };
+        for (int i = 0; i < 3000 * SCALE; i++) {
+            StringBuilder message = new StringBuilder(seeds[random.nextInt(seeds.length)]);
+            int edits = 1 + random.nextInt(3);
+            for (int j = 0; j < edits; j++) {
+                int at = random.nextInt(message.length() + 1);
+                if (random.nextBoolean() && at < message.length()) {
+                    message.delete(at, Math.min(message.length(), at + 1 + random.nextInt(4)));
+                } else {
+                    message.insert(at, pick(random, KEYWORDS));
+                }
+            }
+            assertSameResult(message.toString());
+        }
+    }
+
+    private void assertSameResult(String message) {
+        Object expected;
+        try {
+            expected = this.reference.parse(message);
+        } catch (RuntimeException e) {
+            expected = e.getClass();
+        }
+        Object actual;
+        try {
+            actual = this.parser.parse(message);
+        } catch (RuntimeException e) {
+            actual = e.getClass();
+        }
+        assertEquals(message, expected, actual);
+    }
+
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
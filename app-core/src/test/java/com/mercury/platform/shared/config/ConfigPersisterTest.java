@@ -0,0 +1,70 @@
+package com.mercury.platform.shared.config;
+
+import com.google.gson.reflect.TypeToken;
+import com.mercury.platform.shared.config.json.JSONHelper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConfigPersisterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void coalescesRequestsWithinWindow() throws Exception {
+        AtomicInteger writes = new AtomicInteger();
+        CountDownLatch written = new CountDownLatch(1);
+        ConfigPersister persister = new ConfigPersister(() -> {
+            writes.incrementAndGet();
+            written.countDown();
+        }, 100);
+        for (int i = 0; i < 10; i++) {
+            persister.requestSave();
+        }
+        assertEquals(0, writes.get());
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        persister.flush();
+        assertEquals(1, writes.get());
+
+        persister.requestSave();
+        persister.flush();
+        assertEquals(2, writes.get());
+        persister.flush();
+        assertEquals(2, writes.get());
+    }
+
+    @Test
+    public void retriesWriteRacingWithChange() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch written = new CountDownLatch(1);
+        ConfigPersister persister = new ConfigPersister(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ConcurrentModificationException();
+            }
+            written.countDown();
+        }, 10);
+        persister.requestSave();
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void replacesFileWithoutLeavingTemp() throws Exception {
+        File file = new File(this.folder.getRoot(), "configuration.json");
+        JSONHelper helper = new JSONHelper(file.getPath());
+        helper.writeListObject(Arrays.asList("a", "b"), new TypeToken<List<String>>(){});
+        helper.writeListObject(Arrays.asList("c"), new TypeToken<List<String>>(){});
+        assertEquals(Arrays.asList("c"), helper.readArrayData(new TypeToken<List<String>>(){}));
+        assertEquals(Arrays.asList("configuration.json"), Arrays.asList(this.folder.getRoot().list()));
+    }
+}
@@ -0,0 +1,113 @@
+package com.mercury.platform.shared.config;
+
+import com.google.gson.reflect.TypeToken;
+import com.mercury.platform.shared.config.descriptor.ProfileDescriptor;
+import com.mercury.platform.shared.config.descriptor.ScannerDescriptor;
+import com.mercury.platform.shared.config.json.JSONHelper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SectionedConfigStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writesOnlyChangedSections() throws Exception {
+        File index = new File(this.folder.getRoot(), "configuration.json");
+        SectionedConfigStore store = new SectionedConfigStore(this.folder.getRoot().getPath(), index.getPath());
+        ProfileDescriptor profile = this.profile("Profile1");
+        profile.setSelected(true);
+        store.writeIndex(Collections.singletonList(profile));
+
+        assertTrue(store.writeSection(0, profile, ConfigSection.SCANNER));
+        assertTrue(store.writeSection(0, profile, ConfigSection.SCALE));
+        assertFalse(store.writeSection(0, profile, ConfigSection.SCANNER));
+        assertFalse(store.writeSection(0, profile, ConfigSection.FRAMES));
+
+        profile.getScannerDescriptor().setWords("chaos,!wtb");
+        assertTrue(store.writeSection(0, profile, ConfigSection.SCANNER));
+        assertFalse(store.writeSection(0, profile, ConfigSection.SCALE));
+
+        List<ProfileDescriptor> loaded = new SectionedConfigStore(this.folder.getRoot().getPath(), index.getPath()).load();
+        assertEquals(1, loaded.size());
+        assertEquals("Profile1", loaded.get(0).getName());
+        assertEquals("chaos,!wtb", loaded.get(0).getScannerDescriptor().getWords());
+        assertEquals(0.9f, loaded.get(0).getScaleDataMap().get("notification"), 0f);
+        assertNull(loaded.get(0).getFrameDescriptorMap());
+        assertFalse(new String(Files.readAllBytes(index.toPath()), StandardCharsets.UTF_8).contains("scannerDescriptor"));
+    }
+
+    @Test
+    public void migratesInlineSections() throws Exception {
+        File index = new File(this.folder.getRoot(), "configuration.json");
+        List<ProfileDescriptor> legacy = Arrays.asList(this.profile("Profile1"), this.profile("Profile2"));
+        legacy.get(0).setSelected(true);
+        legacy.get(1).getScannerDescriptor().setWords("exalted");
+        new JSONHelper(index.getPath()).writeListObject(legacy, new TypeToken<List<ProfileDescriptor>>() {});
+
+        SectionedConfigStore store = new SectionedConfigStore(this.folder.getRoot().getPath(), index.getPath());
+        List<ProfileDescriptor> profiles = store.load();
+        assertEquals("exalted", profiles.get(1).getScannerDescriptor().getWords());
+        assertTrue(store.writeSection(1, profiles.get(1), ConfigSection.SCANNER));
+        store.writeIndex(profiles);
+
+        SectionedConfigStore reloaded = new SectionedConfigStore(this.folder.getRoot().getPath(), index.getPath());
+        List<ProfileDescriptor> loaded = reloaded.load();
+        assertNull(loaded.get(0).getScannerDescriptor());
+        assertNull(loaded.get(1).getScannerDescriptor());
+        reloaded.materialize(1, loaded.get(1));
+        assertEquals("exalted", loaded.get(1).getScannerDescriptor().getWords());
+        assertTrue(store.getSectionFile(1, ConfigSection.SCANNER).exists());
+    }
+
+    @Test
+    public void readsInactiveProfilesOnDemand() throws Exception {
+        File index = new File(this.folder.getRoot(), "configuration.json");
+        SectionedConfigStore store = new SectionedConfigStore(this.folder.getRoot().getPath(), index.getPath());
+        List<ProfileDescriptor> profiles = Arrays.asList(this.profile("Profile1"), this.profile("Profile2"));
+        profiles.get(1).setSelected(true);
+        profiles.get(0).getScannerDescriptor().setWords("divine");
+        store.writeIndex(profiles);
+        for (int i = 0; i < profiles.size(); i++) {
+            for (ConfigSection section : ConfigSection.values()) {
+                store.writeSection(i, profiles.get(i), section);
+            }
+        }
+
+        SectionedConfigStore reloaded = new SectionedConfigStore(this.folder.getRoot().getPath(), index.getPath());
+        List<ProfileDescriptor> loaded = reloaded.load();
+        assertEquals("Profile1", loaded.get(0).getName());
+        assertNull(loaded.get(0).getScannerDescriptor());
+        assertNull(loaded.get(0).getScaleDataMap());
+        assertEquals("chaos", loaded.get(1).getScannerDescriptor().getWords());
+        assertFalse(reloaded.writeSection(0, loaded.get(0), ConfigSection.SCANNER));
+
+        reloaded.materialize(0, loaded.get(0));
+        assertEquals("divine", loaded.get(0).getScannerDescriptor().getWords());
+        assertFalse(reloaded.writeSection(0, loaded.get(0), ConfigSection.SCANNER));
+    }
+
+    private ProfileDescriptor profile(String name) {
+        ProfileDescriptor profile = new ProfileDescriptor();
+        profile.setName(name);
+        ScannerDescriptor scanner = new ScannerDescriptor();
+        scanner.setWords("chaos");
+        profile.setScannerDescriptor(scanner);
+        Map<String, Float> scale = new HashMap<>();
+        scale.put("notification", 0.9f);
+        profile.setScaleDataMap(scale);
+        return profile;
+    }
+}
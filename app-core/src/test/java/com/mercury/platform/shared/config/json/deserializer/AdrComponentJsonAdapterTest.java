@@ -0,0 +1,68 @@
+package com.mercury.platform.shared.config.json.deserializer;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.mercury.platform.shared.config.descriptor.adr.*;
+import com.mercury.platform.shared.config.json.JSONHelper;
+import org.junit.Test;
+
+import java.awt.*;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AdrComponentJsonAdapterTest {
+    private static final Type COMPONENTS = new TypeToken<List<AdrComponentDescriptor>>() {}.getType();
+
+    @Test
+    public void writesTypeFirstAndRoundTrips() {
+        List<AdrComponentDescriptor> components = Arrays.asList(this.group(), this.capture());
+        String json = JSONHelper.GSON.toJson(components, COMPONENTS);
+        assertTrue(json.startsWith("[{\"type\":\"TRACKER_GROUP\""));
+        assertTrue(json.contains("\"cells\":[{\"type\":\"ICON\""));
+
+        List<AdrComponentDescriptor> read = JSONHelper.GSON.fromJson(json, COMPONENTS);
+        assertEquals(components, read);
+        assertTrue(((AdrTrackerGroupDescriptor) read.get(0)).getCells().get(0) instanceof AdrIconDescriptor);
+    }
+
+    @Test
+    public void readsLegacyOrderAndUntypedCells() {
+        AdrTrackerGroupDescriptor group = this.group();
+        AdrCaptureDescriptor capture = this.capture();
+        String legacy = new Gson().toJson(Arrays.asList(group, capture));
+        assertFalse(legacy.startsWith("[{\"type\""));
+        String untypedCells = legacy.replace("\"type\":\"ICON\",", "");
+        assertNotEquals(legacy, untypedCells);
+
+        List<AdrComponentDescriptor> read = JSONHelper.GSON.fromJson(untypedCells, COMPONENTS);
+        assertEquals(Arrays.asList(group, capture), read);
+        assertEquals(AdrComponentType.ICON, ((AdrTrackerGroupDescriptor) read.get(0)).getCells().get(1).getType());
+    }
+
+    private AdrTrackerGroupDescriptor group() {
+        AdrTrackerGroupDescriptor group = new AdrTrackerGroupDescriptor();
+        group.setType(AdrComponentType.TRACKER_GROUP);
+        group.setContentType(AdrTrackerGroupContentType.ICONS);
+        group.setTitle("icon group");
+        for (int i = 0; i < 2; i++) {
+            AdrIconDescriptor icon = new AdrIconDescriptor();
+            icon.setType(AdrComponentType.ICON);
+            icon.setIconPath("icon" + i + ".png");
+            icon.setDuration(2.5d + i);
+            icon.setLocation(new Point(10, 20));
+            group.getCells().add(icon);
+        }
+        return group;
+    }
+
+    private AdrCaptureDescriptor capture() {
+        AdrCaptureDescriptor capture = new AdrCaptureDescriptor();
+        capture.setType(AdrComponentType.CAPTURE);
+        capture.setTitle("capture");
+        capture.setLocation(new Point(1, 2));
+        return capture;
+    }
+}
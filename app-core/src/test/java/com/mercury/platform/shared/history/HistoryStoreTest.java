@@ -0,0 +1,225 @@
+package com.mercury.platform.shared.history;
+
+import com.mercury.platform.shared.entity.message.ItemTradeNotificationDescriptor;
+import com.mercury.platform.shared.entity.message.NotificationType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistoryStoreTest {
+    private static final String WHISPER = "@From %s: Hi, I would like to buy your %s listed for %d chaos in Harbinger (stash tab \"1\"; position: left 1, top 1)";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void migratesLegacyHistoryWithParsedFields() throws Exception {
+        String whisper = String.format(WHISPER, "Alice", "Tabula Rasa", 5).replace("\"", "\\\"");
+        Files.write(this.root().resolve("history.json"),
+                ("{\"messages\":[\"not a whisper\",\"" + whisper + "\"]}").getBytes(StandardCharsets.UTF_8));
+        HistoryStore store = this.open();
+        HistoryResult all = store.find(HistoryQuery.all());
+        assertEquals(2, all.size());
+        assertEquals("not a whisper", all.get(0).getSourceString());
+        HistoryRecord record = all.get(1);
+        assertEquals("Alice", record.getNickname());
+        assertEquals("Tabula Rasa", record.getItemName());
+        assertEquals("chaos", record.getCurrency());
+        assertEquals("Harbinger", record.getLeague());
+        assertEquals(NotificationType.INC_ITEM_MESSAGE, record.getType());
+        assertEquals(1, store.find(HistoryQuery.exact(HistoryField.ITEM, "tabula rasa")).size());
+        assertTrue(Files.exists(this.root().resolve("history.json.bak")));
+        store.close();
+    }
+
+    @Test
+    public void migratesLegacyHistory() throws Exception {
+        Files.write(this.root().resolve("history.json"),
+                "{\"messages\":[\"newest\",\"oldest\"]}".getBytes(StandardCharsets.UTF_8));
+        HistoryStore store = this.open();
+        HistoryResult all = store.find(HistoryQuery.all());
+        assertEquals(Arrays.asList("newest", "oldest"), sources(all.page(0, 10).getRecords()));
+        store.close();
+    }
+
+    @Test
+    public void readsRecordsWrittenAfterMapping() throws Exception {
+        HistoryStore store = this.open();
+        store.append(record("Alice", "Item", "chaos", 1));
+        store.flush();
+        assertEquals("Alice", store.find(HistoryQuery.all()).get(0).getNickname());
+        for (int i = 2; i <= 20000; i++) {
+            store.append(record("Bob", "Item " + i, "chaos", i));
+        }
+        store.flush();
+        HistoryResult all = store.find(HistoryQuery.all());
+        assertEquals(20000, all.get(0).getTimestamp());
+        assertEquals("Item 10000", all.get(10000).getItemName());
+        assertEquals("Alice", all.get(19999).getNickname());
+        store.close();
+    }
+
+    @Test
+    public void pagesAndSearchesAcrossReopen() throws Exception {
+        HistoryStore store = this.open();
+        for (int i = 0; i < 20000; i++) {
+            store.append(record("Player" + (i % 100), "Item " + (i % 7), i % 2 == 0 ? "chaos" : "exalted", i));
+        }
+        assertEquals(20000, store.find(HistoryQuery.all()).size());
+        store.close();
+
+        store = this.open();
+        HistoryResult all = store.find(HistoryQuery.all());
+        HistoryResult.HistoryPage page = all.page(0, 3);
+        assertEquals(Arrays.asList(19999L, 19998L, 19997L), timestamps(page.getRecords()));
+        page = all.page(page.getNextCursor(), 2);
+        assertEquals(Arrays.asList(19996L, 19995L), timestamps(page.getRecords()));
+        assertEquals(-1, all.page(19999, 5).getNextCursor());
+
+        HistoryResult player = store.find(HistoryQuery.exact(HistoryField.NICKNAME, "player42"));
+        assertEquals(200, player.size());
+        assertEquals(19942, player.get(0).getTimestamp());
+        assertEquals(2200, store.find(HistoryQuery.prefix(HistoryField.NICKNAME, "PLAYER4")).size());
+        assertEquals(3 * 2857, store.find(HistoryQuery.range(HistoryField.ITEM, "item 1", "item 4")).size());
+        HistoryResult either = store.find(HistoryQuery.anyOf(
+                HistoryQuery.exact(HistoryField.NICKNAME, "Player2"),
+                HistoryQuery.exact(HistoryField.CURRENCY, "exalted")));
+        assertEquals(10000 + 200, either.size());
+
+        store.append(record("Newcomer", "Item", "chaos", 20000));
+        assertEquals(1, store.find(HistoryQuery.prefix(HistoryField.NICKNAME, "new")).size());
+        assertEquals("Newcomer", store.find(HistoryQuery.all()).get(0).getNickname());
+        store.close();
+    }
+
+    @Test
+    public void importedRecordsComeFirst() throws Exception {
+        HistoryStore store = this.open();
+        store.append(record("Live", "Item", "chaos", 10));
+        HistoryResult before = store.find(HistoryQuery.all());
+        store.appendAll(Arrays.asList(record("Old", "Item", "chaos", 1), record("Older", "Item", "chaos", 2)));
+        assertTrue(before.isStale());
+        assertEquals(Arrays.asList(10L, 2L, 1L), timestamps(store.find(HistoryQuery.all()).page(0, 10).getRecords()));
+        store.close();
+
+        store = this.open();
+        assertEquals(Arrays.asList(10L, 2L, 1L), timestamps(store.find(HistoryQuery.all()).page(0, 10).getRecords()));
+        store.close();
+    }
+
+    @Test
+    public void clearIsCompactedAway() throws Exception {
+        HistoryStore store = this.open();
+        for (int i = 0; i < HistoryStore.COMPACTION_THRESHOLD; i++) {
+            store.append(record("Player", "Item", "chaos", i));
+        }
+        store.clear();
+        store.append(record("Kept", "Item", "chaos", 1));
+        store.compact();
+        assertEquals(1, store.find(HistoryQuery.all()).size());
+        assertEquals(0, store.find(HistoryQuery.exact(HistoryField.NICKNAME, "Player")).size());
+        store.close();
+
+        store = this.open();
+        assertEquals("Kept", store.find(HistoryQuery.all()).get(0).getNickname());
+        store.close();
+        assertFalse(Files.exists(this.root().resolve("history.1.dat")));
+    }
+
+    @Test
+    public void appendsOverwriteTruncatedTail() throws Exception {
+        HistoryStore store = this.open();
+        store.append(record("Complete", "Item", "chaos", 1));
+        store.close();
+        Path file = this.root().resolve("history.1.dat");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 100, 1, 2, 3}));
+        }
+
+        store = this.open();
+        assertEquals(1, store.find(HistoryQuery.all()).size());
+        store.append(record("After", "Item", "chaos", 2));
+        store.close();
+        store = this.open();
+        assertEquals(Arrays.asList(2L, 1L), timestamps(store.find(HistoryQuery.all()).page(0, 10).getRecords()));
+        store.close();
+    }
+
+    @Test
+    public void keepsStructuredFieldsAndOutcome() throws Exception {
+        HistoryStore store = this.open();
+        HistoryRecord item = record("Alice", "Tabula Rasa", "chaos", 1);
+        item.setType(NotificationType.INC_ITEM_MESSAGE);
+        item.setPrice(5.5);
+        item.setTabName("sale");
+        item.setLeft(3);
+        item.setTop(7);
+        item.setOffer("offer");
+        store.append(item);
+        store.append(record("Alice", "Other", "chaos", 2));
+        assertTrue(store.setOutcome("alice", item.getSourceString(), HistoryOutcome.INVITED));
+        assertTrue(store.setOutcome("Alice", null, HistoryOutcome.KICKED));
+        store.flush();
+        assertFalse(store.setOutcome("Alice", item.getSourceString(), HistoryOutcome.DISMISSED));
+        store.close();
+
+        store = this.open();
+        HistoryResult all = store.find(HistoryQuery.all());
+        assertEquals(HistoryOutcome.KICKED, all.get(0).getOutcome());
+        HistoryRecord read = all.get(1);
+        assertEquals(HistoryOutcome.NONE, item.getOutcome());
+        item.setOutcome(HistoryOutcome.INVITED);
+        assertEquals(item, read);
+        ItemTradeNotificationDescriptor descriptor = (ItemTradeNotificationDescriptor) read.toDescriptor();
+        assertEquals("Tabula Rasa", descriptor.getItemName());
+        assertEquals(5.5, descriptor.getCurCount(), 0);
+        assertEquals(7, descriptor.getTop());
+        assertNull(record("Bob", "Item", "chaos", 3).toDescriptor());
+        store.close();
+    }
+
+    private HistoryStore open() throws Exception {
+        HistoryStore store = new HistoryStore(this.root());
+        store.open();
+        return store;
+    }
+
+    private Path root() {
+        return this.folder.getRoot().toPath();
+    }
+
+    private static HistoryRecord record(String nickname, String item, String currency, long timestamp) {
+        HistoryRecord record = new HistoryRecord();
+        record.setTimestamp(timestamp);
+        record.setNickname(nickname);
+        record.setItemName(item);
+        record.setCurrency(currency);
+        record.setLeague("Harbinger");
+        record.setSourceString(nickname + ": " + item);
+        return record;
+    }
+
+    private static List<String> sources(List<HistoryRecord> records) {
+        List<String> sources = new ArrayList<>();
+        records.forEach(it -> sources.add(it.getSourceString()));
+        return sources;
+    }
+
+    private static List<Long> timestamps(List<HistoryRecord> records) {
+        List<Long> timestamps = new ArrayList<>();
+        records.forEach(it -> timestamps.add(it.getTimestamp()));
+        return timestamps;
+    }
+}
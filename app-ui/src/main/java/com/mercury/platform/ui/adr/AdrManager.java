@@ -2,6 +2,7 @@ package com.mercury.platform.ui.adr;
 
 
 import com.mercury.platform.shared.AsSubscriber;
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.Configuration;
 import com.mercury.platform.shared.config.configration.AdrConfigurationService;
 import com.mercury.platform.shared.config.descriptor.adr.*;
@@ -150,7 +151,7 @@ public class AdrManager implements AsSubscriber{
                    }
                    this.adrManagerFrame.addNewNode(definition.getDescriptor(),definition.getParent());
                    MercuryStoreUI.adrSelectSubject.onNext(definition.getDescriptor());
-                   MercuryStoreCore.saveConfigSubject.onNext(true);
+                   MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
                    MercuryStoreUI.adrPostOperationsComponentSubject.onNext(definition.getDescriptor());
                    break;
                }
@@ -178,13 +179,13 @@ public class AdrManager implements AsSubscriber{
                case DUPLICATE_COMPONENT:{
                    this.adrManagerFrame.duplicateNode(definition.getDescriptor());
                    MercuryStoreUI.adrSelectSubject.onNext(definition.getDescriptor());
-                   MercuryStoreCore.saveConfigSubject.onNext(true);
+                   MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
                    MercuryStoreUI.adrPostOperationsComponentSubject.onNext(definition.getDescriptor());
                    break;
                }
                case NEW_FROM_IMPORT:{
                    this.selectedProfile.getContents().addAll(definition.getDescriptors());
-                   MercuryStoreCore.saveConfigSubject.onNext(true);
+                   MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
                    this.selectProfile(this.selectedProfile.getProfileName());
                    break;
                }
@@ -207,7 +208,7 @@ public class AdrManager implements AsSubscriber{
             this.mainPanel.setPayload(null);
             this.adrManagerFrame.removeNode(descriptor);
             this.adrManagerFrame.setPage(this.mainPanel);
-            MercuryStoreCore.saveConfigSubject.onNext(true);
+            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
             MercuryStoreUI.adrPostOperationsComponentSubject.onNext(descriptor);
         });
         MercuryStoreUI.adrSelectProfileSubject.subscribe(profileName -> {
@@ -224,16 +225,16 @@ public class AdrManager implements AsSubscriber{
             this.config.getEntities().add(profileDescriptor);
             this.adrManagerFrame.addProfileToSelect(profileName);
             this.selectProfile(profileName);
-            MercuryStoreCore.saveConfigSubject.onNext(true);
+            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
         });
         MercuryStoreUI.adrRemoveProfileSubject.subscribe(profile -> {
             this.config.getEntities().remove(profile);
             this.adrManagerFrame.removeProfileFromSelect(profile);
-            MercuryStoreCore.saveConfigSubject.onNext(true);
+            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
         });
         MercuryStoreUI.adrRenameProfileSubject.subscribe(state -> {
             this.adrManagerFrame.onProfileRename(this.config.getEntities());
-            MercuryStoreCore.saveConfigSubject.onNext(true);
+            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
         });
     }
     private void selectProfile(String profileName){
@@ -265,7 +266,7 @@ public class AdrManager implements AsSubscriber{
         };
         worker.execute();
         this.adrManagerFrame.setSelectedProfile(selectedProfile);
-        MercuryStoreCore.saveConfigSubject.onNext(true);
+        MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
     }
     private void initComponents(boolean showSettings){
         MercuryStoreUI.onDestroySubject.onNext(true);
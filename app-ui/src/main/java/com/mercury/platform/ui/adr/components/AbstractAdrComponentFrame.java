@@ -1,5 +1,6 @@
 package com.mercury.platform.ui.adr.components;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.descriptor.adr.AdrComponentDescriptor;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.adr.components.panel.tree.AdrMouseOverListener;
@@ -86,7 +87,7 @@ public abstract class AbstractAdrComponentFrame<T extends AdrComponentDescriptor
                 }
                 descriptor.setLocation(getLocationOnScreen());
                 MercuryStoreUI.adrUpdateSubject.onNext(descriptor);
-                MercuryStoreCore.saveConfigSubject.onNext(true);
+                MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
             }
         }
     }
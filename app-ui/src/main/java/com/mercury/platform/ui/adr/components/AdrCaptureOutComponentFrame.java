@@ -1,5 +1,6 @@
 package com.mercury.platform.ui.adr.components;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.descriptor.adr.AdrCaptureDescriptor;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.adr.components.panel.AdrComponentPanel;
@@ -135,7 +136,7 @@ public class AdrCaptureOutComponentFrame extends AbstractAdrFrame<AdrCaptureDesc
                 }
                 descriptor.setCaptureLocation(getLocationOnScreen());
                 MercuryStoreUI.adrUpdateSubject.onNext(descriptor);
-                MercuryStoreCore.saveConfigSubject.onNext(true);
+                MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
             }
         }
     }
@@ -1,5 +1,6 @@
 package com.mercury.platform.ui.adr.components;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.Configuration;
 import com.mercury.platform.shared.config.descriptor.FrameDescriptor;
 import com.mercury.platform.shared.config.descriptor.adr.AdrComponentDescriptor;
@@ -116,7 +117,7 @@ public class AdrManagerFrame extends AbstractTitledComponentFrame{
     public void subscribe() {
         MercuryStoreUI.adrReloadSubject.subscribe(state -> {
             this.tree.updateUI();
-            MercuryStoreCore.saveConfigSubject.onNext(true);
+            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
         });
         MercuryStoreUI.adrManagerPack.subscribe(state -> {
             this.repaint();
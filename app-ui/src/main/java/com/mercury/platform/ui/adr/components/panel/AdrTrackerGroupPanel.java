@@ -1,5 +1,6 @@
 package com.mercury.platform.ui.adr.components.panel;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.descriptor.adr.AdrDurationComponentDescriptor;
 import com.mercury.platform.shared.config.descriptor.adr.AdrTrackerGroupDescriptor;
 import com.mercury.platform.shared.config.descriptor.adr.AdrTrackerGroupType;
@@ -34,7 +35,7 @@ public class AdrTrackerGroupPanel extends AdrComponentPanel<AdrTrackerGroupDescr
                     .size() != this.descriptor.getCells().size()){
                 this.removeAll();
                 this.onViewInit();
-                MercuryStoreCore.saveConfigSubject.onNext(true);
+                MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ADR);
             }
             MercuryStoreUI.adrRepaintSubject.onNext(true);
         });
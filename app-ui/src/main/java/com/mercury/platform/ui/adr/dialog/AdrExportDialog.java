@@ -1,9 +1,9 @@
 package com.mercury.platform.ui.adr.dialog;
 
 
-import com.google.gson.Gson;
 import com.mercury.platform.shared.config.descriptor.adr.AdrComponentDescriptor;
 import com.mercury.platform.shared.config.descriptor.adr.AdrProfileDescriptor;
+import com.mercury.platform.shared.config.json.JSONHelper;
 import com.mercury.platform.ui.adr.components.panel.tree.*;
 import com.mercury.platform.ui.adr.components.panel.tree.dialog.AdrDialogTreeNodeRenderer;
 import com.mercury.platform.ui.components.fields.font.FontStyle;
@@ -107,6 +107,6 @@ public class AdrExportDialog extends AdrDialog<List<AdrComponentDescriptor>> {
         return this.componentsFactory.wrapToSlide(root);
     }
     private String getPayloadAsJson(){
-        return new Gson().toJson(this.payload);
+        return JSONHelper.GSON.toJson(this.payload);
     }
 }
@@ -1,6 +1,7 @@
 package com.mercury.platform.ui.adr.dialog;
 
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.Configuration;
 import com.mercury.platform.shared.config.configration.IconBundleConfigurationService;
 import com.mercury.platform.shared.store.MercuryStoreCore;
@@ -91,7 +92,7 @@ public class AdrIconSelectDialog extends BaseDialog<String,String[]> {
                 entities.addAll(this.config.getEntities());
                 this.iconsList.setListData(entities.toArray());
                 this.setSelectedIcon((String) selectedValue);
-                MercuryStoreCore.saveConfigSubject.onNext(true);
+                MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.ICON_BUNDLE);
             }
         });
         root.add(this.componentsFactory.wrapToSlide(addIconButton,AppThemeColor.ADR_BG),BorderLayout.LINE_END);
@@ -1,16 +1,12 @@
 package com.mercury.platform.ui.adr.dialog;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonParser;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
 import com.mercury.platform.shared.config.Configuration;
 import com.mercury.platform.shared.config.descriptor.adr.AdrComponentDescriptor;
 import com.mercury.platform.shared.config.descriptor.adr.AdrProfileDescriptor;
 import com.mercury.platform.shared.config.descriptor.adr.AdrTrackerGroupDescriptor;
-import com.mercury.platform.shared.config.json.deserializer.AdrComponentJsonAdapter;
-import com.mercury.platform.shared.config.json.deserializer.AdrTrackerGroupDeserializer;
+import com.mercury.platform.shared.config.json.JSONHelper;
 import com.mercury.platform.shared.entity.message.MercuryError;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.adr.components.panel.tree.AdrTreePanel;
@@ -155,14 +151,8 @@ public class AdrImportDialog extends AdrDialog{
     }
     private List<AdrComponentDescriptor> getJsonAsObject(String jsonStr){
         try {
-            Gson gson = new GsonBuilder()
-                    .registerTypeAdapter(AdrComponentDescriptor.class,new AdrComponentJsonAdapter())
-                    .create();
-            JsonParser jsonParser = new JsonParser();
-            return gson.fromJson(
-                    jsonParser.parse(jsonStr),
-                    new TypeToken<List<AdrComponentDescriptor>>(){}.getType());
-        }catch (IllegalStateException | JsonSyntaxException e){
+            return JSONHelper.GSON.fromJson(jsonStr, new TypeToken<List<AdrComponentDescriptor>>(){}.getType());
+        }catch (IllegalStateException | JsonParseException e){
             this.viewPanel.remove(this.treePanel);
             this.viewPanel.add(this.errorLabel,BorderLayout.CENTER);
             this.pack();
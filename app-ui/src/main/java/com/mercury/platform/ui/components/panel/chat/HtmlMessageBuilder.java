@@ -1,18 +1,20 @@
 package com.mercury.platform.ui.components.panel.chat;
 
 
-import org.apache.commons.lang3.StringUtils;
+import com.mercury.platform.core.utils.matcher.ChatScanner;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class HtmlMessageBuilder {
+    private static final String HIGHLIGHT_START = "<font color=\"#FFD393\">";
+    private static final String HIGHLIGHT_END = "</font>";
     private List<String> chunkStrings;
-    private String stubMessage;
+    private ChatScanner scanner;
 
     public HtmlMessageBuilder() {
-        this.chunkStrings = new ArrayList<>();
+        this.setChunkStrings(new ArrayList<>());
     }
 
     /**
@@ -21,15 +23,26 @@ public class HtmlMessageBuilder {
      * @return html equivalent
      */
     public String build(String message) {
-        StringBuilder stringBuilder = new StringBuilder();
+        List<ChatScanner.Span> spans = this.scanner.scan(message);
+        return this.build(message, 0, message.length(), spans == null ? Collections.emptyList() : spans);
+    }
+
+    /**
+     * Building HTML equivalent of text[from, to) with the given spans (as found by
+     * {@link ChatScanner#scan(CharSequence, int, int)}) highlighted
+     */
+    public String build(String text, int from, int to, List<ChatScanner.Span> spans) {
+        StringBuilder stringBuilder = new StringBuilder(to - from + 13 + spans.size() * (HIGHLIGHT_START.length() + HIGHLIGHT_END.length()));
         stringBuilder.append("<html>");
-        this.stubMessage = message;
-        this.chunkStrings.forEach(it -> {
-            if(StringUtils.containsIgnoreCase(message,it)){
-                this.stubMessage = stubMessage.replaceAll("(?i)" + it,"<font color=\"#FFD393\">" + it + "</font>");
-            }
-        });
-        stringBuilder.append(this.stubMessage);
+        int position = from;
+        for (ChatScanner.Span span : spans) {
+            stringBuilder.append(text, position, span.getStart())
+                    .append(HIGHLIGHT_START)
+                    .append(text, span.getStart(), span.getEnd())
+                    .append(HIGHLIGHT_END);
+            position = span.getEnd();
+        }
+        stringBuilder.append(text, position, to);
         stringBuilder.append("</html>");
         return stringBuilder.toString();
     }
@@ -40,5 +53,6 @@ public class HtmlMessageBuilder {
 
     public void setChunkStrings(List<String> chunkStrings) {
         this.chunkStrings = chunkStrings;
+        this.scanner = new ChatScanner(chunkStrings, Collections.emptyList());
     }
 }
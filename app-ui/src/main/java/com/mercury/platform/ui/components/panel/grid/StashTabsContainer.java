@@ -1,5 +1,6 @@
 package com.mercury.platform.ui.components.panel.grid;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.Configuration;
 import com.mercury.platform.shared.config.configration.ListConfigurationService;
 import com.mercury.platform.shared.config.descriptor.StashTabDescriptor;
@@ -16,7 +17,7 @@ public class StashTabsContainer {
         this.save();
     }
     public void save(){
-        MercuryStoreCore.saveConfigSubject.onNext(true);
+        MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.STASH_TABS);
     }
 
     public List<StashTabDescriptor> getStashTabDescriptors() {
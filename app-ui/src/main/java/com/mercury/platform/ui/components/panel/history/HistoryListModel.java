@@ -0,0 +1,55 @@
+package com.mercury.platform.ui.components.panel.history;
+
+import com.mercury.platform.shared.history.HistoryRecord;
+import com.mercury.platform.shared.history.HistoryResult;
+
+import javax.swing.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * List view of a {@link HistoryResult}, oldest message first. Records are read from the store
+ * when a row is rendered; only the most recently shown ones are kept.
+ */
+public class HistoryListModel extends AbstractListModel<HistoryRecord> {
+    private static final int CACHE_SIZE = 128;
+    private HistoryResult result;
+    private final Map<Integer, HistoryRecord> cache = new LinkedHashMap<Integer, HistoryRecord>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, HistoryRecord> eldest) {
+            return this.size() > CACHE_SIZE;
+        }
+    };
+
+    public void setResult(HistoryResult result) {
+        int oldSize = this.getSize();
+        this.result = result;
+        this.cache.clear();
+        if (oldSize > 0) {
+            this.fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (this.getSize() > 0) {
+            this.fireIntervalAdded(this, 0, this.getSize() - 1);
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return this.result == null ? 0 : this.result.size();
+    }
+
+    /**
+     * @return the record or null when the result went stale
+     */
+    @Override
+    public HistoryRecord getElementAt(int index) {
+        HistoryRecord record = this.cache.get(index);
+        if (record == null) {
+            record = this.result.get(this.result.size() - 1 - index);
+            if (record != null) {
+                this.cache.put(index, record);
+            }
+        }
+        return record;
+    }
+}
@@ -0,0 +1,112 @@
+package com.mercury.platform.ui.components.panel.history;
+
+import com.mercury.platform.shared.history.HistoryOutcome;
+import com.mercury.platform.shared.history.HistoryRecord;
+import com.mercury.platform.ui.components.ComponentsFactory;
+import com.mercury.platform.ui.components.fields.font.FontStyle;
+import com.mercury.platform.ui.components.fields.font.TextAlignment;
+import com.mercury.platform.ui.misc.AppThemeColor;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Paints history rows with the look of the history notification panel, reusing one component
+ * tree for every row. The header icons are not buttons: clicks are resolved with
+ * {@link #getActionAt(int, int, int, int)}.
+ */
+public class HistoryListRenderer extends JPanel implements ListCellRenderer<HistoryRecord> {
+    private final ComponentsFactory componentsFactory;
+    private final JLabel nicknameLabel;
+    private final JLabel outcomeLabel;
+    private final JLabel sourceLabel;
+    private final JLabel reloadLabel;
+    private final JLabel openChatLabel;
+
+    public HistoryListRenderer(ComponentsFactory componentsFactory) {
+        super(new BorderLayout());
+        this.componentsFactory = componentsFactory;
+        this.setBackground(AppThemeColor.FRAME);
+        this.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createEmptyBorder(1,1,1,1),
+                BorderFactory.createLineBorder(AppThemeColor.RESPONSE_BUTTON_BORDER, 1)));
+
+        JPanel header = new JPanel(new BorderLayout());
+        header.setBackground(AppThemeColor.MSG_HEADER);
+        header.setBorder(BorderFactory.createEmptyBorder(1,1,1,1));
+        this.nicknameLabel = componentsFactory.getTextLabel(FontStyle.BOLD,AppThemeColor.TEXT_NICKNAME, TextAlignment.LEFTOP,15f,"Nickname");
+        this.nicknameLabel.setBorder(BorderFactory.createEmptyBorder(0,4,0,5));
+        header.add(this.nicknameLabel,BorderLayout.CENTER);
+
+        JPanel opPanel = new JPanel(new BorderLayout());
+        opPanel.setBackground(AppThemeColor.MSG_HEADER);
+        this.outcomeLabel = componentsFactory.getTextLabel(FontStyle.REGULAR,AppThemeColor.TEXT_DEFAULT, TextAlignment.LEFTOP,14f,"");
+        opPanel.add(this.outcomeLabel,BorderLayout.CENTER);
+        JPanel interactionPanel = new JPanel(new GridLayout(1,0,4,0));
+        interactionPanel.setBackground(AppThemeColor.MSG_HEADER);
+        this.reloadLabel = this.getIconLabel("app/reload-history.png");
+        this.openChatLabel = this.getIconLabel("app/openChat.png");
+        interactionPanel.add(this.reloadLabel);
+        interactionPanel.add(this.openChatLabel);
+        opPanel.add(interactionPanel,BorderLayout.LINE_END);
+        header.add(opPanel,BorderLayout.LINE_END);
+        this.add(header,BorderLayout.PAGE_START);
+
+        this.sourceLabel = componentsFactory.getTextLabel("Message", FontStyle.REGULAR, 17f);
+        this.sourceLabel.setHorizontalAlignment(SwingConstants.LEFT);
+        this.sourceLabel.setVerticalAlignment(SwingConstants.TOP);
+        this.add(this.sourceLabel,BorderLayout.CENTER);
+    }
+
+    private JLabel getIconLabel(String iconPath){
+        JLabel label = new JLabel(this.componentsFactory.getIcon(iconPath, 15));
+        label.setBorder(BorderFactory.createEmptyBorder(4,4,4,4));
+        return label;
+    }
+
+    /**
+     * Height of every row, the rows being a single line each.
+     */
+    public int getRowHeight(){
+        return this.getPreferredSize().height;
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends HistoryRecord> list, HistoryRecord value, int index, boolean isSelected, boolean cellHasFocus) {
+        String nickname = value == null || value.getNickname() == null ? "" : value.getNickname();
+        String source = value == null ? "" : StringUtils.substringAfter(value.getSourceString(), ":");
+        this.setText(this.nicknameLabel, nickname, FontStyle.BOLD);
+        this.setText(this.sourceLabel, source, FontStyle.REGULAR);
+        HistoryOutcome outcome = value == null ? HistoryOutcome.NONE : value.getOutcome();
+        this.outcomeLabel.setText(outcome == HistoryOutcome.NONE ? "" : outcome.name().toLowerCase());
+        return this;
+    }
+
+    private void setText(JLabel label, String text, FontStyle style){
+        label.setFont(this.componentsFactory.getFontByLang(text, style).deriveFont(label.getFont().getSize2D()));
+        label.setText(text);
+    }
+
+    /**
+     * @param x position in the cell
+     * @param y position in the cell
+     * @return the header icon under the point or null
+     */
+    public Action getActionAt(int width, int height, int x, int y){
+        this.setSize(width, height);
+        this.validate();
+        Component component = SwingUtilities.getDeepestComponentAt(this, x, y);
+        if (component == this.reloadLabel) {
+            return Action.RELOAD;
+        }
+        if (component == this.openChatLabel) {
+            return Action.OPEN_CHAT;
+        }
+        return null;
+    }
+
+    public enum Action {
+        RELOAD, OPEN_CHAT
+    }
+}
@@ -0,0 +1,118 @@
+package com.mercury.platform.ui.components.panel.notification;
+
+import com.mercury.platform.shared.config.Configuration;
+import com.mercury.platform.shared.config.configration.PlainConfigurationService;
+import com.mercury.platform.shared.config.descriptor.HotKeyPair;
+import com.mercury.platform.shared.config.descriptor.HotKeyType;
+import com.mercury.platform.shared.config.descriptor.HotKeysSettingsDescriptor;
+import com.mercury.platform.shared.config.descriptor.ScannerDescriptor;
+import com.mercury.platform.shared.entity.message.ScannerDigestDescriptor;
+import com.mercury.platform.ui.components.fields.font.FontStyle;
+import com.mercury.platform.ui.components.fields.font.TextAlignment;
+import com.mercury.platform.ui.components.panel.notification.controller.NotificationScannerController;
+import com.mercury.platform.ui.components.panel.notification.controller.ScannerPanelController;
+import com.mercury.platform.ui.misc.AppThemeColor;
+import com.mercury.platform.ui.misc.TooltipConstants;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * One panel for a burst of chat scanner matches: a row per rule and sender with the number of
+ * matches and the last message.
+ */
+public class ScannerDigestNotificationPanel extends NotificationPanel<ScannerDigestDescriptor,ScannerPanelController> {
+    private PlainConfigurationService<ScannerDescriptor> config;
+    private PlainConfigurationService<HotKeysSettingsDescriptor> hotKeysConfig;
+    private JPanel contentPanel;
+    @Override
+    public void onViewInit() {
+        super.onViewInit();
+        this.config = Configuration.get().scannerConfiguration();
+        this.hotKeysConfig = Configuration.get().hotKeysConfiguration();
+        this.add(this.getHeader(),BorderLayout.PAGE_START);
+        JPanel rowsPanel = this.componentsFactory.getJPanel(new GridLayout(0, 1, 0, 2), AppThemeColor.FRAME);
+        this.data.getEntries().forEach(entry -> rowsPanel.add(this.getEntryPanel(entry)));
+        this.contentPanel = this.componentsFactory.wrapToSlide(rowsPanel,AppThemeColor.FRAME,2,2,2,2);
+        this.add(this.contentPanel,BorderLayout.CENTER);
+        this.updateHotKeyPool();
+    }
+    private JPanel getHeader(){
+        JPanel root = new JPanel(new BorderLayout());
+        root.setBackground(AppThemeColor.MSG_HEADER);
+
+        JPanel titlePanel = this.componentsFactory.getJPanel(new BorderLayout(), AppThemeColor.MSG_HEADER);
+        JLabel titleLabel = this.componentsFactory.getTextLabel(FontStyle.BOLD,AppThemeColor.TEXT_NICKNAME, TextAlignment.LEFTOP,15f,this.data.getNickName());
+        titleLabel.setBorder(BorderFactory.createEmptyBorder(0,5,0,5));
+        titlePanel.add(this.getExpandButton(),BorderLayout.LINE_START);
+        titlePanel.add(titleLabel,BorderLayout.CENTER);
+        root.add(titlePanel,BorderLayout.CENTER);
+
+        JButton hideButton = componentsFactory.getIconButton("app/close.png", 15, AppThemeColor.MSG_HEADER, TooltipConstants.HIDE_PANEL);
+        hideButton.addActionListener(action -> {
+            this.controller.performHide();
+        });
+        this.interactButtonMap.clear();
+        this.interactButtonMap.put(HotKeyType.N_CLOSE_NOTIFICATION,hideButton);
+
+        JPanel opPanel = this.componentsFactory.getJPanel(new BorderLayout(),AppThemeColor.MSG_HEADER);
+        JPanel timePanel = this.getTimePanel();
+        timePanel.setPreferredSize(new Dimension(50,26));
+        opPanel.add(timePanel,BorderLayout.CENTER);
+        opPanel.add(hideButton,BorderLayout.LINE_END);
+        root.add(opPanel,BorderLayout.LINE_END);
+        return root;
+    }
+    private JPanel getEntryPanel(ScannerDigestDescriptor.Entry entry){
+        NotificationScannerController entryController = new NotificationScannerController(entry.getLastMessage());
+        JPanel root = this.componentsFactory.getJPanel(new BorderLayout(), AppThemeColor.FRAME);
+        JLabel nicknameLabel = this.componentsFactory.getTextLabel(FontStyle.BOLD,AppThemeColor.TEXT_NICKNAME, TextAlignment.LEFTOP,15f,
+                entry.getNickName() + " x" + entry.getCount() + " (" + entry.getRuleName() + ")");
+        nicknameLabel.setBorder(BorderFactory.createEmptyBorder(0,2,0,5));
+        JLabel messageLabel = this.componentsFactory.getTextLabel(entry.getLastMessage().getMessage(),FontStyle.REGULAR,15f);
+        messageLabel.setHorizontalAlignment(SwingConstants.LEFT);
+
+        JPanel interactionPanel = this.componentsFactory.getJPanel(new GridLayout(1,0,6,0), AppThemeColor.FRAME);
+        JButton responseButton = componentsFactory.getIconButton("app/chat_scanner_response.png", 15, AppThemeColor.FRAME, TooltipConstants.QUICK_RESPONSE);
+        responseButton.addActionListener(e -> entryController.performResponse(this.config.get().getResponseMessage()));
+        JButton openChatButton = componentsFactory.getIconButton("app/openChat.png", 15, AppThemeColor.FRAME, TooltipConstants.OPEN_CHAT);
+        openChatButton.addActionListener(e -> entryController.performOpenChat());
+        interactionPanel.add(responseButton);
+        interactionPanel.add(openChatButton);
+
+        root.add(nicknameLabel,BorderLayout.LINE_START);
+        root.add(messageLabel,BorderLayout.CENTER);
+        root.add(interactionPanel,BorderLayout.LINE_END);
+        return root;
+    }
+
+    @Override
+    protected void updateHotKeyPool() {
+        this.hotKeysPool.clear();
+        this.interactButtonMap.forEach((type, button) -> {
+            HotKeyPair hotKeyPair = this.hotKeysConfig.get()
+                    .getScannerNHotKeysList()
+                    .stream()
+                    .filter(it -> it.getType().equals(type))
+                    .findAny().orElse(null);
+            if(hotKeyPair != null && !hotKeyPair.getDescriptor().getTitle().equals("...")) {
+                this.hotKeysPool.put(hotKeyPair.getDescriptor(), button);
+            }
+        });
+    }
+
+    private JButton getExpandButton(){
+        JButton expandButton = componentsFactory.getIconButton("app/expand-mp.png", 18f, AppThemeColor.MSG_HEADER,"");
+        expandButton.addActionListener(action -> {
+            if(this.contentPanel.isVisible()){
+                this.contentPanel.setVisible(false);
+                expandButton.setIcon(this.componentsFactory.getIcon("app/default-mp.png",18f));
+            }else {
+                this.contentPanel.setVisible(true);
+                expandButton.setIcon(this.componentsFactory.getIcon("app/expand-mp.png",18f));
+            }
+            SwingUtilities.getWindowAncestor(ScannerDigestNotificationPanel.this).pack();
+        });
+        return expandButton;
+    }
+}
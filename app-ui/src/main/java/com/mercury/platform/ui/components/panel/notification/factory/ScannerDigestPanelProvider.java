@@ -0,0 +1,22 @@
+package com.mercury.platform.ui.components.panel.notification.factory;
+
+import com.mercury.platform.shared.entity.message.NotificationType;
+import com.mercury.platform.shared.entity.message.ScannerDigestDescriptor;
+import com.mercury.platform.ui.components.panel.notification.NotificationPanel;
+import com.mercury.platform.ui.components.panel.notification.ScannerDigestNotificationPanel;
+import com.mercury.platform.ui.components.panel.notification.controller.NotificationScannerController;
+import com.mercury.platform.ui.components.panel.notification.controller.ScannerPanelController;
+
+public class ScannerDigestPanelProvider extends NotificationPanelProvider<ScannerDigestDescriptor,ScannerPanelController> {
+    @Override
+    public boolean isSuitable(NotificationType type) {
+        return type.equals(NotificationType.SCANNER_DIGEST);
+    }
+
+    @Override
+    protected NotificationPanel<ScannerDigestDescriptor, ScannerPanelController> getPanel() {
+        ScannerDigestNotificationPanel panel = new ScannerDigestNotificationPanel();
+        panel.setController(new NotificationScannerController(this.data));
+        return panel;
+    }
+}
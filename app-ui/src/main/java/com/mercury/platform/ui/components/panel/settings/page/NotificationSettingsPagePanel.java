@@ -318,6 +318,12 @@ public class NotificationSettingsPagePanel extends SettingsPagePanel {
             }
         });
         propertiesPanel.add(this.componentsFactory.wrapToSlide(quickResponseField,AppThemeColor.ADR_BG,0,0,0,4));
+        JSlider digestWindowSlider = this.componentsFactory.getSlider(0, 30, this.scannerSnapshot.getDigestWindow(), AppThemeColor.ADR_BG);
+        digestWindowSlider.addChangeListener(e -> {
+            this.scannerSnapshot.setDigestWindow(digestWindowSlider.getValue());
+        });
+        propertiesPanel.add(this.componentsFactory.getTextLabel("Group bursts (sec, 0 - off):", FontStyle.REGULAR,16));
+        propertiesPanel.add(digestWindowSlider);
         root.add(propertiesPanel,BorderLayout.PAGE_START);
         root.add(this.wrapToCounter(this.componentsFactory.wrapToSlide(this.getScannerNotificationHotKeysPanel(),AppThemeColor.ADR_BG),"Hotkeys"),BorderLayout.CENTER);
         root.setVisible(false);
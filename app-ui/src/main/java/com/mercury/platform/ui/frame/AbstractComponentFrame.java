@@ -1,5 +1,6 @@
 package com.mercury.platform.ui.frame;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.descriptor.FrameDescriptor;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.components.panel.misc.ViewInit;
@@ -105,10 +106,10 @@ public abstract class AbstractComponentFrame extends AbstractOverlaidFrame imple
     public void onLocationChange(Point location){
         FrameDescriptor frameDescriptor = this.framesConfig.getMap().get(this.getClass().getSimpleName());
         frameDescriptor.setFrameLocation(location);
-        MercuryStoreCore.saveConfigSubject.onNext(true);
+        MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.FRAMES);
     }
     public void onSizeChange(){
-        MercuryStoreCore.saveConfigSubject.onNext(true);
+        MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.FRAMES);
     }
     protected void onFrameDragged(Point location){
         this.setLocation(location);
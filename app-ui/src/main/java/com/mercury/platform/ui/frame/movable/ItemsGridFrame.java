@@ -1,5 +1,6 @@
 package com.mercury.platform.ui.frame.movable;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.components.ComponentsFactory;
 import com.mercury.platform.ui.components.fields.style.MercuryScrollBarUI;
@@ -158,7 +159,7 @@ public class ItemsGridFrame extends AbstractMovableComponentFrame {
             public void mousePressed(MouseEvent e) {
                 if(SwingUtilities.isLeftMouseButton(e)) {
                     stashTabsContainer.save();
-                    MercuryStoreCore.saveConfigSubject.onNext(true);
+                    MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.APPLICATION);
                     FramesManager.INSTANCE.disableMovement(ItemsGridFrame.class);
                 }
             }
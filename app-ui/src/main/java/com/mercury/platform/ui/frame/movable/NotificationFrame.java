@@ -1,6 +1,7 @@
 package com.mercury.platform.ui.frame.movable;
 
 import com.mercury.platform.core.ProdStarter;
+import com.mercury.platform.core.utils.dedupe.OfferFingerprint;
 import com.mercury.platform.core.utils.interceptor.TradeIncMessagesInterceptor;
 import com.mercury.platform.shared.FrameVisibleState;
 import com.mercury.platform.shared.config.Configuration;
@@ -9,6 +10,7 @@ import com.mercury.platform.shared.config.descriptor.NotificationSettingsDescrip
 import com.mercury.platform.shared.entity.message.FlowDirections;
 import com.mercury.platform.shared.entity.message.ItemTradeNotificationDescriptor;
 import com.mercury.platform.shared.entity.message.NotificationType;
+import com.mercury.platform.shared.entity.message.ScannerDigestDescriptor;
 import com.mercury.platform.shared.entity.message.TradeNotificationDescriptor;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.components.ComponentsFactory;
@@ -25,7 +27,6 @@ import com.mercury.platform.ui.misc.AppThemeColor;
 import com.mercury.platform.ui.misc.MercuryStoreUI;
 import net.jodah.expiringmap.ExpiringMap;
 import net.jodah.expiringmap.ExpiringValue;
-import org.apache.commons.lang3.StringUtils;
 
 import javax.swing.*;
 import javax.swing.Timer;
@@ -37,12 +38,14 @@ import java.util.concurrent.TimeUnit;
 
 public class NotificationFrame extends AbstractMovableComponentFrame {
     private List<NotificationPanel> notificationPanels;
-    private List<String> currentOffers;
+    private Map<String,Integer> currentOffers;
     private PlainConfigurationService<NotificationSettingsDescriptor> config;
     private NotificationPanelFactory providersFactory;
     private JPanel container;
     private JPanel expandPanel;
     private boolean expanded;
+    private Timer packTimer;
+    private List<NotificationPanel> pendingPackPanels;
     @Override
     protected void initialize() {
         super.initialize();
@@ -52,13 +55,16 @@ public class NotificationFrame extends AbstractMovableComponentFrame {
         this.componentsFactory.setScale(this.scaleConfig.get("notification"));
         this.stubComponentsFactory.setScale(this.scaleConfig.get("notification"));
         this.providersFactory = new NotificationPanelFactory();
+        this.pendingPackPanels = new ArrayList<>();
+        this.packTimer = new Timer(5, action -> this.packPendingPanels());
+        this.packTimer.setRepeats(false);
     }
 
     @Override
     public void onViewInit() {
         this.getRootPane().setBorder(null);
         this.setBackground(AppThemeColor.TRANSPARENT);
-        this.currentOffers = new ArrayList<>();
+        this.currentOffers = new HashMap<>();
         this.container = new JPanel();
         this.container.setBackground(AppThemeColor.TRANSPARENT);
         this.container.setLayout(new BoxLayout(container,BoxLayout.Y_AXIS));
@@ -79,30 +85,23 @@ public class NotificationFrame extends AbstractMovableComponentFrame {
                         .setData(notification)
                         .setComponentsFactory(this.componentsFactory)
                         .build();
-                String message = StringUtils.substringAfter(notification.getSourceString(), ":");
-                if(this.currentOffers.contains(message)){
+                if(this.currentOffers.merge(OfferFingerprint.of(notification), 1, Integer::sum) > 1){
                     notificationPanel.setDuplicate(true);
-                }else {
-                    this.currentOffers.add(message);
                 }
                 this.addNotification(notificationPanel);
             });
         });
         MercuryStoreCore.newScannerMessageSubject.subscribe(message -> {
             SwingUtilities.invokeLater(()-> {
-                NotificationPanel notificationPanel = this.providersFactory.getProviderFor(NotificationType.SCANNER_MESSAGE)
+                NotificationType type = message instanceof ScannerDigestDescriptor
+                        ? NotificationType.SCANNER_DIGEST : NotificationType.SCANNER_MESSAGE;
+                NotificationPanel notificationPanel = this.providersFactory.getProviderFor(type)
                         .setData(message)
                         .setComponentsFactory(this.componentsFactory)
                         .build();
                 this.addNotification(notificationPanel);
-                Timer packTimer = new Timer(5, action -> {
-                    this.pack();
-                    if(this.notificationPanels.size() > 1 && this.config.get().getFlowDirections().equals(FlowDirections.UPWARDS)){
-                        this.setLocation(new Point(this.getLocation().x,this.getLocation().y - notificationPanel.getSize().height));
-                    }
-                });
-                packTimer.setRepeats(false);
-                packTimer.start();
+                this.pendingPackPanels.add(notificationPanel);
+                this.packTimer.restart();
             });
         });
         MercuryStoreCore.removeNotificationSubject.subscribe(notification -> {
@@ -110,7 +109,7 @@ public class NotificationFrame extends AbstractMovableComponentFrame {
                 NotificationPanel notificationPanel = this.notificationPanels.stream()
                         .filter(it -> it.getData().equals(notification))
                         .findAny().orElse(null);
-                this.currentOffers.remove(StringUtils.substringAfter(notification.getSourceString(), ":"));
+                this.currentOffers.computeIfPresent(OfferFingerprint.of(notification), (offer, count) -> count > 1 ? count - 1 : null);
                 this.removeNotification(notificationPanel);
             });
         });
@@ -136,6 +135,23 @@ public class NotificationFrame extends AbstractMovableComponentFrame {
         });
     }
 
+    /**
+     * Second layout pass for scanner panels, shared by all the panels added since the last one.
+     */
+    private void packPendingPanels(){
+        this.pack();
+        if(this.notificationPanels.size() > 1 && this.config.get().getFlowDirections().equals(FlowDirections.UPWARDS)){
+            int height = 0;
+            for (NotificationPanel panel : this.pendingPackPanels) {
+                if (this.notificationPanels.contains(panel)) {
+                    height += panel.getSize().height;
+                }
+            }
+            this.setLocation(new Point(this.getLocation().x,this.getLocation().y - height));
+        }
+        this.pendingPackPanels.clear();
+    }
+
     private void addNotification(NotificationPanel notificationPanel){
         this.notificationPanels.add(notificationPanel);
         this.container.add(notificationPanel);
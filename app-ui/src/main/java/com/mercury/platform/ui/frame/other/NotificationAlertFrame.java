@@ -1,5 +1,6 @@
 package com.mercury.platform.ui.frame.other;
 
+import com.mercury.platform.core.utils.tail.LogRotation;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.components.fields.font.FontStyle;
 import com.mercury.platform.ui.components.fields.font.TextAlignment;
@@ -36,6 +37,13 @@ public class NotificationAlertFrame extends AbstractOverlaidFrame {
             this.showAnimation.abort();
             this.showAnimation.play();
         });
+        MercuryStoreCore.clientLogRotatedSubject.subscribe(rotation -> SwingUtilities.invokeLater(() -> {
+            if (rotation == LogRotation.TRUNCATED) {
+                MercuryStoreCore.alertSubject.onNext("Client.txt was cleared");
+            } else {
+                MercuryStoreCore.alertSubject.onNext("Client.txt was replaced");
+            }
+        }));
     }
 
     @Override
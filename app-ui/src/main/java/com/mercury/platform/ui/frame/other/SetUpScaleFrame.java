@@ -1,5 +1,6 @@
 package com.mercury.platform.ui.frame.other;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.components.fields.font.FontStyle;
 import com.mercury.platform.ui.components.fields.font.TextAlignment;
@@ -63,7 +64,7 @@ public class SetUpScaleFrame extends AbstractOverlaidFrame {
             @Override
             public void mousePressed(MouseEvent e) {
                 FramesManager.INSTANCE.disableScale();
-                MercuryStoreCore.saveConfigSubject.onNext(true);
+                MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.SCALE);
                 MercuryStoreUI.saveScaleSubject.onNext(scaleData);
             }
         });
@@ -1,35 +1,45 @@
 package com.mercury.platform.ui.frame.titled;
 
 import com.mercury.platform.core.misc.SoundType;
+import com.mercury.platform.core.utils.dedupe.ExpiringKeySet;
+import com.mercury.platform.core.utils.digest.ScannerBurstCoalescer;
 import com.mercury.platform.core.utils.interceptor.MessageInterceptor;
+import com.mercury.platform.core.utils.interceptor.dispatch.ClassifiedLine;
+import com.mercury.platform.core.utils.interceptor.dispatch.LineFeature;
 import com.mercury.platform.core.utils.interceptor.filter.MessageFilter;
+import com.mercury.platform.core.utils.matcher.query.ScannerRule;
+import com.mercury.platform.core.utils.matcher.query.ScannerRuleSet;
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.Configuration;
 import com.mercury.platform.shared.config.configration.PlainConfigurationService;
 import com.mercury.platform.shared.config.descriptor.NotificationSettingsDescriptor;
 import com.mercury.platform.shared.config.descriptor.ScannerDescriptor;
+import com.mercury.platform.shared.config.descriptor.ScannerRuleDescriptor;
 import com.mercury.platform.shared.entity.message.PlainMessageDescriptor;
+import com.mercury.platform.shared.entity.message.ScannerDigestDescriptor;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.components.fields.font.FontStyle;
 import com.mercury.platform.ui.components.fields.font.TextAlignment;
 import com.mercury.platform.ui.components.panel.chat.HtmlMessageBuilder;
 import com.mercury.platform.ui.misc.AppThemeColor;
-import net.jodah.expiringmap.ExpiringMap;
-import org.apache.commons.lang3.StringUtils;
 
 import javax.swing.*;
+import javax.swing.Timer;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class ChatScannerFrame extends AbstractTitledComponentFrame {
     private PlainConfigurationService<ScannerDescriptor> scannerService;
     private PlainConfigurationService<NotificationSettingsDescriptor> notificationConfig;
     private MessageInterceptor currentInterceptor;
-    private Map<String,String> expiresMessages;
+    private ExpiringKeySet recentMessages;
+    private ScannerBurstCoalescer coalescer;
     private HtmlMessageBuilder messageBuilder;
+    private ScannerRuleSet ruleSet;
+    private JLabel statsLabel;
+    private Timer statsTimer;
     private boolean running;
 
     public ChatScannerFrame() {
@@ -44,10 +54,12 @@ public class ChatScannerFrame extends AbstractTitledComponentFrame {
     public void onViewInit() {
         this.scannerService = Configuration.get().scannerConfiguration();
         this.notificationConfig = Configuration.get().notificationConfiguration();
-        this.expiresMessages = ExpiringMap.builder()
-                .expiration(10, TimeUnit.SECONDS)
-                .build();
+        this.recentMessages = new ExpiringKeySet(TimeUnit.SECONDS.toMillis(10), 10, 1024, System::currentTimeMillis);
         this.messageBuilder = new HtmlMessageBuilder();
+        this.coalescer = new ScannerBurstCoalescer(
+                () -> TimeUnit.SECONDS.toMillis(this.scannerService.get().getDigestWindow()),
+                this::scheduleDigest,
+                new NotificationSink());
         this.initHeaderBar();
         JPanel root = componentsFactory.getTransparentPanel(new BorderLayout());
         JPanel setupArea = componentsFactory.getTransparentPanel(new BorderLayout());
@@ -66,15 +78,43 @@ public class ChatScannerFrame extends AbstractTitledComponentFrame {
         words.setBorder(BorderFactory.createLineBorder(AppThemeColor.HEADER));
         words.setBackground(AppThemeColor.SLIDE_BG);
 
+        JLabel rulesTitle = componentsFactory.getTextLabel(
+                FontStyle.REGULAR,
+                AppThemeColor.TEXT_DEFAULT,
+                TextAlignment.LEFTOP,
+                15f,
+                "Rules, one per line (name = query):");
+        rulesTitle.setBorder(BorderFactory.createEmptyBorder(6,0,6,0));
+        JTextArea rules = componentsFactory.getSimpleTextArea(this.rulesToText(this.scannerService.get().getRules()));
+        rules.setEditable(true);
+        rules.setCaretColor(AppThemeColor.TEXT_DEFAULT);
+        rules.setBorder(BorderFactory.createLineBorder(AppThemeColor.HEADER));
+        rules.setBackground(AppThemeColor.SLIDE_BG);
+        this.statsLabel = componentsFactory.getTextLabel("", FontStyle.REGULAR, 15f);
+        this.statsLabel.setBorder(BorderFactory.createEmptyBorder(4,0,0,0));
+        this.statsTimer = new Timer(1000, action -> this.updateStats());
+
         JPanel navBar = componentsFactory.getJPanel(new FlowLayout(FlowLayout.CENTER),AppThemeColor.FRAME);
         Dimension buttonSize = new Dimension(90, 24);
         JButton save = componentsFactory.getBorderedButton("Save");
         save.addActionListener(action -> {
-            this.scannerService.get().setWords(words.getText());
-            MercuryStoreCore.saveConfigSubject.onNext(true);
+            ScannerDescriptor descriptor = new ScannerDescriptor();
+            descriptor.setWords(words.getText());
+            descriptor.setRules(this.textToRules(rules.getText()));
+            ScannerRuleSet ruleSet;
+            try {
+                ruleSet = ScannerRuleSet.compile(descriptor);
+            } catch (IllegalArgumentException e) {
+                this.statsLabel.setForeground(AppThemeColor.TEXT_IMPORTANT);
+                this.statsLabel.setText(e.getMessage());
+                this.pack();
+                return;
+            }
+            this.scannerService.get().setWords(descriptor.getWords());
+            this.scannerService.get().setRules(descriptor.getRules());
+            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.SCANNER);
 
-            String[] split = words.getText().split(",");
-            this.performNewStrings(split);
+            this.performNewRules(ruleSet);
             this.hideComponent();
         });
         JButton cancel = componentsFactory.getBorderedButton("Cancel");
@@ -91,8 +131,14 @@ public class ChatScannerFrame extends AbstractTitledComponentFrame {
         navBar.add(cancel);
         navBar.add(save);
 
+        JPanel rulesArea = componentsFactory.getTransparentPanel(new BorderLayout());
+        rulesArea.add(rulesTitle,BorderLayout.PAGE_START);
+        rulesArea.add(rules,BorderLayout.CENTER);
+        rulesArea.add(this.statsLabel,BorderLayout.PAGE_END);
+
         setupArea.add(title,BorderLayout.PAGE_START);
         setupArea.add(words,BorderLayout.CENTER);
+        setupArea.add(rulesArea,BorderLayout.PAGE_END);
 
         root.add(setupArea,BorderLayout.CENTER);
         root.add(getMemo(),BorderLayout.LINE_END);
@@ -119,83 +165,196 @@ public class ChatScannerFrame extends AbstractTitledComponentFrame {
                 this.running = false;
                 processButton.setText("Start");
                 statusLabel.setText("Status: stopped");
+                this.statsTimer.stop();
                 if (this.currentInterceptor != null) {
                     MercuryStoreCore.removeInterceptorSubject.onNext(this.currentInterceptor);
                 }
             }else {
+                ScannerRuleSet ruleSet;
+                try {
+                    ruleSet = ScannerRuleSet.compile(this.scannerService.get());
+                } catch (IllegalArgumentException e) {
+                    statusLabel.setText("Status: invalid rule");
+                    statusLabel.setToolTipText(e.getMessage());
+                    return;
+                }
                 this.running = true;
                 processButton.setText("Stop");
                 statusLabel.setText("Status: running");
-                this.performNewStrings(this.scannerService.get().getWords().split(","));
+                statusLabel.setToolTipText(null);
+                this.performNewRules(ruleSet);
             }
         });
         root.add(statusLabel);
         root.add(processButton);
         this.miscPanel.add(root,BorderLayout.CENTER);
     }
-    private void performNewStrings(String[] strings){
+    private void performNewRules(ScannerRuleSet ruleSet){
+        this.ruleSet = ruleSet;
         if(this.running) {
-            List<String> contains = new ArrayList<>();
-            List<String> notContains = new ArrayList<>();
-
-            Arrays.stream(strings).forEach(str -> {
-                str = str.toLowerCase().trim();
-                if (!str.isEmpty()) {
-                    if (str.contains("!")) {
-                        notContains.add(str.replace("!", ""));
-                    } else {
-                        contains.add(str);
-                    }
-                }
-            });
             if (this.currentInterceptor != null) {
                 MercuryStoreCore.removeInterceptorSubject.onNext(this.currentInterceptor);
             }
-            this.currentInterceptor = new MessageInterceptor() {
-                @Override
-                protected void process(String stubMessage) {
-                    messageBuilder.setChunkStrings(Arrays.asList(strings));
-                    String message = StringUtils.substringAfter(stubMessage, "] $");
-                    if (message.isEmpty()) {
-                        message = StringUtils.substringAfter(stubMessage, "] #");
-                    }
-                    if (!message.isEmpty()) {
-                        Pattern pattern = Pattern.compile("^(\\<.+?\\>)?\\s?(.+?):(.+)$");
-                        Matcher matcher = pattern.matcher(message);
-                        if (matcher.find() && !expiresMessages.containsValue(message)) {
-                            PlainMessageDescriptor descriptor = new PlainMessageDescriptor();
-                            descriptor.setNickName(matcher.group(2));
-                            descriptor.setMessage(messageBuilder.build(matcher.group(3)));
-
-                            expiresMessages.put(descriptor.getNickName(), message);
-                            if(notificationConfig.get().isScannerNotificationEnable()) {
-                                MercuryStoreCore.newScannerMessageSubject.onNext(descriptor);
-                            }
-                            MercuryStoreCore.soundSubject.onNext(SoundType.CHAT_SCANNER);
-                        }
-                    }
-                }
+            this.currentInterceptor = new ScannerInterceptor(ruleSet);
+            MercuryStoreCore.addInterceptorSubject.onNext(this.currentInterceptor);
+            this.statsTimer.start();
+        }
+        this.updateStats();
+    }
+
+    // swing timer like the stats label, so closing a digest window needs no thread of its own
+    private void scheduleDigest(Runnable task, long delayMillis){
+        Timer timer = new Timer((int) delayMillis, action -> task.run());
+        timer.setRepeats(false);
+        timer.start();
+    }
+
+    private void updateStats(){
+        this.statsLabel.setForeground(AppThemeColor.TEXT_DEFAULT);
+        if (this.ruleSet == null || this.ruleSet.isEmpty()) {
+            this.statsLabel.setText("");
+            return;
+        }
+        StringBuilder stats = new StringBuilder("<html>");
+        for (ScannerRule rule : this.ruleSet.getRules()) {
+            long evaluated = rule.getEvaluations() - rule.getSkipped();
+            stats.append(rule.getName())
+                    .append(": ").append(rule.getHits()).append(" hits / ")
+                    .append(rule.getEvaluations()).append(" messages, ")
+                    .append(evaluated == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(rule.getTotalNanos() / evaluated))
+                    .append(" us avg<br>");
+        }
+        this.statsLabel.setText(stats.append("</html>").toString());
+    }
+
+    // "name = query" per line, disabled rules are commented out with "//"
+    private String rulesToText(List<ScannerRuleDescriptor> rules){
+        StringBuilder text = new StringBuilder();
+        for (ScannerRuleDescriptor rule : rules) {
+            if (!rule.isEnabled()) {
+                text.append("//");
+            }
+            text.append(rule.getName()).append(" = ").append(rule.getQuery()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private List<ScannerRuleDescriptor> textToRules(String text){
+        List<ScannerRuleDescriptor> rules = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            line = line.trim();
+            boolean enabled = !line.startsWith("//");
+            if (!enabled) {
+                line = line.substring(2).trim();
+            }
+            if (line.isEmpty()) {
+                continue;
+            }
+            int separator = line.indexOf('=');
+            String name = separator > 0 ? line.substring(0, separator).trim() : "rule " + (rules.size() + 1);
+            String query = separator > 0 ? line.substring(separator + 1).trim() : line;
+            rules.add(new ScannerRuleDescriptor(name, query, enabled));
+        }
+        return rules;
+    }
 
-                @Override
-                protected MessageFilter getFilter() {
-                    return message -> {
-                        if (!message.contains("] $") && !message.contains("] #")) {
-                            return false;
-                        }
-                        message = StringUtils.substringAfter(message, ":").toLowerCase();
-                        return notContains.stream().noneMatch(message::contains)
-                                && contains.stream().anyMatch(message::contains);
-                    };
+    /**
+     * Matches trade and global channel lines against the compiled rules. Only the message
+     * part of {@code "... ] $<GUILD> nickname: message"} is scanned.
+     */
+    private class ScannerInterceptor extends MessageInterceptor {
+        private final ScannerRuleSet ruleSet;
+
+        private ScannerInterceptor(ScannerRuleSet ruleSet) {
+            this.ruleSet = ruleSet;
+        }
+
+        @Override
+        public boolean match(ClassifiedLine line) {
+            return this.scan(line.getText());
+        }
+
+        @Override
+        public Set<LineFeature> getTriggers() {
+            return EnumSet.of(LineFeature.TRADE_CHANNEL, LineFeature.GLOBAL_CHANNEL);
+        }
+
+        @Override
+        protected void process(String message) {
+            this.scan(message);
+        }
+
+        @Override
+        protected MessageFilter getFilter() {
+            return message -> message.contains("] $") || message.contains("] #");
+        }
+
+        private boolean scan(String line) {
+            int channel = line.indexOf("] $");
+            if (channel < 0) {
+                channel = line.indexOf("] #");
+            }
+            if (channel < 0) {
+                return false;
+            }
+            int chatStart = channel + 3;
+            int nicknameStart = chatStart;
+            if (line.startsWith("<", nicknameStart)) {
+                int guildEnd = line.indexOf('>', nicknameStart);
+                if (guildEnd > 0) {
+                    nicknameStart = guildEnd + 1;
                 }
-            };
-            MercuryStoreCore.addInterceptorSubject.onNext(this.currentInterceptor);
+            }
+            if (line.startsWith(" ", nicknameStart)) {
+                nicknameStart++;
+            }
+            int colon = line.indexOf(':', nicknameStart + 1);
+            if (colon < 0 || colon + 1 >= line.length()) {
+                return false;
+            }
+            ScannerRuleSet.Match match = this.ruleSet.match(line, colon + 1, line.length(), line.charAt(channel + 2));
+            if (match == null) {
+                return false;
+            }
+            String message = line.substring(chatStart);
+            if (recentMessages.contains(message)) {
+                return true;
+            }
+            recentMessages.add(message);
+            PlainMessageDescriptor descriptor = new PlainMessageDescriptor();
+            descriptor.setNickName(line.substring(nicknameStart, colon));
+            descriptor.setMessage(messageBuilder.build(line, colon + 1, line.length(), match.getSpans()));
+            String ruleName = match.getRules().get(0).getName();
+            this.publish(() -> coalescer.offer(ruleName, descriptor));
+            return true;
+        }
+    }
+
+    private class NotificationSink implements ScannerBurstCoalescer.Sink {
+        @Override
+        public void onMessage(PlainMessageDescriptor message) {
+            if(notificationConfig.get().isScannerNotificationEnable()) {
+                MercuryStoreCore.newScannerMessageSubject.onNext(message);
+            }
+        }
+
+        @Override
+        public void onDigest(ScannerDigestDescriptor digest) {
+            if(notificationConfig.get().isScannerNotificationEnable()) {
+                MercuryStoreCore.newScannerMessageSubject.onNext(digest);
+            }
+        }
+
+        @Override
+        public void onSound() {
+            MercuryStoreCore.soundSubject.onNext(SoundType.CHAT_SCANNER);
         }
     }
 
     @Override
     protected void initialize() {
         super.initialize();
-        this.setPreferredSize(new Dimension(350,300));
+        this.setPreferredSize(new Dimension(420,420));
     }
 
     private JPanel getMemo(){
@@ -212,6 +371,11 @@ public class ChatScannerFrame extends AbstractTitledComponentFrame {
         itemsPanel.add(componentsFactory.getTextLabel("not case sensitive",FontStyle.REGULAR,17));
         itemsPanel.add(componentsFactory.getTextLabel("! - NOT (!wtb,!wts)",FontStyle.REGULAR,17));
         itemsPanel.add(componentsFactory.getTextLabel(", - separator",FontStyle.REGULAR,17));
+        itemsPanel.add(componentsFactory.getTextLabel("Rules:",FontStyle.REGULAR,17));
+        itemsPanel.add(componentsFactory.getTextLabel("AND, OR, NOT, ( )",FontStyle.REGULAR,17));
+        itemsPanel.add(componentsFactory.getTextLabel("\"exact phrase\"",FontStyle.REGULAR,17));
+        itemsPanel.add(componentsFactory.getTextLabel("/regex/",FontStyle.REGULAR,17));
+        itemsPanel.add(componentsFactory.getTextLabel("$ - trade, # - global",FontStyle.REGULAR,17));
         root.add(title,BorderLayout.PAGE_START);
         root.add(itemsPanel,BorderLayout.CENTER);
         return root;
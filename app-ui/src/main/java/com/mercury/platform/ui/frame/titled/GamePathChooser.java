@@ -1,6 +1,7 @@
 package com.mercury.platform.ui.frame.titled;
 
 import com.mercury.platform.core.utils.FileMonitor;
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.components.fields.font.FontStyle;
 import com.mercury.platform.ui.manager.FramesManager;
@@ -109,7 +110,7 @@ public class GamePathChooser extends AbstractTitledComponentFrame {
                         timer.addActionListener(actionEvent -> {
                             timer.stop();
                             applicationConfig.get().setGamePath(gamePath + File.separator);
-                            MercuryStoreCore.saveConfigSubject.onNext(true);
+                            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.APPLICATION);
                             new FileMonitor().start();
                             FramesManager.INSTANCE.start();
                             setVisible(false);
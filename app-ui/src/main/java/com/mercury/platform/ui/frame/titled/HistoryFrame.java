@@ -1,29 +1,43 @@
 package com.mercury.platform.ui.frame.titled;
 
 import com.mercury.platform.shared.HistoryManager;
-import com.mercury.platform.shared.MessageParser;
 import com.mercury.platform.shared.config.descriptor.FrameDescriptor;
 import com.mercury.platform.shared.entity.message.NotificationDescriptor;
-import com.mercury.platform.shared.entity.message.NotificationType;
+import com.mercury.platform.shared.history.HistoryRecord;
+import com.mercury.platform.shared.history.HistoryResult;
 import com.mercury.platform.shared.store.MercuryStoreCore;
+import com.mercury.platform.ui.components.fields.font.FontStyle;
 import com.mercury.platform.ui.components.fields.style.MercuryScrollBarUI;
-import com.mercury.platform.ui.components.panel.VerticalScrollContainer;
-import com.mercury.platform.ui.components.panel.notification.NotificationPanel;
-import com.mercury.platform.ui.components.panel.notification.factory.NotificationPanelFactory;
+import com.mercury.platform.ui.components.panel.history.HistoryListModel;
+import com.mercury.platform.ui.components.panel.history.HistoryListRenderer;
 import com.mercury.platform.ui.misc.AppThemeColor;
-import org.apache.commons.lang3.ArrayUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.*;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 public class HistoryFrame extends AbstractTitledComponentFrame{
-    private JPanel mainContainer;
-    private NotificationPanelFactory factory;
-    private List<NotificationDescriptor> currentMessages;
+    private final Logger logger = LogManager.getLogger(HistoryFrame.class.getSimpleName());
+    /** Searches wait for the history index, so they run here and only their result is applied on the EDT. */
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "HistorySearch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private JList<HistoryRecord> list;
+    private HistoryListModel model;
+    private HistoryListRenderer renderer;
+    private JScrollPane scrollPane;
+    private NotificationDescriptor reloadedMessage;
+    private JButton importButton;
+    private boolean importing;
+    private String searchText = "";
+    private volatile int searchRequest;
     public HistoryFrame() {
         super();
         FrameDescriptor frameDescriptor = this.framesConfig.get(this.getClass().getSimpleName());
@@ -32,13 +46,39 @@ public class HistoryFrame extends AbstractTitledComponentFrame{
     }
     @Override
     public void onViewInit() {
-        this.factory = new NotificationPanelFactory();
-        this.currentMessages = new ArrayList<>();
-        this.mainContainer = new VerticalScrollContainer();
-        this.mainContainer.setBackground(AppThemeColor.FRAME);
-        this.mainContainer.setLayout(new BoxLayout(this.mainContainer,BoxLayout.Y_AXIS));
+        this.model = new HistoryListModel();
+        this.renderer = new HistoryListRenderer(this.componentsFactory);
+        this.list = new JList<>(this.model);
+        this.list.setCellRenderer(this.renderer);
+        this.list.setBackground(AppThemeColor.FRAME);
+        this.list.setFixedCellHeight(this.renderer.getRowHeight());
+        this.list.setFixedCellWidth(1);
+        this.list.setSelectionModel(new DefaultListSelectionModel() {
+            @Override
+            public void setSelectionInterval(int index0, int index1) {
+                /*NOP*/
+            }
+        });
+        MouseAdapter listMouseListener = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = getIndexAt(e.getPoint());
+                HistoryListRenderer.Action action = getActionAt(index, e.getPoint());
+                if (action != null) {
+                    performAction(action, model.getElementAt(index));
+                }
+            }
 
-        JScrollPane scrollPane = new JScrollPane(this.mainContainer);
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                boolean overAction = getActionAt(getIndexAt(e.getPoint()), e.getPoint()) != null;
+                list.setCursor(new Cursor(overAction ? Cursor.HAND_CURSOR : Cursor.DEFAULT_CURSOR));
+            }
+        };
+        this.list.addMouseListener(listMouseListener);
+        this.list.addMouseMotionListener(listMouseListener);
+
+        this.scrollPane = new JScrollPane(this.list);
         scrollPane.setBorder(null);
         scrollPane.setBackground(AppThemeColor.FRAME);
         scrollPane.setVerticalScrollBarPolicy(ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED);
@@ -53,48 +93,108 @@ public class HistoryFrame extends AbstractTitledComponentFrame{
         vBar.setBackground(AppThemeColor.SLIDE_BG);
         vBar.setUI(new MercuryScrollBarUI());
         vBar.setPreferredSize(new Dimension(16, Integer.MAX_VALUE));
-        vBar.setUnitIncrement(3);
         vBar.setBorder(BorderFactory.createEmptyBorder(1,1,1,2));
         vBar.addAdjustmentListener(e -> repaint());
 
         this.add(scrollPane,BorderLayout.CENTER);
-        mainContainer.getParent().setBackground(AppThemeColor.FRAME);
+        scrollPane.getViewport().setBackground(AppThemeColor.FRAME);
 
-        String[] messages = HistoryManager.INSTANCE.fetchNext(10);
-        ArrayUtils.reverse(messages);
-        for (String message : messages) {
-            MessageParser parser = new MessageParser();
-            NotificationDescriptor parsedNotificationDescriptor = parser.parse(message);
-            if(parsedNotificationDescriptor != null) {
-                NotificationPanel panel = this.factory.getProviderFor(NotificationType.HISTORY)
-                        .setData(parsedNotificationDescriptor)
-                        .setComponentsFactory(this.componentsFactory)
-                        .build();
-                this.currentMessages.add(parsedNotificationDescriptor);
-                mainContainer.add(panel);
-            }
-        }
         this.miscPanel.add(getClearButton(),0);
+        this.miscPanel.add(getSearchField(),0);
+        this.miscPanel.add(getImportButton(),0);
         this.pack();
-        vBar.setValue(vBar.getMaximum());
-        vBar.addAdjustmentListener((AdjustmentEvent e) -> {
-            if (vBar.getValue() < 100) {
-                String[] nextMessages = HistoryManager.INSTANCE.fetchNext(5);
-                for (String message : nextMessages) {
-                    MessageParser parser = new MessageParser();
-                    NotificationDescriptor parsedNotificationDescriptor = parser.parse(message);
-                    if(parsedNotificationDescriptor != null) {
-                        NotificationPanel panel = this.factory.getProviderFor(NotificationType.HISTORY)
-                                .setData(parsedNotificationDescriptor)
-                                .setComponentsFactory(this.componentsFactory)
-                                .build();
-                        this.currentMessages.add(parsedNotificationDescriptor);
-                        mainContainer.add(panel,0);
-                    }
-                    vBar.setValue(vBar.getValue() + 100);
+        this.loadMessages(true);
+    }
+    /**
+     * Runs the search in the background; a search superseded by a newer one is dropped.
+     */
+    private void loadMessages(boolean scrollToEnd){
+        int request = ++this.searchRequest;
+        String text = this.searchText;
+        this.searchExecutor.execute(() -> {
+            if(request != this.searchRequest) {
+                return;
+            }
+            HistoryResult result;
+            try {
+                result = HistoryManager.INSTANCE.search(text);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Error while searching history: ", e);
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if(request != this.searchRequest) {
+                    return;
+                }
+                this.model.setResult(result);
+                if(scrollToEnd && this.model.getSize() > 0) {
+                    this.list.ensureIndexIsVisible(this.model.getSize() - 1);
                 }
+                this.repaint();
+            });
+        });
+    }
+    private boolean isScrolledToEnd(){
+        JScrollBar vBar = this.scrollPane.getVerticalScrollBar();
+        return vBar.getValue() + vBar.getVisibleAmount() >= vBar.getMaximum();
+    }
+    private int getIndexAt(Point point){
+        int index = this.list.locationToIndex(point);
+        if(index < 0 || !this.list.getCellBounds(index, index).contains(point)){
+            return -1;
+        }
+        return index;
+    }
+    private HistoryListRenderer.Action getActionAt(int index, Point point){
+        if(index < 0){
+            return null;
+        }
+        Rectangle bounds = this.list.getCellBounds(index, index);
+        return this.renderer.getActionAt(bounds.width, bounds.height, point.x - bounds.x, point.y - bounds.y);
+    }
+    private void performAction(HistoryListRenderer.Action action, HistoryRecord record){
+        if(record == null){
+            return;
+        }
+        switch (action) {
+            case RELOAD: {
+                NotificationDescriptor descriptor = record.toDescriptor();
+                if(descriptor != null) {
+                    this.reloadedMessage = descriptor;
+                    MercuryStoreCore.newNotificationSubject.onNext(descriptor);
+                }
+                break;
             }
+            case OPEN_CHAT: {
+                MercuryStoreCore.openChatSubject.onNext(record.getNickname());
+                break;
+            }
+        }
+    }
+    private JTextField getSearchField(){
+        JTextField searchField = this.componentsFactory.getTextField(this.searchText, FontStyle.REGULAR, 15f);
+        searchField.setToolTipText("Search by nickname, item, currency or league (Enter)");
+        searchField.setPreferredSize(new Dimension(140, 20));
+        searchField.addActionListener(action -> {
+            this.searchText = searchField.getText();
+            this.loadMessages(true);
+        });
+        return searchField;
+    }
+    private JButton getImportButton(){
+        this.importButton =
+                componentsFactory.getIconButton("app/reload-history.png",
+                        13,
+                        AppThemeColor.HEADER,
+                        "Import history from Client.txt");
+        this.importButton.addActionListener(action -> {
+            MercuryStoreCore.importHistorySubject.onNext(!this.importing);
+            this.importing = !this.importing;
         });
+        return this.importButton;
     }
     private JButton getClearButton(){
         JButton clearHistory =
@@ -103,9 +203,10 @@ public class HistoryFrame extends AbstractTitledComponentFrame{
                         AppThemeColor.HEADER,
                         "Clear history");
         clearHistory.addActionListener(action -> {
-            HistoryManager.INSTANCE.clear();
-            this.mainContainer.removeAll();
-            this.pack();
+            this.searchRequest++;
+            this.searchExecutor.execute(HistoryManager.INSTANCE::clear);
+            this.model.setResult(null);
+            this.repaint();
         });
         return clearHistory;
     }
@@ -118,25 +219,27 @@ public class HistoryFrame extends AbstractTitledComponentFrame{
     @Override
     public void subscribe() {
         MercuryStoreCore.newNotificationSubject.subscribe(message -> SwingUtilities.invokeLater(()-> {
-            if(!currentMessages.contains(message)) {
-                HistoryManager.INSTANCE.add(message);
-                NotificationPanel panel = this.factory.getProviderFor(NotificationType.HISTORY)
-                        .setData(message)
-                        .setComponentsFactory(this.componentsFactory)
-                        .build();
-                mainContainer.add(panel);
-                this.currentMessages.add(message);
-                this.trimContainer();
-                this.pack();
+            if(message == this.reloadedMessage) {
+                this.reloadedMessage = null;
+                return;
             }
+            this.searchExecutor.execute(() -> HistoryManager.INSTANCE.add(message));
+            this.loadMessages(this.isScrolledToEnd());
         }));
-    }
-    private void trimContainer(){
-        if(mainContainer.getComponentCount() > 40){
-            for (int i = 0; i < 5; i++) {
-                mainContainer.remove(0);
+        MercuryStoreCore.historyImportProgressSubject.subscribe(percent -> SwingUtilities.invokeLater(() -> {
+            if(this.importButton != null) {
+                this.importButton.setToolTipText("Importing history: " + percent + "% (click to cancel)");
             }
-            this.pack();
-        }
+        }));
+        MercuryStoreCore.historyImportedSubject.subscribe(count -> SwingUtilities.invokeLater(() -> {
+            if(this.importButton != null) {
+                this.onImportFinished();
+            }
+        }));
+    }
+    private void onImportFinished(){
+        this.importing = false;
+        this.importButton.setToolTipText("Import history from Client.txt");
+        this.loadMessages(this.isScrolledToEnd());
     }
 }
@@ -1,6 +1,7 @@
 package com.mercury.platform.ui.frame.titled;
 
 import com.mercury.platform.shared.FrameVisibleState;
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.components.fields.font.FontStyle;
 import com.mercury.platform.ui.components.fields.font.TextAlignment;
@@ -153,7 +154,7 @@ public class NotesFrame extends AbstractTitledComponentFrame {
                     }
                     prevState = FrameVisibleState.HIDE;
                 }
-                MercuryStoreCore.saveConfigSubject.onNext(true);
+                MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.APPLICATION);
             }
         });
         close.setBackground(AppThemeColor.FRAME);
@@ -21,11 +21,20 @@ public class TestEngine {
     private List<String> leagues= new ArrayList<>();
     private HtmlMessageBuilder messageBuilder = new HtmlMessageBuilder();
     private MessageParser parser = new MessageParser();
-    private Random random = new Random();
+    private Random random;
     private String poeTradeTemplate = "%s: Hi, I would like to buy your %s listed for %d %s in %s (stash tab \"%d\"; position: left %d, top %d) %s";
     private String currencyTemplate = "%s: Hi, I'd like to buy your %d %s for my %d %s in %s. %s";
 
     public TestEngine() {
+        this(new Random());
+    }
+
+    public TestEngine(long seed) {
+        this(new Random(seed));
+    }
+
+    private TestEngine(Random random) {
+        this.random = random;
         this.messageBuilder.setChunkStrings(Arrays.asList("Hi","buy","listed","like"));
 
         items.add("Wondertrap Velvet Slippers");
@@ -129,8 +138,11 @@ public class TestEngine {
         leagues.add("1 Week Legacy (JRE055)");
         leagues.add("1 Week Legacy HC (JRE055)");
     }
-    public NotificationDescriptor getRandomItemIncMessage(){
-        NotificationDescriptor notificationDescriptor = parser.parse(String.format(poeTradeTemplate,
+    /**
+     * Raw whisper body as written after the "@From" marker, e.g. "Example1: Hi, I would like to buy your ..."
+     */
+    public String getRandomItemWhisper(){
+        return String.format(poeTradeTemplate,
                 nickNames.get(random.nextInt(nickNames.size())),
                 items.get(random.nextInt(items.size())),
                 random.nextInt(200),
@@ -140,11 +152,10 @@ public class TestEngine {
                 random.nextInt(12) + 1,
                 random.nextInt(12) + 1,
                 offer.get(random.nextInt(offer.size()))
-        ));
-        return notificationDescriptor;
+        );
     }
-    public NotificationDescriptor getRandomCurrencyIncMessage(){
-        NotificationDescriptor notificationDescriptor = parser.parse(String.format(currencyTemplate,
+    public String getRandomCurrencyWhisper(){
+        return String.format(currencyTemplate,
                 nickNames.get(random.nextInt(nickNames.size())),
                 random.nextInt(200) + 1,
                 currency.get(random.nextInt(currency.size())),
@@ -152,50 +163,32 @@ public class TestEngine {
                 currency.get(random.nextInt(currency.size())),
                 leagues.get(random.nextInt(leagues.size())),
                 offer.get(random.nextInt(offer.size()))
-        ));
+        );
+    }
+    public List<String> getChunkStrings(){
+        return this.messageBuilder.getChunkStrings();
+    }
+    public NotificationDescriptor getRandomItemIncMessage(){
+        NotificationDescriptor notificationDescriptor = parser.parse(this.getRandomItemWhisper());
+        return notificationDescriptor;
+    }
+    public NotificationDescriptor getRandomCurrencyIncMessage(){
+        NotificationDescriptor notificationDescriptor = parser.parse(this.getRandomCurrencyWhisper());
         return notificationDescriptor;
     }
 
     public NotificationDescriptor getRandomItemOutMessage(){
-        NotificationDescriptor notificationDescriptor = parser.parse(String.format(poeTradeTemplate,
-                nickNames.get(random.nextInt(nickNames.size())),
-                items.get(random.nextInt(items.size())),
-                random.nextInt(200),
-                currency.get(random.nextInt(currency.size())),
-                leagues.get(random.nextInt(leagues.size())),
-                random.nextInt(30),
-                random.nextInt(12) + 1,
-                random.nextInt(12) + 1,
-                offer.get(random.nextInt(offer.size()))
-        ));
+        NotificationDescriptor notificationDescriptor = parser.parse(this.getRandomItemWhisper());
         notificationDescriptor.setType(NotificationType.OUT_ITEM_MESSAGE);
         return notificationDescriptor;
     }
     public NotificationDescriptor getRandomCurrencyOutMessage(){
-        NotificationDescriptor notificationDescriptor = parser.parse(String.format(currencyTemplate,
-                nickNames.get(random.nextInt(nickNames.size())),
-                random.nextInt(200) + 1,
-                currency.get(random.nextInt(currency.size())),
-                random.nextInt(200) + 1,
-                currency.get(random.nextInt(currency.size())),
-                leagues.get(random.nextInt(leagues.size())),
-                offer.get(random.nextInt(offer.size()))
-        ));
+        NotificationDescriptor notificationDescriptor = parser.parse(this.getRandomCurrencyWhisper());
         notificationDescriptor.setType(NotificationType.OUT_CURRENCY_MESSAGE);
         return notificationDescriptor;
     }
     public PlainMessageDescriptor getRandomScannerMessage(){
-        NotificationDescriptor notificationDescriptor = parser.parse(String.format(poeTradeTemplate,
-                nickNames.get(random.nextInt(nickNames.size())),
-                items.get(random.nextInt(items.size())),
-                random.nextInt(200),
-                currency.get(random.nextInt(currency.size())),
-                leagues.get(random.nextInt(leagues.size())),
-                random.nextInt(30),
-                random.nextInt(12) + 1,
-                random.nextInt(12) + 1,
-                offer.get(random.nextInt(offer.size()))
-        ));
+        NotificationDescriptor notificationDescriptor = parser.parse(this.getRandomItemWhisper());
         PlainMessageDescriptor descriptor = new PlainMessageDescriptor();
         descriptor.setMessage(messageBuilder.build(StringUtils.substringAfter(notificationDescriptor.getSourceString(),notificationDescriptor.getWhisperNickname()+":")));
         descriptor.setNickName(notificationDescriptor.getWhisperNickname());
@@ -1,5 +1,6 @@
 package com.mercury.platform.ui.manager;
 
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.Configuration;
 import com.mercury.platform.shared.config.descriptor.ApplicationDescriptor;
 import com.mercury.platform.shared.store.MercuryStoreCore;
@@ -22,7 +23,7 @@ public class HideSettingsManager {
         config.setMaxOpacity(maxOpacity);
         config.setMinOpacity(minOpacity);
         config.setFadeTime(fadeTime);
-        MercuryStoreCore.saveConfigSubject.onNext(true);
+        MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.APPLICATION);
 
         this.frames.forEach(frame -> {
             if(fadeTime > 0){
@@ -1,6 +1,7 @@
 package com.mercury.platform.ui.manager.routing;
 
 import com.mercury.platform.shared.AsSubscriber;
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.components.panel.settings.page.*;
 import com.mercury.platform.ui.frame.titled.SettingsFrame;
@@ -75,7 +76,11 @@ public class SettingsRoutManager implements AsSubscriber{
             this.notificationSettings.onSave();
             this.soundSettings.onSave();
             this.taskBarSettings.onSave();
-            MercuryStoreCore.saveConfigSubject.onNext(true);
+            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.APPLICATION);
+            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.SOUND);
+            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.NOTIFICATION);
+            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.SCANNER);
+            MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.HOTKEYS);
             MercuryStoreUI.settingsPostSubject.onNext(true);
         });
     }
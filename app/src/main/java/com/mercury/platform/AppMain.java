@@ -4,6 +4,7 @@ import com.mercury.platform.core.DevStarter;
 import com.mercury.platform.core.ProdStarter;
 import com.mercury.platform.core.utils.FileMonitor;
 import com.mercury.platform.core.utils.error.ErrorHandler;
+import com.mercury.platform.shared.config.ConfigSection;
 import com.mercury.platform.shared.config.Configuration;
 import com.mercury.platform.shared.store.MercuryStoreCore;
 import com.mercury.platform.ui.frame.other.MercuryLoadingFrame;
@@ -44,7 +45,7 @@ public class AppMain {
             }else {
                 gamePath = gamePath + "\\";
                 Configuration.get().applicationConfiguration().get().setGamePath(gamePath);
-                MercuryStoreCore.saveConfigSubject.onNext(true);
+                MercuryStoreCore.saveConfigSectionSubject.onNext(ConfigSection.APPLICATION);
                 new FileMonitor().start();
                 FramesManager.INSTANCE.start();
                 MercuryStoreCore.appLoadingSubject.onNext(false);